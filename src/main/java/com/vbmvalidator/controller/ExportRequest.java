@@ -7,6 +7,7 @@ public class ExportRequest {
     private String validationId;
     private List<String> selectedErrorIds;
     private boolean highlightChanges;
+    private String mode;  // "patch" rewrites only corrected cells of the uploaded file; anything else rebuilds the sheet
     
     // Getters and setters
     public String getValidationId() { return validationId; }
@@ -15,4 +16,6 @@ public class ExportRequest {
     public void setSelectedErrorIds(List<String> selectedErrorIds) { this.selectedErrorIds = selectedErrorIds; }
     public boolean isHighlightChanges() { return highlightChanges; }
     public void setHighlightChanges(boolean highlightChanges) { this.highlightChanges = highlightChanges; }
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
 } 
@@ -1,17 +1,22 @@
 package com.vbmvalidator.controller;
 
+import java.beans.PropertyEditorSupport;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,17 +24,34 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbmvalidator.entity.ValidationEntity;
 import com.vbmvalidator.model.SOBBenefit;
 import com.vbmvalidator.model.SOBData;
 import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.model.StoredValidation;
 import com.vbmvalidator.model.ValidationError;
+import com.vbmvalidator.model.ValidationJob;
 import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.model.VendorMatrixBook;
 import com.vbmvalidator.model.VendorMatrixData;
 import com.vbmvalidator.service.ExcelExportService;
+import com.vbmvalidator.service.ValidationResultStore;
 import com.vbmvalidator.service.ValidationService;
+import com.vbmvalidator.service.XlsxCellPatcher;
+import com.vbmvalidator.service.impl.BatchValidationService;
+import com.vbmvalidator.service.impl.BenefitMappingServiceImpl;
+import com.vbmvalidator.service.impl.CachingValidationService;
 import com.vbmvalidator.service.impl.DocumentProcessorService;
+import com.vbmvalidator.service.impl.ParseCache;
+import com.vbmvalidator.service.impl.SOBTypeRegistry;
+import com.vbmvalidator.service.impl.ValidationHistoryService;
+import com.vbmvalidator.service.impl.ValidationHistoryWriter;
+import com.vbmvalidator.service.impl.ValidationJobService;
 
 import jakarta.servlet.http.HttpSession;
 
@@ -39,6 +61,11 @@ public class ValidationController {
 
     private static final Logger log = LoggerFactory.getLogger(ValidationController.class);
 
+    private static final long JOB_EVENTS_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
+    // The only validation state kept in the session; the data lives in the result store
+    private static final String SESSION_VALIDATION_ID = "validationId";
+
     @Autowired
     private DocumentProcessorService documentProcessorService;
     
@@ -47,10 +74,52 @@ public class ValidationController {
     
     @Autowired
     private ExcelExportService excelExportService;
+    
+    @Autowired
+    private BatchValidationService batchValidationService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CachingValidationService cachingValidationService;
+    
+    @Autowired
+    private BenefitMappingServiceImpl benefitMappingService;
+    
+    @Autowired
+    private ValidationJobService validationJobService;
+
+    @Autowired
+    private SOBTypeRegistry sobTypeRegistry;
+    
+    @Autowired
+    private ValidationResultStore validationResultStore;
+    
+    // Only present with the persistence profile
+    @Autowired(required = false)
+    private ValidationHistoryService validationHistoryService;
+    
+    @Autowired(required = false)
+    private ValidationHistoryWriter validationHistoryWriter;
+
+    /**
+     * SOB type parameters bind only to types the registry has a processor for, so a type whose
+     * rule pack was removed is rejected with 400 instead of validating without rules
+     */
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        binder.registerCustomEditor(SOBType.class, new PropertyEditorSupport() {
+            @Override
+            public void setAsText(String text) {
+                setValue(text == null || text.isBlank() ? null : sobTypeRegistry.resolve(text.trim()));
+            }
+        });
+    }
 
     @GetMapping
     public String index(Model model) {
-        model.addAttribute("sobTypes", SOBType.values());
+        model.addAttribute("sobTypes", sobTypeRegistry.getTypes());
         return "index";
     }
 
@@ -69,7 +138,7 @@ public class ValidationController {
         
         SOBType sobType = null;
         try {
-            sobType = SOBType.valueOf(sobTypeString);
+            sobType = sobTypeRegistry.resolve(sobTypeString);
         } catch (IllegalArgumentException e) {
             log.error("Invalid SOB Type provided: {}", sobTypeString);
             redirectAttributes.addFlashAttribute("error", "Invalid SOB Type selected. Please try again.");
@@ -112,11 +181,11 @@ public class ValidationController {
             ValidationResult validationResult = validationService.validateWithSOBType(sobData, vendorMatrixData, sobType);
             log.info("Validation completed with {} errors, {} warnings", validationResult.getTotalErrors(), validationResult.getTotalWarnings());
 
-            // Store data in session for export functionality
-            session.setAttribute("sobData", sobData);
-            session.setAttribute("vendorMatrixData", vendorMatrixData);
-            session.setAttribute("validationResult", validationResult);
-            session.setAttribute("sobType", sobType);
+            // Keep the data for the details view and export; the session only holds the ID
+            validationResultStore.put(new StoredValidation(sobType, sobData, vendorMatrixData, validationResult,
+                    vendorMatrixFile.getBytes()));
+            session.setAttribute(SESSION_VALIDATION_ID, validationResult.getValidationId());
+            recordHistory(validationResult);
 
             // Add to model for display
             log.info("Adding model attributes...");
@@ -165,17 +234,22 @@ public class ValidationController {
     @GetMapping("/validation-results/details")
     public String showValidationErrorDetails(@RequestParam(defaultValue = "0") int errorIndex,
                                            Model model, HttpSession session) {
-        ValidationResult validationResult = (ValidationResult) session.getAttribute("validationResult");
-        SOBData sobData = (SOBData) session.getAttribute("sobData");
-        
-        if (validationResult == null || sobData == null) {
+        StoredValidation stored = validationResultStore.get((String) session.getAttribute(SESSION_VALIDATION_ID));
+        if (stored == null || stored.getValidationResult() == null || stored.getSobData() == null) {
             return "redirect:/";
         }
 
+        populateResultModel(model, stored, errorIndex);
+        return "validation-results";
+    }
+
+    private void populateResultModel(Model model, StoredValidation stored, int errorIndex) {
+        ValidationResult validationResult = stored.getValidationResult();
+        SOBData sobData = stored.getSobData();
         model.addAttribute("validationResult", validationResult);
         model.addAttribute("sobData", sobData);
-        model.addAttribute("vendorMatrixData", session.getAttribute("vendorMatrixData"));
-        model.addAttribute("sobType", session.getAttribute("sobType"));
+        model.addAttribute("vendorMatrixData", stored.getVendorMatrixData());
+        model.addAttribute("sobType", stored.getSobType());
 
         if (!validationResult.getErrors().isEmpty()) {
             if (errorIndex >= 0 && errorIndex < validationResult.getErrors().size()) {
@@ -195,15 +269,66 @@ public class ValidationController {
             model.addAttribute("currentErrorIndex", 0);
             model.addAttribute("currentSOBBenefit", null);
         }
+    }
 
+    @GetMapping("/validation/{validationId}")
+    public String getValidationResults(@PathVariable String validationId,
+                                       @RequestParam(defaultValue = "0") int errorIndex,
+                                       Model model, HttpSession session) {
+        StoredValidation stored = validationResultStore.get(validationId);
+        if (stored == null || stored.getValidationResult() == null) {
+            log.warn("No finished validation found for ID {}", validationId);
+            return "redirect:/";
+        }
+
+        // Make the result the session's current one, for the details view and export
+        session.setAttribute(SESSION_VALIDATION_ID, validationId);
+
+        populateResultModel(model, stored, errorIndex);
         return "validation-results";
     }
 
-    @GetMapping("/validation/{validationId}")
-    public String getValidationResults(@PathVariable String validationId, Model model) {
-        // Implementation for retrieving stored validation results
-        // For now, redirect to home
-        return "redirect:/";
+    @PostMapping("/api/jobs")
+    @ResponseBody
+    public ResponseEntity<ValidationJob> submitValidationJob(@RequestParam MultipartFile sobFile,
+                                                             @RequestParam MultipartFile vendorMatrixFile,
+                                                             @RequestParam(required = false) SOBType sobType) {
+        if (sobFile.isEmpty() || vendorMatrixFile.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ValidationJob job = validationJobService.submit(sobFile, vendorMatrixFile, sobType);
+            return ResponseEntity.accepted().body(job);
+        } catch (ValidationJobService.JobQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+        } catch (IOException e) {
+            log.error("Could not queue validation job", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ValidationJob> getValidationJob(@PathVariable String jobId) {
+        ValidationJob job = validationJobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(value = "/api/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamValidationJob(@PathVariable String jobId) {
+        SseEmitter emitter = new SseEmitter(JOB_EVENTS_TIMEOUT_MILLIS);
+        // One "progress" event per stage, then "completed" or "failed"
+        boolean found = validationJobService.subscribe(jobId, job -> {
+            String eventName = job.isFinished() ? job.getState().name().toLowerCase() : "progress";
+            emitter.send(SseEmitter.event().name(eventName).data(job, MediaType.APPLICATION_JSON));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        });
+        return found ? ResponseEntity.ok(emitter) : ResponseEntity.notFound().build();
     }
 
     @PostMapping("/api/validate")
@@ -217,57 +342,142 @@ public class ValidationController {
             
             SOBType finalSOBType = sobType != null ? sobType : sobData.getSobType();
             ValidationResult result = validationService.validateWithSOBType(sobData, vendorMatrixData, finalSOBType);
+            recordHistory(result);
             
             return ResponseEntity.ok(result);
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             log.error("API validation error", e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping(value = "/api/validate/batch", produces = "application/x-ndjson")
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> validateBatchAPI(@RequestParam List<MultipartFile> sobFiles,
+                                                                @RequestParam MultipartFile vendorMatrixFile,
+                                                                @RequestParam(required = false) SOBType sobType) {
+        try {
+            // Parse the plan book and buffer the SOBs up front so bad input is rejected before streaming starts
+            VendorMatrixBook vendorMatrixBook = documentProcessorService.extractVendorMatrixBook(vendorMatrixFile);
+            List<MultipartFile> sobBatch = batchValidationService.expandSOBFiles(sobFiles);
+            log.info("Batch validation of {} SOB files against {} plans", sobBatch.size(), vendorMatrixBook.size());
+            
+            // One JSON object per line, written as each SOB finishes
+            StreamingResponseBody body = outputStream -> batchValidationService.validateBatch(
+                sobBatch, vendorMatrixBook, sobType, item -> {
+                    outputStream.write(objectMapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                    outputStream.flush();
+                });
+            
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+        } catch (IOException | RuntimeException e) {
+            log.error("Batch API validation error", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/api/parse-cache/stats")
+    @ResponseBody
+    public ResponseEntity<List<ParseCache.Stats>> parseCacheStats() {
+        return ResponseEntity.ok(documentProcessorService.getParseCacheStats());
+    }
+
+    @GetMapping("/api/result-cache/stats")
+    @ResponseBody
+    public ResponseEntity<ParseCache.Stats> resultCacheStats() {
+        return ResponseEntity.ok(cachingValidationService.getResultCacheStats());
+    }
+
+    @GetMapping("/api/detection-cache/stats")
+    @ResponseBody
+    public ResponseEntity<ParseCache.Stats> detectionCacheStats() {
+        return ResponseEntity.ok(benefitMappingService.getDetectionCacheStats());
+    }
+
+    @GetMapping("/api/sob-types")
+    @ResponseBody
+    public ResponseEntity<List<SOBTypeRegistry.SOBTypeInfo>> sobTypes() {
+        return ResponseEntity.ok(sobTypeRegistry.describe());
+    }
+
+    /**
+     * Re-read the rule packs, then drop cached results that were validated with the old rules
+     */
+    @PostMapping("/api/sob-types/reload")
+    @ResponseBody
+    public ResponseEntity<List<SOBTypeRegistry.SOBTypeInfo>> reloadSobTypes() {
+        int packs = sobTypeRegistry.reload();
+        cachingValidationService.refreshRuleVersion();
+        log.info("Reloaded SOB types: {} rule packs in use", packs);
+        return ResponseEntity.ok(sobTypeRegistry.describe());
+    }
+
+    @GetMapping("/api/validations")
+    @ResponseBody
+    public ResponseEntity<List<ValidationEntity>> validationHistory(@RequestParam(defaultValue = "20") int limit) {
+        if (validationHistoryService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(validationHistoryService.findRecent(limit));
+    }
+
+    @GetMapping("/api/validations/{validationId}")
+    @ResponseBody
+    public ResponseEntity<ValidationEntity> validationHistoryEntry(@PathVariable String validationId) {
+        if (validationHistoryService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(validationHistoryService.findByValidationId(validationId));
+    }
+
+    @GetMapping("/api/history-writer/stats")
+    @ResponseBody
+    public ResponseEntity<ValidationHistoryWriter.Stats> historyWriterStats() {
+        if (validationHistoryWriter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(validationHistoryWriter.getStats());
+    }
+
+    // Saved in the background; the response never waits on the database
+    private void recordHistory(ValidationResult result) {
+        if (validationHistoryWriter != null) {
+            validationHistoryWriter.submit(result);
+        }
+    }
+
     @PostMapping("/api/export-corrected")
     @ResponseBody
-    public ResponseEntity<byte[]> exportCorrectedMatrix(@RequestBody ExportRequest exportRequest, 
-                                                       HttpSession session) {
+    public ResponseEntity<StreamingResponseBody> exportCorrectedMatrix(@RequestBody ExportRequest exportRequest, 
+                                                                       HttpSession session) {
         try {
             log.info("Export request received for {} selected errors", 
                 exportRequest.getSelectedErrorIds() != null ? exportRequest.getSelectedErrorIds().size() : 0);
             
-            // Retrieve data from session
-            SOBData sobData = (SOBData) session.getAttribute("sobData");
-            VendorMatrixData vendorMatrixData = (VendorMatrixData) session.getAttribute("vendorMatrixData");
-            ValidationResult validationResult = (ValidationResult) session.getAttribute("validationResult");
+            // Retrieve the session's current validation from the result store
+            StoredValidation stored = validationResultStore.get((String) session.getAttribute(SESSION_VALIDATION_ID));
+            SOBData sobData = stored != null ? stored.getSobData() : null;
+            VendorMatrixData vendorMatrixData = stored != null ? stored.getVendorMatrixData() : null;
+            ValidationResult validationResult = stored != null ? stored.getValidationResult() : null;
             
             if (sobData == null || vendorMatrixData == null || validationResult == null) {
-                log.error("Session data not found. User may need to re-upload files.");
+                log.error("Validation data not found. User may need to re-upload files.");
                 return ResponseEntity.badRequest()
-                    .body("Session expired. Please upload files again.".getBytes());
+                    .body(textBody("Session expired. Please upload files again."));
             }
             
             // Get selected error IDs or default to all errors if none selected
-            List<String> selectedErrorIds = exportRequest.getSelectedErrorIds();
-            if (selectedErrorIds == null || selectedErrorIds.isEmpty()) {
-                selectedErrorIds = validationResult.getErrors().stream()
+            List<String> requestedErrorIds = exportRequest.getSelectedErrorIds();
+            if (requestedErrorIds == null || requestedErrorIds.isEmpty()) {
+                requestedErrorIds = validationResult.getErrors().stream()
                     .map(error -> error.getErrorId())
                     .collect(java.util.stream.Collectors.toList());
-                log.info("No specific errors selected, using all {} errors", selectedErrorIds.size());
+                log.info("No specific errors selected, using all {} errors", requestedErrorIds.size());
             }
-            
-            // Generate corrected Excel file
-            byte[] excelData = excelExportService.generateCorrectedVendorMatrix(
-                vendorMatrixData, 
-                validationResult, 
-                selectedErrorIds, 
-                exportRequest.isHighlightChanges()
-            );
-            
-            if (excelData == null || excelData.length == 0) {
-                log.error("Generated Excel file is empty");
-                return ResponseEntity.internalServerError()
-                    .body("Failed to generate Excel file".getBytes());
-            }
-            
-            log.info("Generated Excel file with {} bytes", excelData.length);
+            List<String> selectedErrorIds = requestedErrorIds;
             
             // Create filename with timestamp
             String timestamp = java.time.LocalDateTime.now().format(
@@ -275,31 +485,62 @@ public class ValidationController {
             );
             String filename = "corrected_vendor_matrix_" + timestamp + ".xlsx";
             
-            // Set proper headers for Excel download
+            // Set proper headers for Excel download; the length is unknown until the workbook is written
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
             headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(excelData.length);
             headers.setCacheControl("no-cache, no-store, must-revalidate");
             headers.setPragma("no-cache");
             headers.setExpires(0);
             
-            log.info("Returning Excel file: {} ({} bytes)", filename, excelData.length);
+            // Patch mode: rewrite only the corrected cells of the original upload
+            if ("patch".equalsIgnoreCase(exportRequest.getMode())) {
+                byte[] originalUpload = stored.getVendorMatrixUpload();
+                if (originalUpload != null) {
+                    try {
+                        XlsxCellPatcher.PatchedWorkbook patched = excelExportService.patchCorrectedVendorMatrix(
+                            originalUpload, vendorMatrixData, validationResult, selectedErrorIds);
+                        log.info("Streaming patched Excel file: {} ({} cells)", filename, patched.getPatchedCells());
+                        return ResponseEntity.ok()
+                            .headers(headers)
+                            .body(patched::writeTo);
+                    } catch (IOException e) {
+                        log.warn("Could not patch uploaded Vendor Matrix, rebuilding it instead: {}", e.getMessage());
+                    }
+                }
+            }
+            
+            // Generate the corrected Excel file directly into the response
+            StreamingResponseBody body = outputStream -> {
+                excelExportService.writeCorrectedVendorMatrix(
+                    vendorMatrixData, 
+                    validationResult, 
+                    selectedErrorIds, 
+                    exportRequest.isHighlightChanges(),
+                    outputStream
+                );
+                log.info("Streamed Excel file: {}", filename);
+            };
+            
             return ResponseEntity.ok()
                 .headers(headers)
-                .body(excelData);
+                .body(body);
                     
-        } catch (IOException | IllegalArgumentException e) {
+        } catch (IllegalArgumentException e) {
             log.error("Export error", e);
             return ResponseEntity.internalServerError()
-                .body(("Export failed: " + e.getMessage()).getBytes());
+                .body(textBody("Export failed: " + e.getMessage()));
         } catch (RuntimeException e) {
             log.error("Runtime error during export", e);
             return ResponseEntity.internalServerError()
-                .body(("Unexpected error: " + e.getMessage()).getBytes());
+                .body(textBody("Unexpected error: " + e.getMessage()));
         }
     }
 
+    private static StreamingResponseBody textBody(String message) {
+        return outputStream -> outputStream.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
     @PostMapping("/api/update-error-selection")
     @ResponseBody
     public ResponseEntity<String> updateErrorSelection(@RequestBody List<String> selectedErrorIds) {
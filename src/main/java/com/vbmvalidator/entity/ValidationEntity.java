@@ -1,67 +1,95 @@
 package com.vbmvalidator.entity;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
-// JPA imports temporarily disabled for testing
-// import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
-// @Entity
-// @Table(name = "validations")
-// Entity disabled for testing - no Lombok annotations
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "validations", indexes = {
+    @Index(name = "idx_validations_created_at", columnList = "createdAt")
+})
 public class ValidationEntity {
     
-    // @Id
-    // @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY, so Hibernate knows IDs before the insert and can
+    // batch; on MySQL the sequence is emulated with a table
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "validation_seq")
+    @SequenceGenerator(name = "validation_seq", sequenceName = "validation_seq", allocationSize = 50)
     private Long id;
     
-    // @Column(unique = true, nullable = false)
+    @Column(unique = true, nullable = false)
     private String validationId;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private String sobType;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private String sobFileName;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private String vendorMatrixFileName;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private LocalDateTime validatedAt;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private String status;
     
     private int totalErrors;
     private int totalWarnings;
     
-    // @Lob
+    @Lob
     private String validationSummary;
     
-    // @Lob
+    @Lob
     private String rawResults;
     
     // Bidirectional relationship - mapped by validation field in ValidationErrorEntity
-    // @OneToMany(mappedBy = "validation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<ValidationErrorEntity> errors;
+    @JsonIgnore
+    @OneToMany(mappedBy = "validation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    private List<ValidationErrorEntity> errors = new ArrayList<>();
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
     // Lifecycle callbacks
-    // @PrePersist
+    @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
     
-    // @PreUpdate
+    @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
     
-    // Basic getters and setters (minimal implementation for testing)
+    /**
+     * Attach an error to this validation, setting both sides of the relationship
+     */
+    public void addError(ValidationErrorEntity error) {
+        error.setValidation(this);
+        errors.add(error);
+    }
+    
+    // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
@@ -71,6 +99,12 @@ public class ValidationEntity {
     public String getSobType() { return sobType; }
     public void setSobType(String sobType) { this.sobType = sobType; }
     
+    public String getSobFileName() { return sobFileName; }
+    public void setSobFileName(String sobFileName) { this.sobFileName = sobFileName; }
+    
+    public String getVendorMatrixFileName() { return vendorMatrixFileName; }
+    public void setVendorMatrixFileName(String vendorMatrixFileName) { this.vendorMatrixFileName = vendorMatrixFileName; }
+    
     public LocalDateTime getValidatedAt() { return validatedAt; }
     public void setValidatedAt(LocalDateTime validatedAt) { this.validatedAt = validatedAt; }
     
@@ -82,4 +116,16 @@ public class ValidationEntity {
     
     public int getTotalWarnings() { return totalWarnings; }
     public void setTotalWarnings(int totalWarnings) { this.totalWarnings = totalWarnings; }
+    
+    public String getValidationSummary() { return validationSummary; }
+    public void setValidationSummary(String validationSummary) { this.validationSummary = validationSummary; }
+    
+    public String getRawResults() { return rawResults; }
+    public void setRawResults(String rawResults) { this.rawResults = rawResults; }
+    
+    public List<ValidationErrorEntity> getErrors() { return errors; }
+    public void setErrors(List<ValidationErrorEntity> errors) { this.errors = errors; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 } 
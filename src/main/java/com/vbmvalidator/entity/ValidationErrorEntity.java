@@ -2,59 +2,78 @@ package com.vbmvalidator.entity;
 
 import java.time.LocalDateTime;
 
-// JPA imports temporarily disabled for testing
-// import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
-// @Entity
-// @Table(name = "validation_errors")
-// Entity disabled for testing - no Lombok annotations
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "validation_errors", indexes = {
+    @Index(name = "idx_validation_errors_validation", columnList = "validation_id")
+})
 public class ValidationErrorEntity {
     
-    // @Id
-    // @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled in blocks as large as a JDBC batch, so thousands of errors need only a few
+    // sequence round trips
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "validation_error_seq")
+    @SequenceGenerator(name = "validation_error_seq", sequenceName = "validation_error_seq", allocationSize = 500)
     private Long id;
     
-    // @Column(unique = true, nullable = false)
+    // Error IDs are only unique within one validation run
+    @Column(nullable = false)
     private String errorId;
     
-    // @ManyToOne(fetch = FetchType.LAZY)
-    // @JoinColumn(name = "validation_id", nullable = false)
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "validation_id", nullable = false)
     private ValidationEntity validation;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private String errorType;
     
-    // @Column(nullable = false)
+    @Column(nullable = false)
     private String severity;
     
     private String benefitCategory;
     private String fieldName;
     
-    // @Lob
+    @Lob
     private String sobValue;
     
-    // @Lob
+    @Lob
     private String vendorMatrixValue;
     
-    // @Lob
+    @Lob
     private String expectedValue;
     
-    // @Lob
+    @Lob
     private String description;
     
-    // @Lob
+    @Lob
     private String recommendation;
     
     private boolean selected;
     
     private LocalDateTime createdAt;
     
-    // @PrePersist
+    @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
     
-    // Basic getters and setters (minimal implementation for testing)
+    // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
@@ -69,4 +88,30 @@ public class ValidationErrorEntity {
     
     public String getSeverity() { return severity; }
     public void setSeverity(String severity) { this.severity = severity; }
+    
+    public String getBenefitCategory() { return benefitCategory; }
+    public void setBenefitCategory(String benefitCategory) { this.benefitCategory = benefitCategory; }
+    
+    public String getFieldName() { return fieldName; }
+    public void setFieldName(String fieldName) { this.fieldName = fieldName; }
+    
+    public String getSobValue() { return sobValue; }
+    public void setSobValue(String sobValue) { this.sobValue = sobValue; }
+    
+    public String getVendorMatrixValue() { return vendorMatrixValue; }
+    public void setVendorMatrixValue(String vendorMatrixValue) { this.vendorMatrixValue = vendorMatrixValue; }
+    
+    public String getExpectedValue() { return expectedValue; }
+    public void setExpectedValue(String expectedValue) { this.expectedValue = expectedValue; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public String getRecommendation() { return recommendation; }
+    public void setRecommendation(String recommendation) { this.recommendation = recommendation; }
+    
+    public boolean isSelected() { return selected; }
+    public void setSelected(boolean selected) { this.selected = selected; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
 } 
@@ -0,0 +1,86 @@
+package com.vbmvalidator.model;
+
+/**
+ * Outcome of validating one SOB from a batch upload against its row in a multi-plan Vendor Matrix
+ */
+public class BatchValidationItem {
+
+    public enum Outcome {
+        VALIDATED,   // SOB matched a plan row and was validated
+        UNMATCHED,   // no plan row for the SOB's product ID or contract number
+        FAILED       // SOB could not be parsed or validated
+    }
+
+    private String sobFileName;
+    private String productId;
+    private String contractNumber;
+    private String matchedProductId;
+    private Outcome outcome;
+    private String message;
+    private ValidationResult validationResult;
+
+    // Constructors
+    public BatchValidationItem() {}
+
+    public BatchValidationItem(String sobFileName, String productId, String contractNumber, String matchedProductId,
+                               Outcome outcome, String message, ValidationResult validationResult) {
+        this.sobFileName = sobFileName;
+        this.productId = productId;
+        this.contractNumber = contractNumber;
+        this.matchedProductId = matchedProductId;
+        this.outcome = outcome;
+        this.message = message;
+        this.validationResult = validationResult;
+    }
+
+    // Builder pattern
+    public static BatchValidationItemBuilder builder() {
+        return new BatchValidationItemBuilder();
+    }
+
+    // Getters and Setters
+    public String getSobFileName() { return sobFileName; }
+    public void setSobFileName(String sobFileName) { this.sobFileName = sobFileName; }
+
+    public String getProductId() { return productId; }
+    public void setProductId(String productId) { this.productId = productId; }
+
+    public String getContractNumber() { return contractNumber; }
+    public void setContractNumber(String contractNumber) { this.contractNumber = contractNumber; }
+
+    public String getMatchedProductId() { return matchedProductId; }
+    public void setMatchedProductId(String matchedProductId) { this.matchedProductId = matchedProductId; }
+
+    public Outcome getOutcome() { return outcome; }
+    public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public ValidationResult getValidationResult() { return validationResult; }
+    public void setValidationResult(ValidationResult validationResult) { this.validationResult = validationResult; }
+
+    // Builder class
+    public static class BatchValidationItemBuilder {
+        private String sobFileName;
+        private String productId;
+        private String contractNumber;
+        private String matchedProductId;
+        private Outcome outcome;
+        private String message;
+        private ValidationResult validationResult;
+
+        public BatchValidationItemBuilder sobFileName(String sobFileName) { this.sobFileName = sobFileName; return this; }
+        public BatchValidationItemBuilder productId(String productId) { this.productId = productId; return this; }
+        public BatchValidationItemBuilder contractNumber(String contractNumber) { this.contractNumber = contractNumber; return this; }
+        public BatchValidationItemBuilder matchedProductId(String matchedProductId) { this.matchedProductId = matchedProductId; return this; }
+        public BatchValidationItemBuilder outcome(Outcome outcome) { this.outcome = outcome; return this; }
+        public BatchValidationItemBuilder message(String message) { this.message = message; return this; }
+        public BatchValidationItemBuilder validationResult(ValidationResult validationResult) { this.validationResult = validationResult; return this; }
+
+        public BatchValidationItem build() {
+            return new BatchValidationItem(sobFileName, productId, contractNumber, matchedProductId,
+                                           outcome, message, validationResult);
+        }
+    }
+}
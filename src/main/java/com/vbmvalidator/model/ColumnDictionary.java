@@ -0,0 +1,83 @@
+package com.vbmvalidator.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable mapping of Vendor Matrix column headers to ordinals.
+ * One dictionary is shared by every row of a sheet, so each header string is held once
+ * however many plans the sheet has; {@link #intern} also shares it between uploads of the
+ * same template.
+ */
+public final class ColumnDictionary {
+
+    // Uploads mostly use a handful of templates; anything beyond this is not worth keeping
+    private static final int MAX_INTERNED = 64;
+    private static final Map<List<String>, ColumnDictionary> INTERNED = new ConcurrentHashMap<>();
+
+    private final String[] names;
+    private final Map<String, Integer> ordinals;
+
+    private ColumnDictionary(String[] names) {
+        this.names = names;
+        Map<String, Integer> byName = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            byName.put(names[i], i);
+        }
+        this.ordinals = byName;
+    }
+
+    /**
+     * The shared dictionary for a header row. Missing (null) headers are skipped and repeated
+     * headers share one ordinal.
+     */
+    public static ColumnDictionary intern(String[] headers) {
+        String[] names = Arrays.stream(headers)
+                .filter(header -> header != null)
+                .distinct()
+                .toArray(String[]::new);
+        List<String> key = List.of(names);
+
+        ColumnDictionary existing = INTERNED.get(key);
+        if (existing != null) return existing;
+        if (INTERNED.size() >= MAX_INTERNED) {
+            INTERNED.clear();
+        }
+        return INTERNED.computeIfAbsent(key, k -> new ColumnDictionary(names));
+    }
+
+    /**
+     * Ordinal of a column, or -1 if the dictionary does not have it
+     */
+    public int ordinalOf(Object name) {
+        Integer ordinal = ordinals.get(name);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Ordinal for each header position, -1 where the header is missing
+     */
+    public int[] ordinalsOf(String[] headers) {
+        int[] result = new int[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            result[i] = headers[i] != null ? ordinalOf(headers[i]) : -1;
+        }
+        return result;
+    }
+
+    public String nameOf(int ordinal) {
+        return names[ordinal];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public List<String> names() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,120 @@
+package com.vbmvalidator.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from header tokens to the Vendor Matrix columns that contain them.
+ * Headers are lowercased and tokenized once, so benefit mapping can look up the few columns
+ * that share a word with a benefit name instead of scoring every column of the matrix.
+ * Column positions follow the iteration order of the indexed names.
+ */
+public final class ColumnTokenIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Shorter prefixes would pull in unrelated columns (e.g. "in" from "Care Center in Facility")
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private final String[] names;
+    private final String[] lowerNames;
+    private final NavigableMap<String, BitSet> postings = new TreeMap<>();
+
+    public ColumnTokenIndex(Collection<String> columnNames) {
+        this.names = columnNames.toArray(new String[0]);
+        this.lowerNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            lowerNames[i] = names[i].toLowerCase();
+            for (String token : tokenize(lowerNames[i])) {
+                postings.computeIfAbsent(token, k -> new BitSet(names.length)).set(i);
+            }
+        }
+    }
+
+    /**
+     * Lowercase word tokens of the text, split on anything that is not a letter or digit
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Columns sharing at least one token with the text
+     */
+    public BitSet columnsWithAnyToken(String text) {
+        BitSet result = new BitSet(names.length);
+        for (String token : tokenize(text)) {
+            result.or(columnsWithToken(token));
+        }
+        return result;
+    }
+
+    /**
+     * Columns containing every token of the phrase
+     */
+    public BitSet columnsWithAllTokens(String phrase) {
+        List<String> tokens = tokenize(phrase);
+        if (tokens.isEmpty()) return new BitSet();
+
+        BitSet result = columnsWithToken(tokens.get(0));
+        for (int i = 1; i < tokens.size() && !result.isEmpty(); i++) {
+            result.and(columnsWithToken(tokens.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Columns with the token itself, a token it starts ("lab" for "laboratory") or a token
+     * it is started by ("lab" for "labs"); the scorers match on substrings, not whole words
+     */
+    private BitSet columnsWithToken(String token) {
+        BitSet result = new BitSet(names.length);
+        BitSet exact = postings.get(token);
+        if (exact != null) {
+            result.or(exact);
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (BitSet longer : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                result.or(longer);
+            }
+            for (int length = MIN_PREFIX_LENGTH; length < token.length(); length++) {
+                BitSet shorter = postings.get(token.substring(0, length));
+                if (shorter != null) {
+                    result.or(shorter);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public int tokenCount() {
+        return postings.size();
+    }
+
+    public String nameOf(int position) {
+        return names[position];
+    }
+
+    /**
+     * The header lowercased once at indexing time
+     */
+    public String lowerNameOf(int position) {
+        return lowerNames[position];
+    }
+}
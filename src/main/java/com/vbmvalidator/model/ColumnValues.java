@@ -0,0 +1,137 @@
+package com.vbmvalidator.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A Vendor Matrix row as a map of column header to cell value, stored as one value array
+ * indexed by {@link ColumnDictionary} ordinal instead of a hash entry per cell.
+ * Columns outside the dictionary (e.g. "moop" set by hand) go to a small side map. Iteration
+ * follows the column order of the sheet.
+ */
+public class ColumnValues extends AbstractMap<String, String> {
+
+    private final ColumnDictionary dictionary;
+    private final String[] values;
+    private Map<String, String> extras;  // created on first put of an unknown column
+    private int size = -1;               // cached, -1 when stale
+
+    /**
+     * Wrap a row's values; the array is indexed by dictionary ordinal and owned by this map afterwards
+     */
+    public ColumnValues(ColumnDictionary dictionary, String[] values) {
+        if (values.length != dictionary.size()) {
+            throw new IllegalArgumentException("Expected " + dictionary.size() + " values but got " + values.length);
+        }
+        this.dictionary = dictionary;
+        this.values = values;
+    }
+
+    public ColumnDictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public String get(Object key) {
+        int ordinal = dictionary.ordinalOf(key);
+        if (ordinal >= 0) return values[ordinal];
+        return extras != null ? extras.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int ordinal = dictionary.ordinalOf(key);
+        if (ordinal >= 0) return values[ordinal] != null;
+        return extras != null && extras.containsKey(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        size = -1;
+        int ordinal = dictionary.ordinalOf(key);
+        if (ordinal >= 0) {
+            String previous = values[ordinal];
+            values[ordinal] = value;
+            return previous;
+        }
+        if (extras == null) {
+            extras = new HashMap<>(4);
+        }
+        return extras.put(key, value);
+    }
+
+    @Override
+    public String remove(Object key) {
+        size = -1;
+        int ordinal = dictionary.ordinalOf(key);
+        if (ordinal >= 0) {
+            String previous = values[ordinal];
+            values[ordinal] = null;
+            return previous;
+        }
+        return extras != null ? extras.remove(key) : null;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            int count = extras != null ? extras.size() : 0;
+            for (String value : values) {
+                if (value != null) count++;
+            }
+            size = count;
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return ColumnValues.this.size();
+            }
+        };
+    }
+
+    // Dictionary columns in sheet order, then the extras
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private int ordinal = advance(0);
+        private final Iterator<Entry<String, String>> extraEntries =
+                extras != null ? extras.entrySet().iterator() : null;
+
+        private int advance(int from) {
+            int next = from;
+            while (next < values.length && values[next] == null) next++;
+            return next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return ordinal < values.length || (extraEntries != null && extraEntries.hasNext());
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (ordinal < values.length) {
+                int current = ordinal;
+                ordinal = advance(ordinal + 1);
+                return new SimpleImmutableEntry<>(dictionary.nameOf(current), values[current]);
+            }
+            if (extraEntries != null) {
+                return extraEntries.next();
+            }
+            throw new NoSuchElementException();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.vbmvalidator.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Copy-on-write view of a column map: reads fall through to the base map, writes and removals
+ * are kept in the overlay and never touch the base. Lets the export correct a parsed (and
+ * possibly cached, shared) Vendor Matrix row without copying every column first.
+ */
+public class CorrectionOverlay extends AbstractMap<String, String> {
+
+    private final Map<String, String> base;
+    // Overridden columns; a null value marks a column removed in the overlay
+    private final Map<String, String> overrides = new HashMap<>();
+
+    public CorrectionOverlay(Map<String, String> base) {
+        this.base = base != null ? base : Map.of();
+    }
+
+    /**
+     * Columns changed in the overlay, with null for removed ones
+     */
+    public Map<String, String> getOverrides() {
+        return overrides;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (overrides.containsKey(key)) return overrides.get(key);
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (overrides.containsKey(key)) return overrides.get(key) != null;
+        return base.containsKey(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        String previous = get(key);
+        overrides.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public String remove(Object key) {
+        String previous = get(key);
+        if (key instanceof String column) {
+            overrides.put(column, null);
+        }
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                int count = 0;
+                for (Iterator<Entry<String, String>> it = iterator(); it.hasNext(); it.next()) count++;
+                return count;
+            }
+        };
+    }
+
+    // Base columns (overridden values substituted, removed ones skipped), then added columns
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private final Iterator<Entry<String, String>> baseEntries = base.entrySet().iterator();
+        private final Iterator<Entry<String, String>> addedEntries = overrides.entrySet().iterator();
+        private Entry<String, String> next = findNext();
+
+        private Entry<String, String> findNext() {
+            while (baseEntries.hasNext()) {
+                Entry<String, String> entry = baseEntries.next();
+                if (!overrides.containsKey(entry.getKey())) return entry;
+                String value = overrides.get(entry.getKey());
+                if (value != null) return new SimpleImmutableEntry<>(entry.getKey(), value);
+            }
+            while (addedEntries.hasNext()) {
+                Entry<String, String> entry = addedEntries.next();
+                if (entry.getValue() != null && !base.containsKey(entry.getKey())) return entry;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (next == null) throw new NoSuchElementException();
+            Entry<String, String> current = next;
+            next = findNext();
+            return current;
+        }
+    }
+}
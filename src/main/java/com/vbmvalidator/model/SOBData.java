@@ -1,5 +1,8 @@
 package com.vbmvalidator.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +32,10 @@ public class SOBData {
     // Source file information
     private String sourceFileName;
     private String uploadedAt;
+    private String contentHash;  // SHA-256 of the source upload, set when the file is parsed
+    
+    // Lookup index over benefits, built on first lookup and replaced when the list changes
+    private volatile BenefitIndex benefitIndex;
 
     // Constructors
     public SOBData() {}
@@ -98,7 +105,10 @@ public class SOBData {
     public void setSobType(SOBType sobType) { this.sobType = sobType; }
 
     public List<SOBBenefit> getBenefits() { return benefits; }
-    public void setBenefits(List<SOBBenefit> benefits) { this.benefits = benefits; }
+    public void setBenefits(List<SOBBenefit> benefits) {
+        this.benefits = benefits;
+        this.benefitIndex = null;
+    }
 
     public Map<String, String> getRawData() { return rawData; }
     public void setRawData(Map<String, String> rawData) { this.rawData = rawData; }
@@ -109,6 +119,19 @@ public class SOBData {
     public String getUploadedAt() { return uploadedAt; }
     public void setUploadedAt(String uploadedAt) { this.uploadedAt = uploadedAt; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    /**
+     * Make the benefit list and raw data read-only, so a cached parse can be shared between
+     * validations without one of them changing it for the others
+     */
+    public SOBData freeze() {
+        if (benefits != null) setBenefits(Collections.unmodifiableList(new ArrayList<>(benefits)));
+        if (rawData != null) rawData = Collections.unmodifiableMap(rawData);
+        return this;
+    }
+
     /**
      * Finds a specific benefit by its category name.
      *
@@ -119,10 +142,72 @@ public class SOBData {
         if (this.benefits == null || benefitCategory == null) {
             return null;
         }
-        return this.benefits.stream()
-            .filter(b -> benefitCategory.equals(b.getBenefitCategory()))
-            .findFirst()
-            .orElse(null);
+        List<SOBBenefit> matches = index().byCategory.get(benefitCategory);
+        return matches != null ? matches.get(0) : null;
+    }
+
+    /**
+     * All benefits with the given category name, in SOB order.
+     */
+    public List<SOBBenefit> getBenefitsByCategory(String benefitCategory) {
+        if (this.benefits == null || benefitCategory == null) {
+            return List.of();
+        }
+        return index().byCategory.getOrDefault(benefitCategory, List.of());
+    }
+
+    /**
+     * All benefits under a PBP category (e.g. "7a"), in SOB order. A PBP category usually
+     * covers several benefit rows.
+     */
+    public List<SOBBenefit> getBenefitsByPbpCategory(String pbpCategory) {
+        if (this.benefits == null || pbpCategory == null) {
+            return List.of();
+        }
+        return index().byPbpCategory.getOrDefault(pbpCategory, List.of());
+    }
+
+    private BenefitIndex index() {
+        BenefitIndex index = benefitIndex;
+        // Also rebuilt when the list was changed in place since it was indexed
+        if (index == null || index.benefits != benefits || index.size != benefits.size()) {
+            index = new BenefitIndex(benefits);
+            benefitIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Immutable snapshot of benefits by category and PBP category; buckets are multi-valued
+     */
+    private static final class BenefitIndex {
+        private final List<SOBBenefit> benefits;
+        private final int size;
+        private final Map<String, List<SOBBenefit>> byCategory;
+        private final Map<String, List<SOBBenefit>> byPbpCategory;
+
+        private BenefitIndex(List<SOBBenefit> benefits) {
+            this.benefits = benefits;
+            this.size = benefits.size();
+            Map<String, List<SOBBenefit>> categories = new HashMap<>();
+            Map<String, List<SOBBenefit>> pbpCategories = new HashMap<>();
+            for (SOBBenefit benefit : benefits) {
+                if (benefit == null) continue;
+                if (benefit.getBenefitCategory() != null) {
+                    categories.computeIfAbsent(benefit.getBenefitCategory(), k -> new ArrayList<>(1)).add(benefit);
+                }
+                if (benefit.getPbpCategory() != null) {
+                    pbpCategories.computeIfAbsent(benefit.getPbpCategory(), k -> new ArrayList<>(1)).add(benefit);
+                }
+            }
+            this.byCategory = freeze(categories);
+            this.byPbpCategory = freeze(pbpCategories);
+        }
+
+        private static Map<String, List<SOBBenefit>> freeze(Map<String, List<SOBBenefit>> buckets) {
+            buckets.replaceAll((key, bucket) -> List.copyOf(bucket));
+            return Map.copyOf(buckets);
+        }
     }
 
     // Builder class
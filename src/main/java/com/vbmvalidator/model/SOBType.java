@@ -1,15 +1,72 @@
 package com.vbmvalidator.model;
 
-public enum SOBType {
-    HIP_HMO("HIP HMO", "Health Insurance Plan - HMO"),
-    GHI("GHI", "Group Health Incorporated");
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * SOB product line. The built-in types are constants; types defined by rule packs are
+ * registered at startup, so a new product line needs no new constant. Instances are
+ * canonical per code and compare by identity, like enum constants.
+ */
+public final class SOBType {
+
+    private static final Map<String, SOBType> TYPES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
+    public static final SOBType HIP_HMO = register("HIP_HMO", "HIP HMO", "Health Insurance Plan - HMO");
+    public static final SOBType GHI = register("GHI", "GHI", "Group Health Incorporated");
+
+    private final String name;
     private final String displayName;
     private final String description;
+    private final int ordinal;
 
-    SOBType(String displayName, String description) {
+    private SOBType(String name, String displayName, String description, int ordinal) {
+        this.name = name;
         this.displayName = displayName;
         this.description = description;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * The type with this code, registering it on first use. A code that is already
+     * registered keeps its original display name and description.
+     */
+    public static SOBType register(String name, String displayName, String description) {
+        if (name == null || !name.matches("[A-Z][A-Z0-9_]*")) {
+            throw new IllegalArgumentException("SOB type code must be upper case letters, digits and underscores: " + name);
+        }
+        return TYPES.computeIfAbsent(name, code -> new SOBType(code, displayName, description, NEXT_ORDINAL.getAndIncrement()));
+    }
+
+    /**
+     * Registered type by code; throws IllegalArgumentException for an unknown code, as Enum.valueOf does
+     */
+    @JsonCreator
+    public static SOBType valueOf(String name) {
+        SOBType type = name != null ? TYPES.get(name) : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown SOB type: " + name);
+        }
+        return type;
+    }
+
+    /**
+     * Registered types, built-in ones first and the rest in registration order
+     */
+    public static SOBType[] values() {
+        return TYPES.values().stream()
+                .sorted((a, b) -> Integer.compare(a.ordinal, b.ordinal))
+                .toArray(SOBType[]::new);
+    }
+
+    @JsonValue
+    public String name() {
+        return name;
     }
 
     public String getDisplayName() {
@@ -20,10 +77,8 @@ public enum SOBType {
         return description;
     }
 
-
-
     @Override
     public String toString() {
         return displayName;
     }
-} 
+}
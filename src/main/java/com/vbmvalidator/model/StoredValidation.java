@@ -0,0 +1,46 @@
+package com.vbmvalidator.model;
+
+/**
+ * Everything the results pages and the export need about one validation run, kept in the
+ * result store under its validation ID
+ */
+public class StoredValidation {
+    private String validationId;
+    private SOBType sobType;
+    private SOBData sobData;
+    private VendorMatrixData vendorMatrixData;
+    private ValidationResult validationResult;
+    private byte[] vendorMatrixUpload;  // original upload bytes, for patch-in-place export
+
+    // Constructors
+    public StoredValidation() {}
+
+    public StoredValidation(SOBType sobType, SOBData sobData, VendorMatrixData vendorMatrixData,
+                            ValidationResult validationResult, byte[] vendorMatrixUpload) {
+        this.validationId = validationResult.getValidationId();
+        this.sobType = sobType;
+        this.sobData = sobData;
+        this.vendorMatrixData = vendorMatrixData;
+        this.validationResult = validationResult;
+        this.vendorMatrixUpload = vendorMatrixUpload;
+    }
+
+    // Getters and Setters
+    public String getValidationId() { return validationId; }
+    public void setValidationId(String validationId) { this.validationId = validationId; }
+
+    public SOBType getSobType() { return sobType; }
+    public void setSobType(SOBType sobType) { this.sobType = sobType; }
+
+    public SOBData getSobData() { return sobData; }
+    public void setSobData(SOBData sobData) { this.sobData = sobData; }
+
+    public VendorMatrixData getVendorMatrixData() { return vendorMatrixData; }
+    public void setVendorMatrixData(VendorMatrixData vendorMatrixData) { this.vendorMatrixData = vendorMatrixData; }
+
+    public ValidationResult getValidationResult() { return validationResult; }
+    public void setValidationResult(ValidationResult validationResult) { this.validationResult = validationResult; }
+
+    public byte[] getVendorMatrixUpload() { return vendorMatrixUpload; }
+    public void setVendorMatrixUpload(byte[] vendorMatrixUpload) { this.vendorMatrixUpload = vendorMatrixUpload; }
+}
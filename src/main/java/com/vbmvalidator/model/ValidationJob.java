@@ -0,0 +1,88 @@
+package com.vbmvalidator.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * An asynchronous upload-and-validate run. Status fields are what clients poll or receive as
+ * progress events; the parsed models and result go to the result store under validationId.
+ */
+public class ValidationJob {
+
+    public enum State {
+        QUEUED,      // accepted, waiting for a worker
+        RUNNING,     // parsing or validating
+        COMPLETED,   // result available under validationId
+        FAILED       // see message
+    }
+
+    private final String jobId;
+    private final String sobFileName;
+    private final String vendorMatrixFileName;
+    private final SOBType sobType;
+    private final LocalDateTime submittedAt;
+
+    private volatile State state = State.QUEUED;
+    private volatile ValidationStage stage = ValidationStage.QUEUED;
+    private volatile String message;
+    private volatile String validationId;
+    private volatile LocalDateTime completedAt;
+
+    public ValidationJob(String jobId, String sobFileName, String vendorMatrixFileName, SOBType sobType) {
+        this(jobId, sobFileName, vendorMatrixFileName, sobType, LocalDateTime.now());
+    }
+
+    private ValidationJob(String jobId, String sobFileName, String vendorMatrixFileName, SOBType sobType, LocalDateTime submittedAt) {
+        this.jobId = jobId;
+        this.sobFileName = sobFileName;
+        this.vendorMatrixFileName = vendorMatrixFileName;
+        this.sobType = sobType;
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Copy of the current status, for updates that are delivered after the job has moved on
+     */
+    public ValidationJob snapshot() {
+        ValidationJob copy = new ValidationJob(jobId, sobFileName, vendorMatrixFileName, sobType, submittedAt);
+        copy.state = state;
+        copy.stage = stage;
+        copy.message = message;
+        copy.validationId = validationId;
+        copy.completedAt = completedAt;
+        return copy;
+    }
+
+    public String getJobId() { return jobId; }
+
+    public String getSobFileName() { return sobFileName; }
+
+    public String getVendorMatrixFileName() { return vendorMatrixFileName; }
+
+    public SOBType getSobType() { return sobType; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public ValidationStage getStage() { return stage; }
+    public void setStage(ValidationStage stage) { this.stage = stage; }
+
+    public String getStageName() { return stage.getDisplayName(); }
+
+    public int getProgressPercent() { return stage.getProgressPercent(); }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getValidationId() { return validationId; }
+    public void setValidationId(String validationId) { this.validationId = validationId; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    @JsonIgnore
+    public boolean isFinished() { return state == State.COMPLETED || state == State.FAILED; }
+}
@@ -0,0 +1,31 @@
+package com.vbmvalidator.model;
+
+/**
+ * Stages of an upload-and-validate run, in order, with the progress they represent
+ */
+public enum ValidationStage {
+    QUEUED("Queued", 0),
+    PARSE_SOB("Parsing SOB", 5),
+    PARSE_VBM("Parsing Vendor Matrix", 35),
+    MAP("Mapping benefits", 60),
+    VALIDATE("Validating benefits", 70),
+    BUILD_COMPARISONS("Building comparisons", 90),
+    COMPLETED("Completed", 100),
+    FAILED("Failed", 100);
+
+    private final String displayName;
+    private final int progressPercent;
+
+    ValidationStage(String displayName, int progressPercent) {
+        this.displayName = displayName;
+        this.progressPercent = progressPercent;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getProgressPercent() {
+        return progressPercent;
+    }
+}
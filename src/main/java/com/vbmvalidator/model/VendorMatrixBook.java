@@ -0,0 +1,107 @@
+package com.vbmvalidator.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All plans from a multi-plan Vendor Matrix upload - one VendorMatrixData per data row,
+ * indexed by "2025 Product ID" and by contract/PBP. The first row wins when a key repeats.
+ */
+public class VendorMatrixBook {
+    private final String sourceFileName;
+    private final List<VendorMatrixData> plans;
+    private final Map<String, VendorMatrixData> plansByProductId;
+    private final Map<String, VendorMatrixData> plansByContract;
+    private final List<String> duplicateProductIds;
+
+    public VendorMatrixBook(String sourceFileName, List<VendorMatrixData> plans) {
+        this.sourceFileName = sourceFileName;
+        this.plans = Collections.unmodifiableList(new ArrayList<>(plans));
+
+        Map<String, VendorMatrixData> index = new LinkedHashMap<>();
+        Map<String, VendorMatrixData> contractIndex = new LinkedHashMap<>();
+        List<String> duplicates = new ArrayList<>();
+        for (VendorMatrixData plan : plans) {
+            String contractKey = contractKey(plan.getContractId(), plan.getPbpNumber());
+            if (contractKey != null) {
+                contractIndex.putIfAbsent(contractKey, plan);
+            }
+
+            String productId = normalizeKey(plan.getProductId());
+            if (productId == null) continue;
+
+            if (index.putIfAbsent(productId, plan) != null) {
+                duplicates.add(productId);
+            }
+        }
+        this.plansByProductId = Collections.unmodifiableMap(index);
+        this.plansByContract = Collections.unmodifiableMap(contractIndex);
+        this.duplicateProductIds = Collections.unmodifiableList(duplicates);
+    }
+
+    public String getSourceFileName() { return sourceFileName; }
+
+    public List<VendorMatrixData> getPlans() { return plans; }
+
+    public Map<String, VendorMatrixData> getPlansByProductId() { return plansByProductId; }
+
+    public List<String> getDuplicateProductIds() { return duplicateProductIds; }
+
+    public int size() { return plans.size(); }
+
+    /**
+     * Finds the plan row for a product ID, ignoring surrounding whitespace and case.
+     *
+     * @param productId The "2025 Product ID" to look up.
+     * @return The matching VendorMatrixData, otherwise null.
+     */
+    public VendorMatrixData getPlan(String productId) {
+        String key = normalizeKey(productId);
+        return key != null ? plansByProductId.get(key) : null;
+    }
+
+    /**
+     * Finds the plan row for an SOB, by product ID first and then by CMS contract number/PBP.
+     *
+     * @param sobData The parsed SOB.
+     * @return The matching VendorMatrixData, otherwise null.
+     */
+    public VendorMatrixData findPlan(SOBData sobData) {
+        VendorMatrixData plan = getPlan(sobData.getProductId());
+        if (plan != null) {
+            return plan;
+        }
+
+        // SOBs carry the contract as one "H1234-001" style value; VBM rows split it into two columns
+        String contractNumber = sobData.getContractNumber();
+        if (contractNumber == null) {
+            return null;
+        }
+        String[] parts = contractNumber.trim().split("[^A-Za-z0-9]+", 2);
+        String key = contractKey(parts[0], parts.length > 1 ? parts[1] : null);
+        return key != null ? plansByContract.get(key) : null;
+    }
+
+    private static String contractKey(String contractId, String pbpNumber) {
+        String contract = normalizeKey(contractId);
+        String pbp = normalizeKey(pbpNumber);
+        if (contract == null || pbp == null) {
+            return null;
+        }
+        // PBP numbers read from numeric cells lose their leading zeros ("1" vs "001")
+        if (pbp.chars().allMatch(Character::isDigit) && pbp.length() < 3) {
+            pbp = "0".repeat(3 - pbp.length()) + pbp;
+        }
+        return contract + "-" + pbp;
+    }
+
+    private static String normalizeKey(String productId) {
+        if (productId == null || productId.trim().isEmpty()) {
+            return null;
+        }
+        return productId.trim().toUpperCase();
+    }
+}
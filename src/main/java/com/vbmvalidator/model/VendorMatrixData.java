@@ -1,7 +1,11 @@
 package com.vbmvalidator.model;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class VendorMatrixData {
     // Plan Identification
     private String productName;
@@ -16,89 +20,153 @@ public class VendorMatrixData {
     private String company;
     private String licensure;
     
-    // Benefit Cost Sharing Fields (mapped from column headers)
-    private String inpatientAdmission;           // INN Inpt. Admission/ OON Inpt. Admission
-    private String skilledNursingDays;           // INN Skilled Nursing Days/OON Skilled Nursing Days
-    private String cardiacTherapy;               // INN Cardiac Outpt Therapy/OON Cardiac Outpt Therapy
-    private String intensiveCardiacTherapy;      // INN Intensive Cardiac Outpt Therapy/OON Intensiv Cardiac Outpt Therapy
-    private String superviseExerciseTherapy;     // Supervised Exercise Therapy (SET) for Symptomatic Peripheral Artery Disease (PAD)
-    private String pulmonaryRehab;               // INN Pulmonary Rehab/OON Pulmonary RT
-    private String emergencyServices;            // INN ER/OON ER
-    private String urgentCare;                   // INN Urgent Care Center in Facility/OON Urgent Care Center in Facility
-    private String homeHealthVisits;             // INN Home Care Visits/OON Home Care Visits
-    private String pcpVisits;                    // INN PCP/OON PCP
-    private String chiropracticServices;         // INN Chiropractic/OON Chiropractic
-    private String occupationalTherapy;          // Rehabilitation/Habilitation Services INN Outpt. OT/OON Outpt. OT
-    private String specialistVisits;             // INN Specialist/OON Specialist
-    private String podiatryMedicare;             // INN Podiatry Medicare Covered/ OONPodiatry Medicare Covered
-    private String podiatrySupplemental;         // INN Podiatry Supplemental/OONPodiatry  Supplemental
-    private String physicalTherapy;              // Rehabilitation/Habilitation Services INN Outpt. PT/OON Outpt. PT
-    private String speechTherapy;                // Rehabilitation/Habilitation Services INN Outpt. ST/OON Outpt. ST
-    private String telehealth;                   // INN Telehealth/ OON Telehealth
-    private String diagnosticTesting;            // INN Diagnostic Testing/OON Diagnostic Testing
-    private String labServices;                  // INN Lab Services Medicare Covered/ONNLab Services Medicare Covered
-    private String therapeuticRadiology;         // INN Therapeutic Radiology Services/OON Therapeutic Radiology Services
-    private String diagnosticRadiology;          // INN Outpatient Diagnostic Radiology Medicare Covered/OON Outpatient Diagnostic Radiology Medicare Covered
-    private String advancedImaging;              // INN Advanced Imaging Services/OON Advanced Imaging Services
-    private String ambulanceEmergent;            // INN Ambulance Emergent/OON Ambulance Emergent
-    private String ambulanceNonEmergent;         // INN Ambulance Non-Emergent/OON Ambulance Non-Emergent
-    private String ambulanceAir;                 // INN Ambulance Air/OON Ambulance Air
-    private String acupuncture;                  // INN Acupuncture/OON Acupuncture
-    private String mentalHealthMedicare;         // INN Mental Health Medicare Covered/OON Mental Health Medicare Covered
-    private String mentalHealthSupplemental;     // INN Mental Health Supplemental/OON Mental Health Supplemental
-    private String substanceAbuseMedicare;       // INN Substance Abuse Medicare Covered/OON Substance Abuse Medicare Covered
-    private String substanceAbuseSupplemental;   // INN Substance Abuse Supplemental/OON Substance Abuse Supplemental
-    private String dialysisTreatment;            // INN Dialysis Treatment/OON Dialysis Treatment
-    private String DMEProsthetics;               // INN DME/Prosthetics/OON DME/Prosthetics
-    private String diabeticSupplies;             // INN Diabetic Testing Supplies/OON Diabetic Testing Supplies
-    private String partBRx;                      // INN Part B Rx/OON Part B Rx
-    private String chemotherapy;                 // INN Chemotherapy/OON Chemotherapy
-    private String renalDialysis;                // INN Renal Dialysis/OON Renal Dialysis
-    private String opioidTreatment;              // INN Opioid Treatment Program Services/OON Opioid Treatment Program Services
-    private String partialHospitalization;      // INN Partial Hospitalization/OON Partial Hospitalization
-    private String transportation;               // Transportation
-    private String meals;                        // Meals
-    private String utilities;                    // Utilities
-    private String pestControl;                  // Pest Control
-    private String compressionStockings;         // Compression Stockings
-    private String firstAidKit;                  // First Aid Kit
-    private String foodCard;                     // Food Card
-    private String overTheCounterItems;          // Over-the-Counter Items
-    private String personalEmergencyDevice;      // Personal Emergency Response Device
-    private String smokingCessation;             // Smoking Cessation
-    private String fittingContacts;              // Fitting/Contacts
-    private String dentalProphylaxis;            // Dental Prophylaxis
-    private String periodonticMaintenance;       // Periodontic Maintenance
-    private String emergencyDental;              // Emergency Dental
-    private String comprehensiveDental;          // Comprehensive Dental
-    private String prosthodonticBasic;           // Prosthodontic Basic
-    private String orthodonticServices;          // Orthodontic Services
-    private String hearingExam;                  // Hearing Exam
-    private String fittingEvaluation;            // Fitting/Evaluation for Hearing Aids
-    private String hearingAids;                  // Hearing Aids
-    private String routineEyeExam;               // Routine Eye Exam
-    private String glaucoma;                     // Glaucoma
-    private String diabeticRetinopathy;          // Diabetic Retinopathy
-    private String allowancePrescription;        // Allowance- Prescription
-    private String allowanceNonPrescription;     // Allowance- Non-Prescription
-    private String visionHardware;               // Vision Hardware
-    private String visionSoftware;               // Vision Software
-    private String contactLenses;                // Contact Lenses
-    private String lowVisionAids;                // Low Vision Aids
-    private String fitnessProgram;               // Fitness Program
-    private String nurseHotline;                 // Nurse Hotline
-    
+    // Benefit Cost Sharing Fields (mapped from column headers). Parsed rows keep their cells in
+    // allColumns and rarely set these, so the values live in one array allocated on first write.
+    private enum BenefitField {
+        INPATIENT_ADMISSION,            // INN Inpt. Admission/ OON Inpt. Admission
+        SKILLED_NURSING_DAYS,           // INN Skilled Nursing Days/OON Skilled Nursing Days
+        CARDIAC_THERAPY,                // INN Cardiac Outpt Therapy/OON Cardiac Outpt Therapy
+        INTENSIVE_CARDIAC_THERAPY,      // INN Intensive Cardiac Outpt Therapy/OON Intensiv Cardiac Outpt Therapy
+        SUPERVISE_EXERCISE_THERAPY,     // Supervised Exercise Therapy (SET) for Symptomatic Peripheral Artery Disease (PAD)
+        PULMONARY_REHAB,                // INN Pulmonary Rehab/OON Pulmonary RT
+        EMERGENCY_SERVICES,             // INN ER/OON ER
+        URGENT_CARE,                    // INN Urgent Care Center in Facility/OON Urgent Care Center in Facility
+        HOME_HEALTH_VISITS,             // INN Home Care Visits/OON Home Care Visits
+        PCP_VISITS,                     // INN PCP/OON PCP
+        CHIROPRACTIC_SERVICES,          // INN Chiropractic/OON Chiropractic
+        OCCUPATIONAL_THERAPY,           // Rehabilitation/Habilitation Services INN Outpt. OT/OON Outpt. OT
+        SPECIALIST_VISITS,              // INN Specialist/OON Specialist
+        PODIATRY_MEDICARE,              // INN Podiatry Medicare Covered/ OONPodiatry Medicare Covered
+        PODIATRY_SUPPLEMENTAL,          // INN Podiatry Supplemental/OONPodiatry  Supplemental
+        PHYSICAL_THERAPY,               // Rehabilitation/Habilitation Services INN Outpt. PT/OON Outpt. PT
+        SPEECH_THERAPY,                 // Rehabilitation/Habilitation Services INN Outpt. ST/OON Outpt. ST
+        TELEHEALTH,                     // INN Telehealth/ OON Telehealth
+        DIAGNOSTIC_TESTING,             // INN Diagnostic Testing/OON Diagnostic Testing
+        LAB_SERVICES,                   // INN Lab Services Medicare Covered/ONNLab Services Medicare Covered
+        THERAPEUTIC_RADIOLOGY,          // INN Therapeutic Radiology Services/OON Therapeutic Radiology Services
+        DIAGNOSTIC_RADIOLOGY,           // INN Outpatient Diagnostic Radiology Medicare Covered/OON Outpatient Diagnostic Radiology Medicare Covered
+        ADVANCED_IMAGING,               // INN Advanced Imaging Services/OON Advanced Imaging Services
+        AMBULANCE_EMERGENT,             // INN Ambulance Emergent/OON Ambulance Emergent
+        AMBULANCE_NON_EMERGENT,         // INN Ambulance Non-Emergent/OON Ambulance Non-Emergent
+        AMBULANCE_AIR,                  // INN Ambulance Air/OON Ambulance Air
+        ACUPUNCTURE,                    // INN Acupuncture/OON Acupuncture
+        MENTAL_HEALTH_MEDICARE,         // INN Mental Health Medicare Covered/OON Mental Health Medicare Covered
+        MENTAL_HEALTH_SUPPLEMENTAL,     // INN Mental Health Supplemental/OON Mental Health Supplemental
+        SUBSTANCE_ABUSE_MEDICARE,       // INN Substance Abuse Medicare Covered/OON Substance Abuse Medicare Covered
+        SUBSTANCE_ABUSE_SUPPLEMENTAL,   // INN Substance Abuse Supplemental/OON Substance Abuse Supplemental
+        DIALYSIS_TREATMENT,             // INN Dialysis Treatment/OON Dialysis Treatment
+        DME_PROSTHETICS,                // INN DME/Prosthetics/OON DME/Prosthetics
+        DIABETIC_SUPPLIES,              // INN Diabetic Testing Supplies/OON Diabetic Testing Supplies
+        PART_B_RX,                      // INN Part B Rx/OON Part B Rx
+        CHEMOTHERAPY,                   // INN Chemotherapy/OON Chemotherapy
+        RENAL_DIALYSIS,                 // INN Renal Dialysis/OON Renal Dialysis
+        OPIOID_TREATMENT,               // INN Opioid Treatment Program Services/OON Opioid Treatment Program Services
+        PARTIAL_HOSPITALIZATION,        // INN Partial Hospitalization/OON Partial Hospitalization
+        TRANSPORTATION,                 // Transportation
+        MEALS,                          // Meals
+        UTILITIES,                      // Utilities
+        PEST_CONTROL,                   // Pest Control
+        COMPRESSION_STOCKINGS,          // Compression Stockings
+        FIRST_AID_KIT,                  // First Aid Kit
+        FOOD_CARD,                      // Food Card
+        OVER_THE_COUNTER_ITEMS,         // Over-the-Counter Items
+        PERSONAL_EMERGENCY_DEVICE,      // Personal Emergency Response Device
+        SMOKING_CESSATION,              // Smoking Cessation
+        FITTING_CONTACTS,               // Fitting/Contacts
+        DENTAL_PROPHYLAXIS,             // Dental Prophylaxis
+        PERIODONTIC_MAINTENANCE,        // Periodontic Maintenance
+        EMERGENCY_DENTAL,               // Emergency Dental
+        COMPREHENSIVE_DENTAL,           // Comprehensive Dental
+        PROSTHODONTIC_BASIC,            // Prosthodontic Basic
+        ORTHODONTIC_SERVICES,           // Orthodontic Services
+        HEARING_EXAM,                   // Hearing Exam
+        FITTING_EVALUATION,             // Fitting/Evaluation for Hearing Aids
+        HEARING_AIDS,                   // Hearing Aids
+        ROUTINE_EYE_EXAM,               // Routine Eye Exam
+        GLAUCOMA,                       // Glaucoma
+        DIABETIC_RETINOPATHY,           // Diabetic Retinopathy
+        ALLOWANCE_PRESCRIPTION,         // Allowance- Prescription
+        ALLOWANCE_NON_PRESCRIPTION,     // Allowance- Non-Prescription
+        VISION_HARDWARE,                // Vision Hardware
+        VISION_SOFTWARE,                // Vision Software
+        CONTACT_LENSES,                 // Contact Lenses
+        LOW_VISION_AIDS,                // Low Vision Aids
+        FITNESS_PROGRAM,                // Fitness Program
+        NURSE_HOTLINE                   // Nurse Hotline
+    }
+
+    private String[] benefitFields;
+    private boolean benefitFieldsShared;  // array still belongs to the row this one was copied from
+
     // Metadata fields
     private Map<String, String> allColumns;
     private Map<String, String> benefitData;
+    private volatile ColumnTokenIndex columnIndex;  // over the headers of allColumns, built on first use
+    private Map<String, String> indexedColumns;      // the map columnIndex was built from
     
     // Source file information
     private String sourceFileName;
     private String uploadedAt;
+    private String contentHash;  // SHA-256 of the source upload (plus row for multi-plan files), set when parsed
+    private Integer sourceRowIndex;  // 0-based row of the first sheet this plan was read from
 
     // Constructors
     public VendorMatrixData() {}
 
+    /**
+     * Copy for applying corrections. Column maps become {@link CorrectionOverlay}s over this
+     * row's maps and the benefit fields are copied on first write, so nothing is duplicated
+     * up front and this row is never modified.
+     */
+    public VendorMatrixData copyForCorrection() {
+        VendorMatrixData copy = new VendorMatrixData();
+        copy.productName = productName;
+        copy.productId = productId;
+        copy.basePlan = basePlan;
+        copy.benefitSet = benefitSet;
+        copy.contractId = contractId;
+        copy.pbpNumber = pbpNumber;
+        copy.segmentId = segmentId;
+        copy.planYear = planYear;
+        copy.effectiveDate = effectiveDate;
+        copy.company = company;
+        copy.licensure = licensure;
+        copy.benefitFields = benefitFields;
+        copy.benefitFieldsShared = benefitFields != null;
+        copy.allColumns = new CorrectionOverlay(allColumns);
+        copy.benefitData = new CorrectionOverlay(benefitData);
+        copy.sourceFileName = sourceFileName;
+        copy.uploadedAt = uploadedAt;
+        copy.contentHash = contentHash;
+        copy.sourceRowIndex = sourceRowIndex;
+        return copy;
+    }
+
+    /**
+     * Make the column maps read-only, so a cached parse can be shared between validations;
+     * corrections go through {@link #copyForCorrection()} instead
+     */
+    public VendorMatrixData freeze() {
+        if (allColumns != null) setAllColumns(Collections.unmodifiableMap(allColumns));
+        if (benefitData != null) benefitData = Collections.unmodifiableMap(benefitData);
+        return this;
+    }
+
+    private String benefitField(BenefitField field) {
+        return benefitFields != null ? benefitFields[field.ordinal()] : null;
+    }
+
+    private void setBenefitField(BenefitField field, String value) {
+        if (benefitFields == null) {
+            if (value == null) return;
+            benefitFields = new String[BenefitField.values().length];
+        } else if (benefitFieldsShared) {
+            benefitFields = benefitFields.clone();
+            benefitFieldsShared = false;
+        }
+        benefitFields[field.ordinal()] = value;
+    }
+
     // Builder pattern
     public static VendorMatrixDataBuilder builder() {
         return new VendorMatrixDataBuilder();
@@ -139,249 +207,249 @@ public class VendorMatrixData {
     public void setLicensure(String licensure) { this.licensure = licensure; }
 
     // Benefit fields getters and setters
-    public String getInpatientAdmission() { return inpatientAdmission; }
-    public void setInpatientAdmission(String inpatientAdmission) { this.inpatientAdmission = inpatientAdmission; }
+    public String getInpatientAdmission() { return benefitField(BenefitField.INPATIENT_ADMISSION); }
+    public void setInpatientAdmission(String inpatientAdmission) { setBenefitField(BenefitField.INPATIENT_ADMISSION, inpatientAdmission); }
 
-    public String getSkilledNursingDays() { return skilledNursingDays; }
-    public void setSkilledNursingDays(String skilledNursingDays) { this.skilledNursingDays = skilledNursingDays; }
+    public String getSkilledNursingDays() { return benefitField(BenefitField.SKILLED_NURSING_DAYS); }
+    public void setSkilledNursingDays(String skilledNursingDays) { setBenefitField(BenefitField.SKILLED_NURSING_DAYS, skilledNursingDays); }
 
-    public String getCardiacTherapy() { return cardiacTherapy; }
-    public void setCardiacTherapy(String cardiacTherapy) { this.cardiacTherapy = cardiacTherapy; }
+    public String getCardiacTherapy() { return benefitField(BenefitField.CARDIAC_THERAPY); }
+    public void setCardiacTherapy(String cardiacTherapy) { setBenefitField(BenefitField.CARDIAC_THERAPY, cardiacTherapy); }
 
-    public String getIntensiveCardiacTherapy() { return intensiveCardiacTherapy; }
-    public void setIntensiveCardiacTherapy(String intensiveCardiacTherapy) { this.intensiveCardiacTherapy = intensiveCardiacTherapy; }
+    public String getIntensiveCardiacTherapy() { return benefitField(BenefitField.INTENSIVE_CARDIAC_THERAPY); }
+    public void setIntensiveCardiacTherapy(String intensiveCardiacTherapy) { setBenefitField(BenefitField.INTENSIVE_CARDIAC_THERAPY, intensiveCardiacTherapy); }
 
-    public String getSuperviseExerciseTherapy() { return superviseExerciseTherapy; }
-    public void setSuperviseExerciseTherapy(String superviseExerciseTherapy) { this.superviseExerciseTherapy = superviseExerciseTherapy; }
+    public String getSuperviseExerciseTherapy() { return benefitField(BenefitField.SUPERVISE_EXERCISE_THERAPY); }
+    public void setSuperviseExerciseTherapy(String superviseExerciseTherapy) { setBenefitField(BenefitField.SUPERVISE_EXERCISE_THERAPY, superviseExerciseTherapy); }
 
-    public String getPulmonaryRehab() { return pulmonaryRehab; }
-    public void setPulmonaryRehab(String pulmonaryRehab) { this.pulmonaryRehab = pulmonaryRehab; }
+    public String getPulmonaryRehab() { return benefitField(BenefitField.PULMONARY_REHAB); }
+    public void setPulmonaryRehab(String pulmonaryRehab) { setBenefitField(BenefitField.PULMONARY_REHAB, pulmonaryRehab); }
 
-    public String getEmergencyServices() { return emergencyServices; }
-    public void setEmergencyServices(String emergencyServices) { this.emergencyServices = emergencyServices; }
+    public String getEmergencyServices() { return benefitField(BenefitField.EMERGENCY_SERVICES); }
+    public void setEmergencyServices(String emergencyServices) { setBenefitField(BenefitField.EMERGENCY_SERVICES, emergencyServices); }
 
-    public String getUrgentCare() { return urgentCare; }
-    public void setUrgentCare(String urgentCare) { this.urgentCare = urgentCare; }
+    public String getUrgentCare() { return benefitField(BenefitField.URGENT_CARE); }
+    public void setUrgentCare(String urgentCare) { setBenefitField(BenefitField.URGENT_CARE, urgentCare); }
 
-    public String getHomeHealthVisits() { return homeHealthVisits; }
-    public void setHomeHealthVisits(String homeHealthVisits) { this.homeHealthVisits = homeHealthVisits; }
+    public String getHomeHealthVisits() { return benefitField(BenefitField.HOME_HEALTH_VISITS); }
+    public void setHomeHealthVisits(String homeHealthVisits) { setBenefitField(BenefitField.HOME_HEALTH_VISITS, homeHealthVisits); }
 
-    public String getPcpVisits() { return pcpVisits; }
-    public void setPcpVisits(String pcpVisits) { this.pcpVisits = pcpVisits; }
+    public String getPcpVisits() { return benefitField(BenefitField.PCP_VISITS); }
+    public void setPcpVisits(String pcpVisits) { setBenefitField(BenefitField.PCP_VISITS, pcpVisits); }
 
-    public String getChiropracticServices() { return chiropracticServices; }
-    public void setChiropracticServices(String chiropracticServices) { this.chiropracticServices = chiropracticServices; }
+    public String getChiropracticServices() { return benefitField(BenefitField.CHIROPRACTIC_SERVICES); }
+    public void setChiropracticServices(String chiropracticServices) { setBenefitField(BenefitField.CHIROPRACTIC_SERVICES, chiropracticServices); }
 
-    public String getOccupationalTherapy() { return occupationalTherapy; }
-    public void setOccupationalTherapy(String occupationalTherapy) { this.occupationalTherapy = occupationalTherapy; }
+    public String getOccupationalTherapy() { return benefitField(BenefitField.OCCUPATIONAL_THERAPY); }
+    public void setOccupationalTherapy(String occupationalTherapy) { setBenefitField(BenefitField.OCCUPATIONAL_THERAPY, occupationalTherapy); }
 
-    public String getSpecialistVisits() { return specialistVisits; }
-    public void setSpecialistVisits(String specialistVisits) { this.specialistVisits = specialistVisits; }
+    public String getSpecialistVisits() { return benefitField(BenefitField.SPECIALIST_VISITS); }
+    public void setSpecialistVisits(String specialistVisits) { setBenefitField(BenefitField.SPECIALIST_VISITS, specialistVisits); }
 
-    public String getPodiatryMedicare() { return podiatryMedicare; }
-    public void setPodiatryMedicare(String podiatryMedicare) { this.podiatryMedicare = podiatryMedicare; }
+    public String getPodiatryMedicare() { return benefitField(BenefitField.PODIATRY_MEDICARE); }
+    public void setPodiatryMedicare(String podiatryMedicare) { setBenefitField(BenefitField.PODIATRY_MEDICARE, podiatryMedicare); }
 
-    public String getPodiatrySupplemental() { return podiatrySupplemental; }
-    public void setPodiatrySupplemental(String podiatrySupplemental) { this.podiatrySupplemental = podiatrySupplemental; }
+    public String getPodiatrySupplemental() { return benefitField(BenefitField.PODIATRY_SUPPLEMENTAL); }
+    public void setPodiatrySupplemental(String podiatrySupplemental) { setBenefitField(BenefitField.PODIATRY_SUPPLEMENTAL, podiatrySupplemental); }
 
-    public String getPhysicalTherapy() { return physicalTherapy; }
-    public void setPhysicalTherapy(String physicalTherapy) { this.physicalTherapy = physicalTherapy; }
+    public String getPhysicalTherapy() { return benefitField(BenefitField.PHYSICAL_THERAPY); }
+    public void setPhysicalTherapy(String physicalTherapy) { setBenefitField(BenefitField.PHYSICAL_THERAPY, physicalTherapy); }
 
-    public String getSpeechTherapy() { return speechTherapy; }
-    public void setSpeechTherapy(String speechTherapy) { this.speechTherapy = speechTherapy; }
+    public String getSpeechTherapy() { return benefitField(BenefitField.SPEECH_THERAPY); }
+    public void setSpeechTherapy(String speechTherapy) { setBenefitField(BenefitField.SPEECH_THERAPY, speechTherapy); }
 
-    public String getTelehealth() { return telehealth; }
-    public void setTelehealth(String telehealth) { this.telehealth = telehealth; }
+    public String getTelehealth() { return benefitField(BenefitField.TELEHEALTH); }
+    public void setTelehealth(String telehealth) { setBenefitField(BenefitField.TELEHEALTH, telehealth); }
 
-    public String getDiagnosticTesting() { return diagnosticTesting; }
-    public void setDiagnosticTesting(String diagnosticTesting) { this.diagnosticTesting = diagnosticTesting; }
+    public String getDiagnosticTesting() { return benefitField(BenefitField.DIAGNOSTIC_TESTING); }
+    public void setDiagnosticTesting(String diagnosticTesting) { setBenefitField(BenefitField.DIAGNOSTIC_TESTING, diagnosticTesting); }
 
-    public String getLabServices() { return labServices; }
-    public void setLabServices(String labServices) { this.labServices = labServices; }
+    public String getLabServices() { return benefitField(BenefitField.LAB_SERVICES); }
+    public void setLabServices(String labServices) { setBenefitField(BenefitField.LAB_SERVICES, labServices); }
 
-    public String getTherapeuticRadiology() { return therapeuticRadiology; }
-    public void setTherapeuticRadiology(String therapeuticRadiology) { this.therapeuticRadiology = therapeuticRadiology; }
+    public String getTherapeuticRadiology() { return benefitField(BenefitField.THERAPEUTIC_RADIOLOGY); }
+    public void setTherapeuticRadiology(String therapeuticRadiology) { setBenefitField(BenefitField.THERAPEUTIC_RADIOLOGY, therapeuticRadiology); }
 
-    public String getDiagnosticRadiology() { return diagnosticRadiology; }
-    public void setDiagnosticRadiology(String diagnosticRadiology) { this.diagnosticRadiology = diagnosticRadiology; }
+    public String getDiagnosticRadiology() { return benefitField(BenefitField.DIAGNOSTIC_RADIOLOGY); }
+    public void setDiagnosticRadiology(String diagnosticRadiology) { setBenefitField(BenefitField.DIAGNOSTIC_RADIOLOGY, diagnosticRadiology); }
 
-    public String getAdvancedImaging() { return advancedImaging; }
-    public void setAdvancedImaging(String advancedImaging) { this.advancedImaging = advancedImaging; }
+    public String getAdvancedImaging() { return benefitField(BenefitField.ADVANCED_IMAGING); }
+    public void setAdvancedImaging(String advancedImaging) { setBenefitField(BenefitField.ADVANCED_IMAGING, advancedImaging); }
 
-    public String getAmbulanceEmergent() { return ambulanceEmergent; }
-    public void setAmbulanceEmergent(String ambulanceEmergent) { this.ambulanceEmergent = ambulanceEmergent; }
+    public String getAmbulanceEmergent() { return benefitField(BenefitField.AMBULANCE_EMERGENT); }
+    public void setAmbulanceEmergent(String ambulanceEmergent) { setBenefitField(BenefitField.AMBULANCE_EMERGENT, ambulanceEmergent); }
 
-    public String getAmbulanceNonEmergent() { return ambulanceNonEmergent; }
-    public void setAmbulanceNonEmergent(String ambulanceNonEmergent) { this.ambulanceNonEmergent = ambulanceNonEmergent; }
+    public String getAmbulanceNonEmergent() { return benefitField(BenefitField.AMBULANCE_NON_EMERGENT); }
+    public void setAmbulanceNonEmergent(String ambulanceNonEmergent) { setBenefitField(BenefitField.AMBULANCE_NON_EMERGENT, ambulanceNonEmergent); }
 
-    public String getAmbulanceAir() { return ambulanceAir; }
-    public void setAmbulanceAir(String ambulanceAir) { this.ambulanceAir = ambulanceAir; }
+    public String getAmbulanceAir() { return benefitField(BenefitField.AMBULANCE_AIR); }
+    public void setAmbulanceAir(String ambulanceAir) { setBenefitField(BenefitField.AMBULANCE_AIR, ambulanceAir); }
 
-    public String getAcupuncture() { return acupuncture; }
-    public void setAcupuncture(String acupuncture) { this.acupuncture = acupuncture; }
+    public String getAcupuncture() { return benefitField(BenefitField.ACUPUNCTURE); }
+    public void setAcupuncture(String acupuncture) { setBenefitField(BenefitField.ACUPUNCTURE, acupuncture); }
 
-    public String getMentalHealthMedicare() { return mentalHealthMedicare; }
-    public void setMentalHealthMedicare(String mentalHealthMedicare) { this.mentalHealthMedicare = mentalHealthMedicare; }
+    public String getMentalHealthMedicare() { return benefitField(BenefitField.MENTAL_HEALTH_MEDICARE); }
+    public void setMentalHealthMedicare(String mentalHealthMedicare) { setBenefitField(BenefitField.MENTAL_HEALTH_MEDICARE, mentalHealthMedicare); }
 
-    public String getMentalHealthSupplemental() { return mentalHealthSupplemental; }
-    public void setMentalHealthSupplemental(String mentalHealthSupplemental) { this.mentalHealthSupplemental = mentalHealthSupplemental; }
+    public String getMentalHealthSupplemental() { return benefitField(BenefitField.MENTAL_HEALTH_SUPPLEMENTAL); }
+    public void setMentalHealthSupplemental(String mentalHealthSupplemental) { setBenefitField(BenefitField.MENTAL_HEALTH_SUPPLEMENTAL, mentalHealthSupplemental); }
 
-    public String getSubstanceAbuseMedicare() { return substanceAbuseMedicare; }
-    public void setSubstanceAbuseMedicare(String substanceAbuseMedicare) { this.substanceAbuseMedicare = substanceAbuseMedicare; }
+    public String getSubstanceAbuseMedicare() { return benefitField(BenefitField.SUBSTANCE_ABUSE_MEDICARE); }
+    public void setSubstanceAbuseMedicare(String substanceAbuseMedicare) { setBenefitField(BenefitField.SUBSTANCE_ABUSE_MEDICARE, substanceAbuseMedicare); }
 
-    public String getSubstanceAbuseSupplemental() { return substanceAbuseSupplemental; }
-    public void setSubstanceAbuseSupplemental(String substanceAbuseSupplemental) { this.substanceAbuseSupplemental = substanceAbuseSupplemental; }
+    public String getSubstanceAbuseSupplemental() { return benefitField(BenefitField.SUBSTANCE_ABUSE_SUPPLEMENTAL); }
+    public void setSubstanceAbuseSupplemental(String substanceAbuseSupplemental) { setBenefitField(BenefitField.SUBSTANCE_ABUSE_SUPPLEMENTAL, substanceAbuseSupplemental); }
 
-    public String getDialysisTreatment() { return dialysisTreatment; }
-    public void setDialysisTreatment(String dialysisTreatment) { this.dialysisTreatment = dialysisTreatment; }
+    public String getDialysisTreatment() { return benefitField(BenefitField.DIALYSIS_TREATMENT); }
+    public void setDialysisTreatment(String dialysisTreatment) { setBenefitField(BenefitField.DIALYSIS_TREATMENT, dialysisTreatment); }
 
-    public String getDMEProsthetics() { return DMEProsthetics; }
-    public void setDMEProsthetics(String DMEProsthetics) { this.DMEProsthetics = DMEProsthetics; }
+    public String getDMEProsthetics() { return benefitField(BenefitField.DME_PROSTHETICS); }
+    public void setDMEProsthetics(String DMEProsthetics) { setBenefitField(BenefitField.DME_PROSTHETICS, DMEProsthetics); }
 
-    public String getDiabeticSupplies() { return diabeticSupplies; }
-    public void setDiabeticSupplies(String diabeticSupplies) { this.diabeticSupplies = diabeticSupplies; }
+    public String getDiabeticSupplies() { return benefitField(BenefitField.DIABETIC_SUPPLIES); }
+    public void setDiabeticSupplies(String diabeticSupplies) { setBenefitField(BenefitField.DIABETIC_SUPPLIES, diabeticSupplies); }
 
-    public String getPartBRx() { return partBRx; }
-    public void setPartBRx(String partBRx) { this.partBRx = partBRx; }
+    public String getPartBRx() { return benefitField(BenefitField.PART_B_RX); }
+    public void setPartBRx(String partBRx) { setBenefitField(BenefitField.PART_B_RX, partBRx); }
 
-    public String getChemotherapy() { return chemotherapy; }
-    public void setChemotherapy(String chemotherapy) { this.chemotherapy = chemotherapy; }
+    public String getChemotherapy() { return benefitField(BenefitField.CHEMOTHERAPY); }
+    public void setChemotherapy(String chemotherapy) { setBenefitField(BenefitField.CHEMOTHERAPY, chemotherapy); }
 
-    public String getRenalDialysis() { return renalDialysis; }
-    public void setRenalDialysis(String renalDialysis) { this.renalDialysis = renalDialysis; }
+    public String getRenalDialysis() { return benefitField(BenefitField.RENAL_DIALYSIS); }
+    public void setRenalDialysis(String renalDialysis) { setBenefitField(BenefitField.RENAL_DIALYSIS, renalDialysis); }
 
-    public String getOpioidTreatment() { return opioidTreatment; }
-    public void setOpioidTreatment(String opioidTreatment) { this.opioidTreatment = opioidTreatment; }
+    public String getOpioidTreatment() { return benefitField(BenefitField.OPIOID_TREATMENT); }
+    public void setOpioidTreatment(String opioidTreatment) { setBenefitField(BenefitField.OPIOID_TREATMENT, opioidTreatment); }
 
-    public String getPartialHospitalization() { return partialHospitalization; }
-    public void setPartialHospitalization(String partialHospitalization) { this.partialHospitalization = partialHospitalization; }
+    public String getPartialHospitalization() { return benefitField(BenefitField.PARTIAL_HOSPITALIZATION); }
+    public void setPartialHospitalization(String partialHospitalization) { setBenefitField(BenefitField.PARTIAL_HOSPITALIZATION, partialHospitalization); }
 
-    public String getTransportation() { return transportation; }
-    public void setTransportation(String transportation) { this.transportation = transportation; }
+    public String getTransportation() { return benefitField(BenefitField.TRANSPORTATION); }
+    public void setTransportation(String transportation) { setBenefitField(BenefitField.TRANSPORTATION, transportation); }
 
-    public String getMeals() { return meals; }
-    public void setMeals(String meals) { this.meals = meals; }
+    public String getMeals() { return benefitField(BenefitField.MEALS); }
+    public void setMeals(String meals) { setBenefitField(BenefitField.MEALS, meals); }
 
-    public String getUtilities() { return utilities; }
-    public void setUtilities(String utilities) { this.utilities = utilities; }
+    public String getUtilities() { return benefitField(BenefitField.UTILITIES); }
+    public void setUtilities(String utilities) { setBenefitField(BenefitField.UTILITIES, utilities); }
 
-    public String getPestControl() { return pestControl; }
-    public void setPestControl(String pestControl) { this.pestControl = pestControl; }
+    public String getPestControl() { return benefitField(BenefitField.PEST_CONTROL); }
+    public void setPestControl(String pestControl) { setBenefitField(BenefitField.PEST_CONTROL, pestControl); }
 
-    public String getCompressionStockings() { return compressionStockings; }
-    public void setCompressionStockings(String compressionStockings) { this.compressionStockings = compressionStockings; }
+    public String getCompressionStockings() { return benefitField(BenefitField.COMPRESSION_STOCKINGS); }
+    public void setCompressionStockings(String compressionStockings) { setBenefitField(BenefitField.COMPRESSION_STOCKINGS, compressionStockings); }
 
-    public String getFirstAidKit() { return firstAidKit; }
-    public void setFirstAidKit(String firstAidKit) { this.firstAidKit = firstAidKit; }
+    public String getFirstAidKit() { return benefitField(BenefitField.FIRST_AID_KIT); }
+    public void setFirstAidKit(String firstAidKit) { setBenefitField(BenefitField.FIRST_AID_KIT, firstAidKit); }
 
-    public String getFoodCard() { return foodCard; }
-    public void setFoodCard(String foodCard) { this.foodCard = foodCard; }
+    public String getFoodCard() { return benefitField(BenefitField.FOOD_CARD); }
+    public void setFoodCard(String foodCard) { setBenefitField(BenefitField.FOOD_CARD, foodCard); }
 
-    public String getOverTheCounterItems() { return overTheCounterItems; }
-    public void setOverTheCounterItems(String overTheCounterItems) { this.overTheCounterItems = overTheCounterItems; }
+    public String getOverTheCounterItems() { return benefitField(BenefitField.OVER_THE_COUNTER_ITEMS); }
+    public void setOverTheCounterItems(String overTheCounterItems) { setBenefitField(BenefitField.OVER_THE_COUNTER_ITEMS, overTheCounterItems); }
 
-    public String getPersonalEmergencyDevice() { return personalEmergencyDevice; }
-    public void setPersonalEmergencyDevice(String personalEmergencyDevice) { this.personalEmergencyDevice = personalEmergencyDevice; }
+    public String getPersonalEmergencyDevice() { return benefitField(BenefitField.PERSONAL_EMERGENCY_DEVICE); }
+    public void setPersonalEmergencyDevice(String personalEmergencyDevice) { setBenefitField(BenefitField.PERSONAL_EMERGENCY_DEVICE, personalEmergencyDevice); }
 
-    public String getSmokingCessation() { return smokingCessation; }
-    public void setSmokingCessation(String smokingCessation) { this.smokingCessation = smokingCessation; }
+    public String getSmokingCessation() { return benefitField(BenefitField.SMOKING_CESSATION); }
+    public void setSmokingCessation(String smokingCessation) { setBenefitField(BenefitField.SMOKING_CESSATION, smokingCessation); }
 
-    public String getFittingContacts() { return fittingContacts; }
-    public void setFittingContacts(String fittingContacts) { this.fittingContacts = fittingContacts; }
+    public String getFittingContacts() { return benefitField(BenefitField.FITTING_CONTACTS); }
+    public void setFittingContacts(String fittingContacts) { setBenefitField(BenefitField.FITTING_CONTACTS, fittingContacts); }
 
-    public String getDentalProphylaxis() { return dentalProphylaxis; }
-    public void setDentalProphylaxis(String dentalProphylaxis) { this.dentalProphylaxis = dentalProphylaxis; }
+    public String getDentalProphylaxis() { return benefitField(BenefitField.DENTAL_PROPHYLAXIS); }
+    public void setDentalProphylaxis(String dentalProphylaxis) { setBenefitField(BenefitField.DENTAL_PROPHYLAXIS, dentalProphylaxis); }
 
-    public String getPeriodonticMaintenance() { return periodonticMaintenance; }
-    public void setPeriodonticMaintenance(String periodonticMaintenance) { this.periodonticMaintenance = periodonticMaintenance; }
+    public String getPeriodonticMaintenance() { return benefitField(BenefitField.PERIODONTIC_MAINTENANCE); }
+    public void setPeriodonticMaintenance(String periodonticMaintenance) { setBenefitField(BenefitField.PERIODONTIC_MAINTENANCE, periodonticMaintenance); }
 
-    public String getEmergencyDental() { return emergencyDental; }
-    public void setEmergencyDental(String emergencyDental) { this.emergencyDental = emergencyDental; }
+    public String getEmergencyDental() { return benefitField(BenefitField.EMERGENCY_DENTAL); }
+    public void setEmergencyDental(String emergencyDental) { setBenefitField(BenefitField.EMERGENCY_DENTAL, emergencyDental); }
 
-    public String getComprehensiveDental() { return comprehensiveDental; }
-    public void setComprehensiveDental(String comprehensiveDental) { this.comprehensiveDental = comprehensiveDental; }
+    public String getComprehensiveDental() { return benefitField(BenefitField.COMPREHENSIVE_DENTAL); }
+    public void setComprehensiveDental(String comprehensiveDental) { setBenefitField(BenefitField.COMPREHENSIVE_DENTAL, comprehensiveDental); }
 
-    public String getProsthodonticBasic() { return prosthodonticBasic; }
-    public void setProsthodonticBasic(String prosthodonticBasic) { this.prosthodonticBasic = prosthodonticBasic; }
+    public String getProsthodonticBasic() { return benefitField(BenefitField.PROSTHODONTIC_BASIC); }
+    public void setProsthodonticBasic(String prosthodonticBasic) { setBenefitField(BenefitField.PROSTHODONTIC_BASIC, prosthodonticBasic); }
 
-    public String getOrthodonticServices() { return orthodonticServices; }
-    public void setOrthodonticServices(String orthodonticServices) { this.orthodonticServices = orthodonticServices; }
+    public String getOrthodonticServices() { return benefitField(BenefitField.ORTHODONTIC_SERVICES); }
+    public void setOrthodonticServices(String orthodonticServices) { setBenefitField(BenefitField.ORTHODONTIC_SERVICES, orthodonticServices); }
 
-    public String getHearingExam() { return hearingExam; }
-    public void setHearingExam(String hearingExam) { this.hearingExam = hearingExam; }
+    public String getHearingExam() { return benefitField(BenefitField.HEARING_EXAM); }
+    public void setHearingExam(String hearingExam) { setBenefitField(BenefitField.HEARING_EXAM, hearingExam); }
 
-    public String getFittingEvaluation() { return fittingEvaluation; }
-    public void setFittingEvaluation(String fittingEvaluation) { this.fittingEvaluation = fittingEvaluation; }
+    public String getFittingEvaluation() { return benefitField(BenefitField.FITTING_EVALUATION); }
+    public void setFittingEvaluation(String fittingEvaluation) { setBenefitField(BenefitField.FITTING_EVALUATION, fittingEvaluation); }
 
-    public String getHearingAids() { return hearingAids; }
-    public void setHearingAids(String hearingAids) { this.hearingAids = hearingAids; }
+    public String getHearingAids() { return benefitField(BenefitField.HEARING_AIDS); }
+    public void setHearingAids(String hearingAids) { setBenefitField(BenefitField.HEARING_AIDS, hearingAids); }
 
-    public String getRoutineEyeExam() { return routineEyeExam; }
-    public void setRoutineEyeExam(String routineEyeExam) { this.routineEyeExam = routineEyeExam; }
+    public String getRoutineEyeExam() { return benefitField(BenefitField.ROUTINE_EYE_EXAM); }
+    public void setRoutineEyeExam(String routineEyeExam) { setBenefitField(BenefitField.ROUTINE_EYE_EXAM, routineEyeExam); }
 
-    public String getGlaucoma() { return glaucoma; }
-    public void setGlaucoma(String glaucoma) { this.glaucoma = glaucoma; }
+    public String getGlaucoma() { return benefitField(BenefitField.GLAUCOMA); }
+    public void setGlaucoma(String glaucoma) { setBenefitField(BenefitField.GLAUCOMA, glaucoma); }
 
-    public String getDiabeticRetinopathy() { return diabeticRetinopathy; }
-    public void setDiabeticRetinopathy(String diabeticRetinopathy) { this.diabeticRetinopathy = diabeticRetinopathy; }
+    public String getDiabeticRetinopathy() { return benefitField(BenefitField.DIABETIC_RETINOPATHY); }
+    public void setDiabeticRetinopathy(String diabeticRetinopathy) { setBenefitField(BenefitField.DIABETIC_RETINOPATHY, diabeticRetinopathy); }
 
-    public String getAllowancePrescription() { return allowancePrescription; }
-    public void setAllowancePrescription(String allowancePrescription) { this.allowancePrescription = allowancePrescription; }
+    public String getAllowancePrescription() { return benefitField(BenefitField.ALLOWANCE_PRESCRIPTION); }
+    public void setAllowancePrescription(String allowancePrescription) { setBenefitField(BenefitField.ALLOWANCE_PRESCRIPTION, allowancePrescription); }
 
-    public String getAllowanceNonPrescription() { return allowanceNonPrescription; }
-    public void setAllowanceNonPrescription(String allowanceNonPrescription) { this.allowanceNonPrescription = allowanceNonPrescription; }
+    public String getAllowanceNonPrescription() { return benefitField(BenefitField.ALLOWANCE_NON_PRESCRIPTION); }
+    public void setAllowanceNonPrescription(String allowanceNonPrescription) { setBenefitField(BenefitField.ALLOWANCE_NON_PRESCRIPTION, allowanceNonPrescription); }
 
-    public String getVisionHardware() { return visionHardware; }
-    public void setVisionHardware(String visionHardware) { this.visionHardware = visionHardware; }
+    public String getVisionHardware() { return benefitField(BenefitField.VISION_HARDWARE); }
+    public void setVisionHardware(String visionHardware) { setBenefitField(BenefitField.VISION_HARDWARE, visionHardware); }
 
-    public String getVisionSoftware() { return visionSoftware; }
-    public void setVisionSoftware(String visionSoftware) { this.visionSoftware = visionSoftware; }
+    public String getVisionSoftware() { return benefitField(BenefitField.VISION_SOFTWARE); }
+    public void setVisionSoftware(String visionSoftware) { setBenefitField(BenefitField.VISION_SOFTWARE, visionSoftware); }
 
-    public String getContactLenses() { return contactLenses; }
-    public void setContactLenses(String contactLenses) { this.contactLenses = contactLenses; }
+    public String getContactLenses() { return benefitField(BenefitField.CONTACT_LENSES); }
+    public void setContactLenses(String contactLenses) { setBenefitField(BenefitField.CONTACT_LENSES, contactLenses); }
 
-    public String getLowVisionAids() { return lowVisionAids; }
-    public void setLowVisionAids(String lowVisionAids) { this.lowVisionAids = lowVisionAids; }
+    public String getLowVisionAids() { return benefitField(BenefitField.LOW_VISION_AIDS); }
+    public void setLowVisionAids(String lowVisionAids) { setBenefitField(BenefitField.LOW_VISION_AIDS, lowVisionAids); }
 
-    public String getFitnessProgram() { return fitnessProgram; }
-    public void setFitnessProgram(String fitnessProgram) { this.fitnessProgram = fitnessProgram; }
+    public String getFitnessProgram() { return benefitField(BenefitField.FITNESS_PROGRAM); }
+    public void setFitnessProgram(String fitnessProgram) { setBenefitField(BenefitField.FITNESS_PROGRAM, fitnessProgram); }
 
-    public String getNurseHotline() { return nurseHotline; }
-    public void setNurseHotline(String nurseHotline) { this.nurseHotline = nurseHotline; }
+    public String getNurseHotline() { return benefitField(BenefitField.NURSE_HOTLINE); }
+    public void setNurseHotline(String nurseHotline) { setBenefitField(BenefitField.NURSE_HOTLINE, nurseHotline); }
 
     // Additional missing fields that ExcelExportService expects
-    public String getOutpatientHospital() { return inpatientAdmission; } // Using existing field
-    public void setOutpatientHospital(String outpatientHospital) { this.inpatientAdmission = outpatientHospital; }
+    public String getOutpatientHospital() { return benefitField(BenefitField.INPATIENT_ADMISSION); } // Using existing field
+    public void setOutpatientHospital(String outpatientHospital) { setBenefitField(BenefitField.INPATIENT_ADMISSION, outpatientHospital); }
 
-    public String getObservationRoom() { return inpatientAdmission; } // Using existing field
-    public void setObservationRoom(String observationRoom) { this.inpatientAdmission = observationRoom; }
+    public String getObservationRoom() { return benefitField(BenefitField.INPATIENT_ADMISSION); } // Using existing field
+    public void setObservationRoom(String observationRoom) { setBenefitField(BenefitField.INPATIENT_ADMISSION, observationRoom); }
 
-    public String getAmbulatorySurgery() { return emergencyServices; } // Using existing field
-    public void setAmbulatorySurgery(String ambulatorySurgery) { this.emergencyServices = ambulatorySurgery; }
+    public String getAmbulatorySurgery() { return benefitField(BenefitField.EMERGENCY_SERVICES); } // Using existing field
+    public void setAmbulatorySurgery(String ambulatorySurgery) { setBenefitField(BenefitField.EMERGENCY_SERVICES, ambulatorySurgery); }
 
-    public String getOutpatientBlood() { return labServices; } // Using existing field
-    public void setOutpatientBlood(String outpatientBlood) { this.labServices = outpatientBlood; }
+    public String getOutpatientBlood() { return benefitField(BenefitField.LAB_SERVICES); } // Using existing field
+    public void setOutpatientBlood(String outpatientBlood) { setBenefitField(BenefitField.LAB_SERVICES, outpatientBlood); }
 
-    public String getDme() { return DMEProsthetics; } // Using existing field
-    public void setDme(String dme) { this.DMEProsthetics = dme; }
+    public String getDme() { return benefitField(BenefitField.DME_PROSTHETICS); } // Using existing field
+    public void setDme(String dme) { setBenefitField(BenefitField.DME_PROSTHETICS, dme); }
 
-    public String getProsthetics() { return DMEProsthetics; } // Using existing field
-    public void setProsthetics(String prosthetics) { this.DMEProsthetics = prosthetics; }
+    public String getProsthetics() { return benefitField(BenefitField.DME_PROSTHETICS); } // Using existing field
+    public void setProsthetics(String prosthetics) { setBenefitField(BenefitField.DME_PROSTHETICS, prosthetics); }
 
-    public String getShoeInserts() { return DMEProsthetics; } // Using existing field
-    public void setShoeInserts(String shoeInserts) { this.DMEProsthetics = shoeInserts; }
+    public String getShoeInserts() { return benefitField(BenefitField.DME_PROSTHETICS); } // Using existing field
+    public void setShoeInserts(String shoeInserts) { setBenefitField(BenefitField.DME_PROSTHETICS, shoeInserts); }
 
-    public String getOtcMedications() { return overTheCounterItems; } // Using existing field
-    public void setOtcMedications(String otcMedications) { this.overTheCounterItems = otcMedications; }
+    public String getOtcMedications() { return benefitField(BenefitField.OVER_THE_COUNTER_ITEMS); } // Using existing field
+    public void setOtcMedications(String otcMedications) { setBenefitField(BenefitField.OVER_THE_COUNTER_ITEMS, otcMedications); }
 
-    public String getMealsBenefit() { return meals; } // Using existing field
-    public void setMealsBenefit(String mealsBenefit) { this.meals = mealsBenefit; }
+    public String getMealsBenefit() { return benefitField(BenefitField.MEALS); } // Using existing field
+    public void setMealsBenefit(String mealsBenefit) { setBenefitField(BenefitField.MEALS, mealsBenefit); }
 
-    public String getPreventiveCare() { return pcpVisits; } // Using existing field
-    public void setPreventiveCare(String preventiveCare) { this.pcpVisits = preventiveCare; }
+    public String getPreventiveCare() { return benefitField(BenefitField.PCP_VISITS); } // Using existing field
+    public void setPreventiveCare(String preventiveCare) { setBenefitField(BenefitField.PCP_VISITS, preventiveCare); }
 
-    public String getAnnualPhysical() { return pcpVisits; } // Using existing field
-    public void setAnnualPhysical(String annualPhysical) { this.pcpVisits = annualPhysical; }
+    public String getAnnualPhysical() { return benefitField(BenefitField.PCP_VISITS); } // Using existing field
+    public void setAnnualPhysical(String annualPhysical) { setBenefitField(BenefitField.PCP_VISITS, annualPhysical); }
 
     public String getMoop() { return allColumns != null ? allColumns.get("moop") : null; } // Using metadata
     public void setMoop(String moop) { if (allColumns != null) allColumns.put("moop", moop); }
@@ -391,7 +459,23 @@ public class VendorMatrixData {
 
     // Metadata getters and setters
     public Map<String, String> getAllColumns() { return allColumns; }
-    public void setAllColumns(Map<String, String> allColumns) { this.allColumns = allColumns; }
+    public void setAllColumns(Map<String, String> allColumns) { this.allColumns = allColumns; this.columnIndex = null; }
+
+    /**
+     * Token index over the column headers, shared by every benefit mapped against this matrix.
+     * Rebuilt when the columns are replaced or a column is added.
+     */
+    @JsonIgnore
+    public ColumnTokenIndex getColumnIndex() {
+        if (allColumns == null) return new ColumnTokenIndex(List.of());
+        ColumnTokenIndex index = columnIndex;
+        if (index == null || indexedColumns != allColumns || index.size() != allColumns.size()) {
+            index = new ColumnTokenIndex(allColumns.keySet());
+            indexedColumns = allColumns;
+            columnIndex = index;
+        }
+        return index;
+    }
 
     public Map<String, String> getBenefitData() { return benefitData; }
     public void setBenefitData(Map<String, String> benefitData) { this.benefitData = benefitData; }
@@ -402,6 +486,12 @@ public class VendorMatrixData {
     public String getUploadedAt() { return uploadedAt; }
     public void setUploadedAt(String uploadedAt) { this.uploadedAt = uploadedAt; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
+    public Integer getSourceRowIndex() { return sourceRowIndex; }
+    public void setSourceRowIndex(Integer sourceRowIndex) { this.sourceRowIndex = sourceRowIndex; }
+
     // Builder class
     public static class VendorMatrixDataBuilder {
         private String productName;
@@ -489,6 +579,7 @@ public class VendorMatrixData {
         private Map<String, String> benefitData;
         private String sourceFileName;
         private String uploadedAt;
+        private Integer sourceRowIndex;
 
         public VendorMatrixDataBuilder productName(String productName) { this.productName = productName; return this; }
         public VendorMatrixDataBuilder productId(String productId) { this.productId = productId; return this; }
@@ -596,6 +687,7 @@ public class VendorMatrixData {
         public VendorMatrixDataBuilder benefitData(Map<String, String> benefitData) { this.benefitData = benefitData; return this; }
         public VendorMatrixDataBuilder sourceFileName(String sourceFileName) { this.sourceFileName = sourceFileName; return this; }
         public VendorMatrixDataBuilder uploadedAt(String uploadedAt) { this.uploadedAt = uploadedAt; return this; }
+        public VendorMatrixDataBuilder sourceRowIndex(Integer sourceRowIndex) { this.sourceRowIndex = sourceRowIndex; return this; }
 
         public VendorMatrixData build() {
             VendorMatrixData data = new VendorMatrixData();
@@ -684,6 +776,7 @@ public class VendorMatrixData {
             data.setBenefitData(benefitData);
             data.setSourceFileName(sourceFileName);
             data.setUploadedAt(uploadedAt);
+            data.setSourceRowIndex(sourceRowIndex);
             return data;
         }
     }
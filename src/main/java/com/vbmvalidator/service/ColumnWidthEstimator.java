@@ -0,0 +1,88 @@
+package com.vbmvalidator.service;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Estimates Excel column widths from the text written into each column.
+ *
+ * Callers record every cell value as it is written; the estimator keeps the widest line per
+ * column in characters and turns it into a width in 1/256ths of a character, capped at
+ * {@link #MAX_COLUMN_WIDTH}. Unlike {@code Sheet.autoSizeColumn} there is no font layout and
+ * no need to keep rows in memory, so it works with streaming (SXSSF) sheets.
+ */
+public class ColumnWidthEstimator {
+
+    /** Widest column the export allows, in 1/256ths of a character */
+    public static final int MAX_COLUMN_WIDTH = 15000;
+
+    private static final int UNITS_PER_CHAR = 256;
+    private static final int PADDING_CHARS = 2;
+    // Bold header text renders roughly 10% wider than body text
+    private static final double BOLD_FACTOR = 1.1;
+
+    private double[] widestChars = new double[64];
+    private int columnCount;
+
+    /**
+     * Record a body cell value
+     */
+    public void record(int column, String value) {
+        record(column, value, false);
+    }
+
+    /**
+     * Record a cell value; {@code bold} widens header cells
+     */
+    public void record(int column, String value, boolean bold) {
+        if (column >= widestChars.length) {
+            widestChars = Arrays.copyOf(widestChars, Math.max(column + 1, widestChars.length * 2));
+        }
+        columnCount = Math.max(columnCount, column + 1);
+        if (value == null || value.isEmpty()) return;
+
+        double chars = longestLine(value) * (bold ? BOLD_FACTOR : 1.0);
+        if (chars > widestChars[column]) {
+            widestChars[column] = chars;
+        }
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Estimated width of a column in 1/256ths of a character
+     */
+    public int widthOf(int column) {
+        double chars = column < columnCount ? widestChars[column] : 0;
+        long width = Math.round((chars + PADDING_CHARS) * UNITS_PER_CHAR);
+        return (int) Math.min(width, MAX_COLUMN_WIDTH);
+    }
+
+    /**
+     * Set the width of every recorded column on the sheet
+     */
+    public void applyTo(Sheet sheet) {
+        for (int i = 0; i < columnCount; i++) {
+            sheet.setColumnWidth(i, widthOf(i));
+        }
+    }
+
+    // Wrapped cells are as wide as their longest line
+    private static int longestLine(String value) {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n') {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else if (c != '\r' && !Character.isLowSurrogate(c)) {
+                current++;
+            }
+        }
+        return Math.max(longest, current);
+    }
+}
@@ -5,6 +5,7 @@ import com.vbmvalidator.model.VendorMatrixData;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.stream.Stream;
 
 public interface DocumentProcessor {
     
@@ -23,6 +24,13 @@ public interface DocumentProcessor {
      */
     VendorMatrixData extractVendorMatrixData(MultipartFile file) throws IOException;
     
+    /**
+     * Extract every plan row from a multi-plan Vendor Matrix file.
+     * The header is parsed once and each data row becomes its own VendorMatrixData.
+     * The stream holds the open workbook and must be closed by the caller.
+     */
+    Stream<VendorMatrixData> extractVendorMatrixRows(MultipartFile file) throws IOException;
+    
     /**
      * Get supported file extensions
      */
@@ -2,7 +2,8 @@ package com.vbmvalidator.service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -17,9 +18,12 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.vbmvalidator.model.ValidationError;
@@ -31,15 +35,56 @@ public class ExcelExportService {
 
     private static final Logger log = LoggerFactory.getLogger(ExcelExportService.class);
 
+    // Rows kept in memory by the streaming writer; older rows are flushed to a temp file
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    private final boolean exactAutoSize;
+
+    public ExcelExportService() {
+        this(false);
+    }
+
+    /**
+     * @param exactAutoSize measure columns with POI font layout instead of the {@link ColumnWidthEstimator}
+     */
+    @Autowired
+    public ExcelExportService(@Value("${vbm.export.exact-autosize:false}") boolean exactAutoSize) {
+        this.exactAutoSize = exactAutoSize;
+    }
+
+    /**
+     * Build the corrected Vendor Matrix in memory; prefer {@link #writeCorrectedVendorMatrix} for downloads
+     */
     public byte[] generateCorrectedVendorMatrix(VendorMatrixData originalData, 
                                               ValidationResult validationResult, 
                                               List<String> selectedErrorIds, 
                                               boolean highlightChanges) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeCorrectedVendorMatrix(originalData, validationResult, selectedErrorIds, highlightChanges, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Stream the corrected Vendor Matrix straight to the given output.
+     * Rows go through an SXSSF window of {@value #ROW_ACCESS_WINDOW} rows, so memory stays flat
+     * however large the sheet is. The output stream is not closed.
+     */
+    public void writeCorrectedVendorMatrix(VendorMatrixData originalData,
+                                           ValidationResult validationResult,
+                                           List<String> selectedErrorIds,
+                                           boolean highlightChanges,
+                                           OutputStream outputStream) throws IOException {
         
         log.info("Generating corrected Vendor Matrix for {} selected errors", selectedErrorIds.size());
         
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Corrected Vendor Matrix");
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Corrected Vendor Matrix");
+            ColumnWidthEstimator widths = new ColumnWidthEstimator();
+            if (exactAutoSize) {
+                // Font layout has to see rows before they leave the window
+                sheet.trackAllColumnsForAutoSizing();
+            }
             
             // Create styles for highlighting
             CellStyle highlightStyle = createHighlightStyle(workbook);
@@ -47,103 +92,66 @@ public class ExcelExportService {
             CellStyle headerStyle = createHeaderStyle(workbook);
             
             // Get selected errors
-            Set<String> selectedErrorSet = Set.copyOf(selectedErrorIds);
-            List<ValidationError> selectedErrors = validationResult.getErrors().stream()
-                    .filter(error -> selectedErrorSet.contains(error.getErrorId()))
-                    .collect(Collectors.toList());
+            List<ValidationError> selectedErrors = selectErrors(validationResult, selectedErrorIds);
             
             // Create corrected data
             VendorMatrixData correctedData = applyCorrections(originalData, selectedErrors);
             
             // Generate Excel content
-            createHeaderRow(sheet, headerStyle);
-            createDataRow(sheet, correctedData, selectedErrors, highlightStyle, normalStyle, highlightChanges);
+            createHeaderRow(sheet, headerStyle, widths);
+            createDataRow(sheet, correctedData, selectedErrors, highlightStyle, normalStyle, highlightChanges, widths);
             
-            // Auto-size columns
-            autoSizeColumns(sheet);
+            // Size columns from the recorded text unless exact font layout was asked for
+            if (exactAutoSize) {
+                autoSizeColumns(sheet);
+            } else {
+                widths.applyTo(sheet);
+            }
             
             // Note: Removed change summary sheet as per user request
             
-            // Convert to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            return outputStream.toByteArray();
+            outputStream.flush();
+        } finally {
+            // Remove the temporary files SXSSF spilled rows into
+            workbook.dispose();
+            workbook.close();
         }
     }
 
-    private VendorMatrixData applyCorrections(VendorMatrixData originalData, List<ValidationError> selectedErrors) {
-        // Create a deep copy of all original data
-        Map<String, String> correctedAllColumns = new HashMap<>();
-        if (originalData.getAllColumns() != null) {
-            correctedAllColumns.putAll(originalData.getAllColumns());
-        }
+    /**
+     * Patch the selected corrections into the original upload, keeping its layout, styles and other sheets.
+     * Fails before anything is written when the upload cannot be patched (e.g. an .xls file).
+     */
+    public XlsxCellPatcher.PatchedWorkbook patchCorrectedVendorMatrix(byte[] originalUpload,
+                                                                      VendorMatrixData originalData,
+                                                                      ValidationResult validationResult,
+                                                                      List<String> selectedErrorIds) throws IOException {
+        List<ValidationError> selectedErrors = selectErrors(validationResult, selectedErrorIds);
         
-        Map<String, String> correctedBenefitData = new HashMap<>();
-        if (originalData.getBenefitData() != null) {
-            correctedBenefitData.putAll(originalData.getBenefitData());
+        // Last correction for a column wins, as in applyCorrections
+        Map<String, String> correctedColumns = new LinkedHashMap<>();
+        for (ValidationError error : selectedErrors) {
+            correctedColumns.put(correctedColumnName(error.getBenefitCategory()), error.getExpectedValue());
         }
         
-        VendorMatrixData.VendorMatrixDataBuilder builder = VendorMatrixData.builder()
-                .productName(originalData.getProductName())
-                .productId(originalData.getProductId())
-                .basePlan(originalData.getBasePlan())
-                .benefitSet(originalData.getBenefitSet())
-                .contractId(originalData.getContractId())
-                .pbpNumber(originalData.getPbpNumber())
-                .segmentId(originalData.getSegmentId())
-                .planYear(originalData.getPlanYear())
-                .effectiveDate(originalData.getEffectiveDate())
-                .company(originalData.getCompany())
-                .licensure(originalData.getLicensure())
-                .sourceFileName(originalData.getSourceFileName() + "_corrected")
-                .uploadedAt(originalData.getUploadedAt())
-                
-                // Copy all the benefit fields from original data
-                .inpatientAdmission(originalData.getInpatientAdmission())
-                .skilledNursingDays(originalData.getSkilledNursingDays())
-                .cardiacTherapy(originalData.getCardiacTherapy())
-                .intensiveCardiacTherapy(originalData.getIntensiveCardiacTherapy())
-                .superviseExerciseTherapy(originalData.getSuperviseExerciseTherapy())
-                .pulmonaryRehab(originalData.getPulmonaryRehab())
-                .emergencyServices(originalData.getEmergencyServices())
-                .urgentCare(originalData.getUrgentCare())
-                .homeHealthVisits(originalData.getHomeHealthVisits())
-                .pcpVisits(originalData.getPcpVisits())
-                .chiropracticServices(originalData.getChiropracticServices())
-                .occupationalTherapy(originalData.getOccupationalTherapy())
-                .specialistVisits(originalData.getSpecialistVisits())
-                .podiatryMedicare(originalData.getPodiatryMedicare())
-                .podiatrySupplemental(originalData.getPodiatrySupplemental())
-                .physicalTherapy(originalData.getPhysicalTherapy())
-                .speechTherapy(originalData.getSpeechTherapy())
-                .telehealth(originalData.getTelehealth())
-                .diagnosticTesting(originalData.getDiagnosticTesting())
-                .labServices(originalData.getLabServices())
-                .therapeuticRadiology(originalData.getTherapeuticRadiology())
-                .diagnosticRadiology(originalData.getDiagnosticRadiology())
-                .outpatientHospital(originalData.getOutpatientHospital())
-                .observationRoom(originalData.getObservationRoom())
-                .ambulatorySurgery(originalData.getAmbulatorySurgery())
-                .outpatientBlood(originalData.getOutpatientBlood())
-                .ambulanceEmergent(originalData.getAmbulanceEmergent())
-                .ambulanceAir(originalData.getAmbulanceAir())
-                .transportation(originalData.getTransportation())
-                .dme(originalData.getDme())
-                .prosthetics(originalData.getProsthetics())
-                .diabeticSupplies(originalData.getDiabeticSupplies())
-                .shoeInserts(originalData.getShoeInserts())
-                .dialysisTreatment(originalData.getDialysisTreatment())
-                .acupuncture(originalData.getAcupuncture())
-                .otcMedications(originalData.getOtcMedications())
-                .mealsBenefit(originalData.getMealsBenefit())
-                .preventiveCare(originalData.getPreventiveCare())
-                .annualPhysical(originalData.getAnnualPhysical())
-                .moop(originalData.getMoop())
-                .deductible(originalData.getDeductible())
-                
-                // Copy data maps
-                .allColumns(correctedAllColumns)
-                .benefitData(correctedBenefitData);
+        int rowIndex = originalData.getSourceRowIndex() != null ? originalData.getSourceRowIndex() : 1;
+        log.info("Patching {} corrected columns into row {} of {}", correctedColumns.size(), rowIndex + 1,
+                originalData.getSourceFileName());
+        return XlsxCellPatcher.patchRow(originalUpload, rowIndex, correctedColumns);
+    }
+
+    private List<ValidationError> selectErrors(ValidationResult validationResult, List<String> selectedErrorIds) {
+        Set<String> selectedErrorSet = Set.copyOf(selectedErrorIds);
+        return validationResult.getErrors().stream()
+                .filter(error -> selectedErrorSet.contains(error.getErrorId()))
+                .collect(Collectors.toList());
+    }
+
+    private VendorMatrixData applyCorrections(VendorMatrixData originalData, List<ValidationError> selectedErrors) {
+        // Copy-on-write: only the corrected columns are stored, the original row stays untouched
+        VendorMatrixData correctedData = originalData.copyForCorrection();
+        correctedData.setSourceFileName(originalData.getSourceFileName() + "_corrected");
         
         // Apply corrections for each selected error
         for (ValidationError error : selectedErrors) {
@@ -154,40 +162,36 @@ public class ExcelExportService {
             log.info("Applying correction: {} - {} -> {}", benefitCategory, fieldName, correctedValue);
             
             // Update the appropriate field based on benefit category and field name
-            applyFieldCorrection(builder, originalData, benefitCategory, fieldName, correctedValue, 
-                               correctedAllColumns, correctedBenefitData);
+            applyFieldCorrection(correctedData, benefitCategory, correctedValue);
         }
         
-        return builder.build();
+        return correctedData;
     }
 
-    private void applyFieldCorrection(VendorMatrixData.VendorMatrixDataBuilder builder, 
-                                    VendorMatrixData originalData, String benefitCategory, 
-                                    String fieldName, String correctedValue,
-                                    Map<String, String> correctedAllColumns, 
-                                    Map<String, String> correctedBenefitData) {
-        
+    private void applyFieldCorrection(VendorMatrixData correctedData, String benefitCategory, String correctedValue) {
         // Update benefit data map (keeping for compatibility but not used in new validation)
-        correctedBenefitData.put(benefitCategory, correctedValue);
-        builder.benefitData(correctedBenefitData);
+        correctedData.getBenefitData().put(benefitCategory, correctedValue);
         
         // Map benefit names (not PBP categories) to specific vendor matrix column headers
         // benefitCategory now contains the benefit name from SOB
         String vmColumnName = mapBenefitNameToVMColumn(benefitCategory);
         if (vmColumnName != null) {
             // Update the correct column in allColumns
-            correctedAllColumns.put(vmColumnName, correctedValue);
+            correctedData.getAllColumns().put(vmColumnName, correctedValue);
             
-            // Also update specific builder fields for key benefits
-            updateBuilderFields(builder, vmColumnName, correctedValue);
+            // Also update specific fields for key benefits
+            updateBenefitFields(correctedData, vmColumnName, correctedValue);
         } else {
             // Fallback: apply to all columns map directly
-            correctedAllColumns.put(benefitCategory, correctedValue);
+            correctedData.getAllColumns().put(benefitCategory, correctedValue);
             log.info("Applied fallback correction for benefit: {} -> {}", benefitCategory, correctedValue);
         }
-        
-        // Update the allColumns in builder
-        builder.allColumns(correctedAllColumns);
+    }
+    
+    // Column a correction lands in: the mapped VM header, or the benefit name itself
+    private String correctedColumnName(String benefitCategory) {
+        String vmColumnName = mapBenefitNameToVMColumn(benefitCategory);
+        return vmColumnName != null ? vmColumnName : benefitCategory;
     }
     
     private String mapBenefitNameToVMColumn(String benefitName) {
@@ -248,45 +252,45 @@ public class ExcelExportService {
         };
     }
     
-    private void updateBuilderFields(VendorMatrixData.VendorMatrixDataBuilder builder, String vmColumnName, String correctedValue) {
-        // Update specific builder fields based on VM column name
+    private void updateBenefitFields(VendorMatrixData data, String vmColumnName, String correctedValue) {
+        // Update specific fields based on VM column name
         switch (vmColumnName) {
-            case "INN Inpt. Admission/ OON Inpt. Admission" -> builder.inpatientAdmission(correctedValue);
+            case "INN Inpt. Admission/ OON Inpt. Admission" -> data.setInpatientAdmission(correctedValue);
             case "INN Inpt. Mental Health/OON Inpt. Mental Health" -> {} // No specific field
-            case "INN Skilled Nursing Days/OON Skilled Nursing Days" -> builder.skilledNursingDays(correctedValue);
-            case "INN Cardiac Outpt Therapy/OON Cardiac Outpt Therapy" -> builder.cardiacTherapy(correctedValue);
-            case "INN Intensive Cardiac Outpt Therapy/OON Intensiv Cardiac Outpt Therapy" -> builder.intensiveCardiacTherapy(correctedValue);
-            case "INN Pulmonary Rehab/OON Pulmonary RT" -> builder.pulmonaryRehab(correctedValue);
-            case "INN ER/OON ER" -> builder.emergencyServices(correctedValue);
-            case "INN Urgent Care Center in Facility/OON Urgent Care Center in Facility" -> builder.urgentCare(correctedValue);
+            case "INN Skilled Nursing Days/OON Skilled Nursing Days" -> data.setSkilledNursingDays(correctedValue);
+            case "INN Cardiac Outpt Therapy/OON Cardiac Outpt Therapy" -> data.setCardiacTherapy(correctedValue);
+            case "INN Intensive Cardiac Outpt Therapy/OON Intensiv Cardiac Outpt Therapy" -> data.setIntensiveCardiacTherapy(correctedValue);
+            case "INN Pulmonary Rehab/OON Pulmonary RT" -> data.setPulmonaryRehab(correctedValue);
+            case "INN ER/OON ER" -> data.setEmergencyServices(correctedValue);
+            case "INN Urgent Care Center in Facility/OON Urgent Care Center in Facility" -> data.setUrgentCare(correctedValue);
             case "INN Partial Hospitalization/ONN Partial Hospitalization" -> {} // No specific field
-            case "INN Home Care Visits/OON Home Care Visits" -> builder.homeHealthVisits(correctedValue);
-            case "INN PCP/OON PCP" -> builder.pcpVisits(correctedValue);
-            case "INN Chiropractic/OON Chiropractic" -> builder.chiropracticServices(correctedValue);
-            case "Rehabilitation/Habilitation Services INN Outpt. OT/OON Outpt. OT" -> builder.occupationalTherapy(correctedValue);
-            case "INN Specialist/OON Specialist" -> builder.specialistVisits(correctedValue);
+            case "INN Home Care Visits/OON Home Care Visits" -> data.setHomeHealthVisits(correctedValue);
+            case "INN PCP/OON PCP" -> data.setPcpVisits(correctedValue);
+            case "INN Chiropractic/OON Chiropractic" -> data.setChiropracticServices(correctedValue);
+            case "Rehabilitation/Habilitation Services INN Outpt. OT/OON Outpt. OT" -> data.setOccupationalTherapy(correctedValue);
+            case "INN Specialist/OON Specialist" -> data.setSpecialistVisits(correctedValue);
             case "INN Podiatry Medicare Covered/ OONPodiatry Medicare Covered" -> {} // No specific field
-            case "INN Acupuncture/OON Acupuncture" -> builder.acupuncture(correctedValue);
-            case "INN Lab Services Medicare Covered/ONNLab Services Medicare Covered" -> builder.labServices(correctedValue);
-            case "INN Therapeutic Radiology Services/OON Therapeutic Radiology Services" -> builder.therapeuticRadiology(correctedValue);
-            case "INN Outpatient Diagnostic Radiology Medicare Covered/OON Outpatient Diagnostic Radiology Medicare Covered" -> builder.diagnosticRadiology(correctedValue);
-            case "INN Outpatient Hospital Services/OON Outpatient Hospital Services Outpatient" -> builder.outpatientHospital(correctedValue);
-            case "INN Observation room/OON Observation room" -> builder.observationRoom(correctedValue);
-            case "INN Amb. Surgery Center/OON Amb. Surgery Center" -> builder.ambulatorySurgery(correctedValue);
-            case "INN Ambulance Emergent/OON Ambulance Emergent" -> builder.ambulanceEmergent(correctedValue);
-            case "INN Ambulance Air/OON Ambulance Air" -> builder.ambulanceAir(correctedValue);
-            case "INN DME/OON DME" -> builder.dme(correctedValue);
-            case "INN External Prosthetic Devices/OON External Prosthetic Devices" -> builder.prosthetics(correctedValue);
-            case "INN Dialysis Treatment/OON Dialysis Treatment" -> builder.dialysisTreatment(correctedValue);
-            case "INN Preventive Care/OON Preventive Care" -> builder.preventiveCare(correctedValue);
+            case "INN Acupuncture/OON Acupuncture" -> data.setAcupuncture(correctedValue);
+            case "INN Lab Services Medicare Covered/ONNLab Services Medicare Covered" -> data.setLabServices(correctedValue);
+            case "INN Therapeutic Radiology Services/OON Therapeutic Radiology Services" -> data.setTherapeuticRadiology(correctedValue);
+            case "INN Outpatient Diagnostic Radiology Medicare Covered/OON Outpatient Diagnostic Radiology Medicare Covered" -> data.setDiagnosticRadiology(correctedValue);
+            case "INN Outpatient Hospital Services/OON Outpatient Hospital Services Outpatient" -> data.setOutpatientHospital(correctedValue);
+            case "INN Observation room/OON Observation room" -> data.setObservationRoom(correctedValue);
+            case "INN Amb. Surgery Center/OON Amb. Surgery Center" -> data.setAmbulatorySurgery(correctedValue);
+            case "INN Ambulance Emergent/OON Ambulance Emergent" -> data.setAmbulanceEmergent(correctedValue);
+            case "INN Ambulance Air/OON Ambulance Air" -> data.setAmbulanceAir(correctedValue);
+            case "INN DME/OON DME" -> data.setDme(correctedValue);
+            case "INN External Prosthetic Devices/OON External Prosthetic Devices" -> data.setProsthetics(correctedValue);
+            case "INN Dialysis Treatment/OON Dialysis Treatment" -> data.setDialysisTreatment(correctedValue);
+            case "INN Preventive Care/OON Preventive Care" -> data.setPreventiveCare(correctedValue);
             case "INN Supplemental Annual Physical Exam/OON Supplemental Annual Physical Exam" -> {} // No specific field 
-            case "Ind MOOP" -> builder.moop(correctedValue);
-            case "INN Deductible Ind/OON Deductible Ind" -> builder.deductible(correctedValue);
+            case "Ind MOOP" -> data.setMoop(correctedValue);
+            case "INN Deductible Ind/OON Deductible Ind" -> data.setDeductible(correctedValue);
             default -> {} // No specific field mapping
         }
     }
 
-    private void createHeaderRow(Sheet sheet, CellStyle headerStyle) {
+    private void createHeaderRow(Sheet sheet, CellStyle headerStyle, ColumnWidthEstimator widths) {
         Row headerRow = sheet.createRow(0);
         
         String[] headers = {
@@ -324,11 +328,13 @@ public class ExcelExportService {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(headerStyle);
+            widths.record(i, headers[i], true);
         }
     }
 
     private void createDataRow(Sheet sheet, VendorMatrixData data, List<ValidationError> correctedErrors,
-                             CellStyle highlightStyle, CellStyle normalStyle, boolean highlightChanges) {
+                             CellStyle highlightStyle, CellStyle normalStyle, boolean highlightChanges,
+                             ColumnWidthEstimator widths) {
         Row dataRow = sheet.createRow(1);
         
         // Create a set of corrected field names for highlighting
@@ -359,6 +365,7 @@ public class ExcelExportService {
             Cell cell = dataRow.createCell(i);
             if (values[i] != null) {
                 cell.setCellValue(values[i].toString());
+                widths.record(i, values[i].toString());
             }
             
             // Apply highlighting if this field was corrected
@@ -394,6 +401,8 @@ public class ExcelExportService {
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle normalStyle = createNormalStyle(workbook);
         
+        ColumnWidthEstimator widths = new ColumnWidthEstimator();
+        
         // Create header
         Row headerRow = summarySheet.createRow(0);
         String[] headers = {"Benefit Category", "Field Name", "Original Value", "Corrected Value", "Description"};
@@ -401,6 +410,7 @@ public class ExcelExportService {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(headerStyle);
+            widths.record(i, headers[i], true);
         }
         
         // Add change details
@@ -418,14 +428,12 @@ public class ExcelExportService {
             for (int j = 0; j < 5; j++) {
                 if (row.getCell(j) != null) {
                     row.getCell(j).setCellStyle(normalStyle);
+                    widths.record(j, row.getCell(j).getStringCellValue());
                 }
             }
         }
         
-        // Auto-size columns
-        for (int i = 0; i < headers.length; i++) {
-            summarySheet.autoSizeColumn(i);
-        }
+        widths.applyTo(summarySheet);
     }
 
     private void autoSizeColumns(Sheet sheet) {
@@ -435,8 +443,8 @@ public class ExcelExportService {
                 
                 // Set maximum column width to prevent extremely wide columns
                 int columnWidth = sheet.getColumnWidth(i);
-                if (columnWidth > 15000) { // 15000 units ≈ reasonable width
-                    sheet.setColumnWidth(i, 15000);
+                if (columnWidth > ColumnWidthEstimator.MAX_COLUMN_WIDTH) {
+                    sheet.setColumnWidth(i, ColumnWidthEstimator.MAX_COLUMN_WIDTH);
                 }
             }
         }
@@ -31,6 +31,24 @@ public interface SOBTypeProcessor {
      */
     BenefitMapping findBestColumnMatch(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData);
     
+    /**
+     * Score of every VBM column a SOB benefit could be mapped to, in column order.
+     * Columns below the match threshold are left out.
+     */
+    default Map<String, Double> scoreColumns(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData) {
+        BenefitMapping best = findBestColumnMatch(sobBenefit, vendorMatrixData);
+        return best != null ? Map.of(best.getVbmColumn(), best.getConfidence()) : Map.of();
+    }
+    
+    /**
+     * Mapping of a SOB benefit to the given column, e.g. one chosen by a global assignment
+     */
+    default BenefitMapping createMapping(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData, String vbmColumn, double score) {
+        String vbmValue = vendorMatrixData.getAllColumns().get(vbmColumn);
+        return new BenefitMapping(sobBenefit, vbmColumn, vbmValue, score,
+                extractConditions(vbmValue, sobBenefit), List.of("Assigned column"));
+    }
+    
     /**
      * Extract conditions from VBM value using SOB type-specific rules
      */
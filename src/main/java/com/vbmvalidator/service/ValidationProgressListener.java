@@ -0,0 +1,14 @@
+package com.vbmvalidator.service;
+
+import com.vbmvalidator.model.ValidationStage;
+
+/**
+ * Notified as a validation run moves from stage to stage
+ */
+@FunctionalInterface
+public interface ValidationProgressListener {
+
+    ValidationProgressListener NONE = stage -> {};
+
+    void onStage(ValidationStage stage);
+}
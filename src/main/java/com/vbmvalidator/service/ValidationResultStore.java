@@ -0,0 +1,18 @@
+package com.vbmvalidator.service;
+
+import com.vbmvalidator.model.StoredValidation;
+
+/**
+ * Holds finished validations by validation ID, so HTTP sessions only need to carry the ID
+ */
+public interface ValidationResultStore {
+
+    void put(StoredValidation validation);
+
+    /**
+     * The stored validation, or null if it is unknown or has expired
+     */
+    StoredValidation get(String validationId);
+
+    void remove(String validationId);
+}
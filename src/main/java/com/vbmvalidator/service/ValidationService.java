@@ -14,6 +14,15 @@ public interface ValidationService {
      */
     ValidationResult validateWithSOBType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType);
     
+    /**
+     * Validate specific SOB type, reporting each stage to the listener
+     */
+    default ValidationResult validateWithSOBType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType,
+                                                 ValidationProgressListener progress) {
+        progress.onStage(ValidationStage.VALIDATE);
+        return validateWithSOBType(sobData, vendorMatrixData, sobType);
+    }
+    
     /**
      * Generate corrected Vendor Matrix data based on SOB
      */
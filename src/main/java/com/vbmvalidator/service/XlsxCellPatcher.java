@@ -0,0 +1,497 @@
+package com.vbmvalidator.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rewrites individual cells of an uploaded .xlsx without loading it as a workbook.
+ *
+ * Only the first sheet's XML part is touched: cells in one row, addressed by the header text
+ * in row 1, are replaced with inline strings that keep their original style. Only that part
+ * is inflated and compressed again; every other part of the package (shared strings, styles,
+ * other sheets, drawings...) is copied as its stored compressed data. Within the sheet only the
+ * patched row is decoded, the XML around it is spliced through as bytes. {@link #patchRow} does
+ * all lookups up front, so a workbook that cannot be patched fails before anything has been
+ * written and the caller can still fall back.
+ */
+public final class XlsxCellPatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(XlsxCellPatcher.class);
+
+    private static final String WORKBOOK_PART = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS_PART = "xl/_rels/workbook.xml.rels";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final byte[] ROW_TAG = "row".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Pattern CELL_START = Pattern.compile("<(?:\\w+:)?c\\b[^>]*?\\br=\"([A-Z]+)\\d+\"[^>]*?(/?)>");
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private XlsxCellPatcher() {}
+
+    /**
+     * A workbook with its patched sheet part, ready to be written
+     */
+    public static final class PatchedWorkbook {
+        private final byte[] original;
+        private final String sheetPart;
+        private final SheetPatch sheetPatch;
+        private final int patchedCells;
+
+        private PatchedWorkbook(byte[] original, String sheetPart, SheetPatch sheetPatch, int patchedCells) {
+            this.original = original;
+            this.sheetPart = sheetPart;
+            this.sheetPatch = sheetPatch;
+            this.patchedCells = patchedCells;
+        }
+
+        public int getPatchedCells() {
+            return patchedCells;
+        }
+
+        /**
+         * Copy the package to the output, swapping in the patched sheet; the stream is not closed
+         */
+        public void writeTo(OutputStream outputStream) throws IOException {
+            copyPackage(original, sheetPart, sheetPatch, outputStream);
+        }
+    }
+
+    // Sheet XML with the bytes [start, end) replaced
+    private record SheetPatch(byte[] sheetXml, int start, int end, byte[] replacement) {
+
+        void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(sheetXml, 0, start);
+            outputStream.write(replacement);
+            outputStream.write(sheetXml, end, sheetXml.length - end);
+        }
+    }
+
+    /**
+     * Patch the given cells of one first-sheet row.
+     *
+     * @param workbook       original .xlsx bytes
+     * @param rowIndex       0-based row to patch
+     * @param valuesByHeader new cell text keyed by the (trimmed) header text of the column
+     */
+    public static PatchedWorkbook patchRow(byte[] workbook, int rowIndex, Map<String, String> valuesByHeader) throws IOException {
+        try (ZipFile zipFile = openPackage(workbook)) {
+            // Locate the first sheet and the shared string table
+            byte[] workbookXml = readPart(zipFile, WORKBOOK_PART);
+            byte[] workbookRelsXml = readPart(zipFile, WORKBOOK_RELS_PART);
+            if (workbookXml == null || workbookRelsXml == null) {
+                throw new IOException("Not an Excel workbook (missing " + WORKBOOK_PART + ")");
+            }
+            Map<String, String[]> relationships = readRelationships(workbookRelsXml);
+            String[] sheetRelationship = relationships.get(readFirstSheetRelationshipId(workbookXml));
+            if (sheetRelationship == null) {
+                throw new IOException("First worksheet not found in workbook relationships");
+            }
+            String sheetPart = resolveTarget(sheetRelationship[0]);
+            String sharedStringsPart = relationships.values().stream()
+                    .filter(relationship -> relationship[1].endsWith("/sharedStrings"))
+                    .map(relationship -> resolveTarget(relationship[0]))
+                    .findFirst()
+                    .orElse(null);
+
+            byte[] sheetXml = readPart(zipFile, sheetPart);
+            if (sheetXml == null) {
+                throw new IOException("Worksheet part " + sheetPart + " not found");
+            }
+
+            // Map the requested headers to column letters
+            Map<String, String> columnsByHeader = readHeaderColumns(sheetXml, zipFile, sharedStringsPart);
+            Map<String, String> valuesByColumn = new HashMap<>();
+            valuesByHeader.forEach((header, value) -> {
+                String column = columnsByHeader.get(header.trim());
+                if (column == null) {
+                    log.warn("Column '{}' not found in uploaded Vendor Matrix, correction skipped", header);
+                } else if (value != null) {
+                    valuesByColumn.put(column, value);
+                }
+            });
+
+            SheetPatch sheetPatch = patchSheetRow(sheetXml, rowIndex + 1, valuesByColumn);
+            log.info("Patched {} cells of row {} in {}", valuesByColumn.size(), rowIndex + 1, sheetPart);
+            return new PatchedWorkbook(workbook, sheetPart, sheetPatch, valuesByColumn.size());
+        } catch (XMLStreamException e) {
+            throw new IOException("Error processing Vendor Matrix workbook XML: " + e.getMessage(), e);
+        }
+    }
+
+    private static SheetPatch patchSheetRow(byte[] sheetXml, int rowNumber, Map<String, String> valuesByColumn) throws IOException {
+        if (valuesByColumn.isEmpty()) return new SheetPatch(sheetXml, 0, 0, new byte[0]);
+
+        // Find the row's start tag on the raw bytes; markup is ASCII, so only the row itself is decoded
+        Pattern rowNumberAttribute = Pattern.compile("\\br=\"" + rowNumber + "\"");
+        int tagStart = -1;
+        int tagEnd = -1;
+        String prefix = null;
+        for (int i = indexOf(sheetXml, (byte) '<', 0); i >= 0; i = indexOf(sheetXml, (byte) '<', i + 1)) {
+            int nameStart = i + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < sheetXml.length && isNameByte(sheetXml[nameEnd])) nameEnd++;
+            String tagPrefix = "";
+            if (nameEnd < sheetXml.length && sheetXml[nameEnd] == ':') {
+                tagPrefix = new String(sheetXml, nameStart, nameEnd + 1 - nameStart, StandardCharsets.US_ASCII);
+                nameStart = nameEnd + 1;
+                nameEnd = nameStart;
+                while (nameEnd < sheetXml.length && isNameByte(sheetXml[nameEnd])) nameEnd++;
+            }
+            if (!regionEquals(sheetXml, nameStart, nameEnd, ROW_TAG)) continue;
+
+            int end = indexOf(sheetXml, (byte) '>', nameEnd);
+            if (end < 0) break;
+            if (rowNumberAttribute.matcher(new String(sheetXml, nameEnd, end - nameEnd, StandardCharsets.US_ASCII)).find()) {
+                tagStart = i;
+                tagEnd = end + 1;
+                prefix = tagPrefix;
+                break;
+            }
+            i = end;
+        }
+        if (tagStart < 0) {
+            throw new IOException("Row " + rowNumber + " not found in worksheet");
+        }
+        boolean emptyRow = sheetXml[tagEnd - 2] == '/';
+
+        int contentStart = tagEnd;
+        int contentEnd = emptyRow ? contentStart
+                : indexOf(sheetXml, ("</" + prefix + "row>").getBytes(StandardCharsets.US_ASCII), contentStart);
+        if (contentEnd < 0) {
+            throw new IOException("Row " + rowNumber + " is not closed in worksheet");
+        }
+
+        // Pending columns in sheet order; each is written in place of, or before, the next existing cell
+        TreeMap<Integer, String> pending = new TreeMap<>();
+        valuesByColumn.keySet().forEach(column -> pending.put(columnNumber(column), column));
+
+        StringBuilder row = new StringBuilder(contentEnd - contentStart + 256);
+        String content = new String(sheetXml, contentStart, contentEnd - contentStart, StandardCharsets.UTF_8);
+        Matcher cellMatcher = CELL_START.matcher(content);
+        int copied = 0;
+        while (cellMatcher.find()) {
+            int cellStart = cellMatcher.start();
+            int cellEnd = cellMatcher.group(2).isEmpty()
+                    ? content.indexOf("</" + prefix + "c>", cellMatcher.end()) + prefix.length() + 4
+                    : cellMatcher.end();
+            String column = cellMatcher.group(1);
+            int number = columnNumber(column);
+
+            row.append(content, copied, cellStart);
+            while (!pending.isEmpty() && pending.firstKey() < number) {
+                String missing = pending.pollFirstEntry().getValue();
+                row.append(inlineStringCell(prefix, missing + rowNumber, null, valuesByColumn.get(missing)));
+            }
+
+            String cell = content.substring(cellStart, cellEnd);
+            if (pending.containsKey(number) && cell.contains("<" + prefix + "f")) {
+                // Leave formulas alone; replacing one would also require editing the calc chain
+                log.warn("Cell {}{} holds a formula, correction skipped", column, rowNumber);
+                pending.remove(number);
+                valuesByColumn.remove(column);
+                row.append(cell);
+            } else if (pending.remove(number) != null) {
+                row.append(inlineStringCell(prefix, column + rowNumber, styleOf(cellMatcher.group()), valuesByColumn.get(column)));
+            } else {
+                row.append(cell);
+            }
+            copied = cellEnd;
+            cellMatcher.region(cellEnd, content.length());
+        }
+        row.append(content, copied, content.length());
+        String finalPrefix = prefix;
+        pending.values().forEach(column ->
+                row.append(inlineStringCell(finalPrefix, column + rowNumber, null, valuesByColumn.get(column))));
+
+        if (emptyRow) {
+            // <row .../> becomes <row ...>cells</row>
+            String startTag = new String(sheetXml, tagStart, tagEnd - 2 - tagStart, StandardCharsets.UTF_8);
+            String patchedRow = startTag + ">" + row + "</" + prefix + "row>";
+            return new SheetPatch(sheetXml, tagStart, tagEnd, patchedRow.getBytes(StandardCharsets.UTF_8));
+        }
+        return new SheetPatch(sheetXml, contentStart, contentEnd, row.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isNameByte(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_';
+    }
+
+    private static boolean regionEquals(byte[] data, int start, int end, byte[] expected) {
+        return end - start == expected.length && Arrays.equals(data, start, end, expected, 0, expected.length);
+    }
+
+    private static int indexOf(byte[] data, byte value, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        for (int i = indexOf(data, pattern[0], from); i >= 0 && i + pattern.length <= data.length; i = indexOf(data, pattern[0], i + 1)) {
+            if (Arrays.equals(data, i, i + pattern.length, pattern, 0, pattern.length)) return i;
+        }
+        return -1;
+    }
+
+    private static String inlineStringCell(String prefix, String reference, String style, String value) {
+        StringBuilder cell = new StringBuilder(64 + value.length());
+        cell.append('<').append(prefix).append("c r=\"").append(reference).append('"');
+        if (style != null) {
+            cell.append(" s=\"").append(style).append('"');
+        }
+        cell.append(" t=\"inlineStr\"><").append(prefix).append("is><").append(prefix).append("t xml:space=\"preserve\">");
+        escapeXml(value, cell);
+        cell.append("</").append(prefix).append("t></").append(prefix).append("is></").append(prefix).append("c>");
+        return cell.toString();
+    }
+
+    private static String styleOf(String cellStartTag) {
+        Matcher matcher = Pattern.compile("\\bs=\"(\\d+)\"").matcher(cellStartTag);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static void escapeXml(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                default -> {
+                    // Drop control characters XML 1.0 cannot carry
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') out.append(c);
+                }
+            }
+        }
+    }
+
+    // "A" -> 1, "Z" -> 26, "AA" -> 27
+    private static int columnNumber(String column) {
+        int number = 0;
+        for (int i = 0; i < column.length(); i++) {
+            number = number * 26 + (column.charAt(i) - 'A' + 1);
+        }
+        return number;
+    }
+
+    /**
+     * Header text of row 1 keyed to column letters; the first occurrence of a header wins
+     */
+    private static Map<String, String> readHeaderColumns(byte[] sheetXml, ZipFile zipFile, String sharedStringsPart)
+            throws XMLStreamException, IOException {
+        Map<String, String> rawByColumn = new HashMap<>();
+        Map<String, Integer> sharedIndexByColumn = new HashMap<>();
+
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(sheetXml));
+        try {
+            boolean inHeaderRow = false;
+            String column = null;
+            String type = null;
+            StringBuilder text = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("row")) {
+                        inHeaderRow = "1".equals(reader.getAttributeValue(null, "r"));
+                    } else if (inHeaderRow && name.equals("c")) {
+                        String reference = reader.getAttributeValue(null, "r");
+                        column = reference != null ? reference.replaceAll("\\d", "") : null;
+                        type = reader.getAttributeValue(null, "t");
+                        text = new StringBuilder();
+                    } else if (inHeaderRow && text != null && (name.equals("v") || name.equals("t"))) {
+                        text.append(reader.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (inHeaderRow && name.equals("c") && column != null) {
+                        if ("s".equals(type)) {
+                            sharedIndexByColumn.put(column, sharedStringIndex(column, text.toString()));
+                        } else {
+                            rawByColumn.put(column, text.toString());
+                        }
+                        column = null;
+                        text = null;
+                    } else if (inHeaderRow && name.equals("row")) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        ZipArchiveEntry sharedStringsEntry = sharedStringsPart != null ? zipFile.getEntry(sharedStringsPart) : null;
+        if (!sharedIndexByColumn.isEmpty() && sharedStringsEntry != null) {
+            Map<Integer, String> sharedStrings;
+            try (InputStream sharedStringsXml = zipFile.getInputStream(sharedStringsEntry)) {
+                sharedStrings = readSharedStrings(sharedStringsXml, Set.copyOf(sharedIndexByColumn.values()));
+            }
+            sharedIndexByColumn.forEach((column, index) -> rawByColumn.put(column, sharedStrings.get(index)));
+        }
+
+        Map<String, String> columnsByHeader = new HashMap<>();
+        rawByColumn.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparingInt(XlsxCellPatcher::columnNumber)))
+                .filter(entry -> entry.getValue() != null)
+                .forEach(entry -> columnsByHeader.putIfAbsent(entry.getValue().trim(), entry.getKey()));
+        return columnsByHeader;
+    }
+
+    private static int sharedStringIndex(String column, String value) throws IOException {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid shared string index '" + value + "' in header cell " + column + "1", e);
+        }
+    }
+
+    // Plain text of the requested <si> entries; rich-text runs are concatenated, phonetic runs ignored.
+    // The table is streamed and reading stops after the last wanted entry.
+    private static Map<Integer, String> readSharedStrings(InputStream sharedStringsXml, Set<Integer> wanted) throws XMLStreamException {
+        Map<Integer, String> strings = new HashMap<>();
+        int maxWanted = wanted.stream().mapToInt(Integer::intValue).max().orElse(-1);
+
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(sharedStringsXml);
+        try {
+            int index = -1;
+            int phoneticDepth = 0;
+            StringBuilder text = null;
+            while (reader.hasNext() && index <= maxWanted) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("si")) {
+                        index++;
+                        text = wanted.contains(index) ? new StringBuilder() : null;
+                    } else if (name.equals("rPh")) {
+                        phoneticDepth++;
+                    } else if (name.equals("t") && text != null && phoneticDepth == 0) {
+                        text.append(reader.getElementText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("rPh")) {
+                        phoneticDepth--;
+                    } else if (name.equals("si") && text != null) {
+                        strings.put(index, text.toString());
+                        text = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return strings;
+    }
+
+    private static String readFirstSheetRelationshipId(byte[] workbookXml) throws XMLStreamException, IOException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(workbookXml));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("sheet")) {
+                    return reader.getAttributeValue(RELATIONSHIPS_NS, "id");
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        throw new IOException("Workbook has no worksheets");
+    }
+
+    // Relationship Id -> {Target, Type}
+    private static Map<String, String[]> readRelationships(byte[] relsXml) throws XMLStreamException {
+        Map<String, String[]> relationships = new HashMap<>();
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(relsXml));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("Relationship")) {
+                    relationships.put(reader.getAttributeValue(null, "Id"), new String[]{
+                            reader.getAttributeValue(null, "Target"),
+                            String.valueOf(reader.getAttributeValue(null, "Type"))});
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return relationships;
+    }
+
+    // Workbook relationship targets are relative to xl/ unless absolute
+    private static String resolveTarget(String target) {
+        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+    }
+
+    // Random access through the central directory: parts are found without inflating the ones before them
+    private static ZipFile openPackage(byte[] workbook) throws IOException {
+        return new ZipFile(new SeekableInMemoryByteChannel(workbook));
+    }
+
+    private static byte[] readPart(ZipFile zipFile, String name) throws IOException {
+        ZipArchiveEntry entry = zipFile.getEntry(name);
+        if (entry == null) return null;
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static void copyPackage(byte[] workbook, String replacedPart, SheetPatch replacement,
+                                    OutputStream outputStream) throws IOException {
+        ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(outputStream);
+        try (ZipFile zipFile = openPackage(workbook)) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                if (entry.getName().equals(replacedPart)) {
+                    ZipArchiveEntry patched = new ZipArchiveEntry(entry.getName());
+                    patched.setMethod(ZipEntry.DEFLATED);
+                    zipOut.putArchiveEntry(patched);
+                    replacement.writeTo(zipOut);
+                    zipOut.closeArchiveEntry();
+                } else {
+                    // Stored compressed data, sizes and CRC are copied as they are
+                    try (InputStream rawData = zipFile.getRawInputStream(entry)) {
+                        zipOut.addRawArchiveEntry(entry, rawData);
+                    }
+                }
+            }
+        }
+        // Finish the archive without closing the caller's stream
+        zipOut.finish();
+        outputStream.flush();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
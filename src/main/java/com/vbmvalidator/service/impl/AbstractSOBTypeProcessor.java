@@ -0,0 +1,405 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vbmvalidator.model.ColumnTokenIndex;
+import com.vbmvalidator.model.SOBBenefit;
+import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.model.VendorMatrixData;
+import com.vbmvalidator.service.BenefitMappingService.BenefitConditions;
+import com.vbmvalidator.service.BenefitMappingService.BenefitMapping;
+import com.vbmvalidator.service.SOBTypeProcessor;
+import com.vbmvalidator.service.impl.KeywordConceptScanner.Concept;
+
+/**
+ * Table-driven SOB type processor. Subclasses supply only {@link SOBTypeRules}; the regexes,
+ * lowercased patterns, split pattern words, synonym tables and keyword masks are compiled
+ * once in the constructor, so matching and condition extraction allocate no lookup tables.
+ */
+public abstract class AbstractSOBTypeProcessor implements SOBTypeProcessor {
+
+    private static final Pattern NUMERIC_AMOUNT_PATTERN = Pattern.compile("\\$?([0-9,]+(?:\\.[0-9]{2})?)");
+    private static final Pattern SENTENCE_SEPARATOR = Pattern.compile("[.;]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final SOBTypeRules rules;
+    private final String logPrefix;
+    private final String issueCodePrefix;
+    private final String issueDescriptionPrefix;
+    private final Map<String, List<String>> benefitPatterns;      // lowercased
+    private final Map<String, List<String>> columnPatterns;       // lowercased
+    private final Map<String, List<String[]>> columnPatternWords; // lowercased, split on whitespace
+    private final Map<String, String[]> medicalTerms;             // lowercased
+    private final Pattern costPattern;
+    private final Pattern percentagePattern;
+    private final Pattern limitPattern;
+    private final long priorAuthMask;
+    private final long limitMask;
+
+    protected AbstractSOBTypeProcessor(SOBTypeRules rules) {
+        this.rules = rules;
+        String prefix = rules.getLabelPrefix();
+        this.logPrefix = prefix.isEmpty() ? "" : prefix + ": ";
+        this.issueCodePrefix = prefix.isEmpty() ? "" : prefix + "_";
+        this.issueDescriptionPrefix = prefix.isEmpty() ? "" : prefix + " ";
+        this.benefitPatterns = lowerCase(rules.getBenefitNamePatterns());
+        this.columnPatterns = lowerCase(rules.getVbmColumnPatterns());
+        Map<String, List<String[]>> words = new LinkedHashMap<>();
+        columnPatterns.forEach((category, patterns) ->
+                words.put(category, patterns.stream().map(WHITESPACE::split).toList()));
+        this.columnPatternWords = Collections.unmodifiableMap(words);
+        Map<String, String[]> terms = new LinkedHashMap<>();
+        lowerCase(rules.getMedicalTerms()).forEach((term, synonyms) -> terms.put(term.toLowerCase(), synonyms.toArray(new String[0])));
+        this.medicalTerms = Collections.unmodifiableMap(terms);
+        this.costPattern = Pattern.compile(rules.getCostRegex(), Pattern.CASE_INSENSITIVE);
+        this.percentagePattern = Pattern.compile(rules.getPercentageRegex(), Pattern.CASE_INSENSITIVE);
+        this.limitPattern = Pattern.compile(rules.getLimitRegex(), Pattern.CASE_INSENSITIVE);
+        this.priorAuthMask = KeywordConceptScanner.mask(rules.getPriorAuthConcepts().toArray(new Concept[0]));
+        this.limitMask = KeywordConceptScanner.mask(rules.getLimitConcepts().toArray(new Concept[0]));
+    }
+
+    // Values lowercased, keys (categories) kept as they are
+    private static Map<String, List<String>> lowerCase(Map<String, List<String>> patterns) {
+        Map<String, List<String>> lower = new LinkedHashMap<>();
+        patterns.forEach((key, values) -> lower.put(key, values.stream().map(String::toLowerCase).toList()));
+        return Collections.unmodifiableMap(lower);
+    }
+
+    public SOBTypeRules getRules() {
+        return rules;
+    }
+
+    @Override
+    public SOBType getSupportedSOBType() {
+        return rules.getSobType();
+    }
+
+    @Override
+    public Map<String, List<String>> getBenefitNamePatterns() {
+        return rules.getBenefitNamePatterns();
+    }
+
+    @Override
+    public Map<String, List<String>> getVBMColumnPatterns() {
+        return rules.getVbmColumnPatterns();
+    }
+
+    @Override
+    public ColumnDetectionResult detectVBMColumns(VendorMatrixData vendorMatrixData) {
+        log.info("Detecting VBM columns for {}", rules.getSobType());
+
+        Map<String, String> detectedColumns = new HashMap<>();
+        Map<String, Double> confidenceScores = new HashMap<>();
+        List<String> unmatched = new ArrayList<>();
+        List<String> ambiguous = new ArrayList<>();
+
+        // Analyze each VBM column to determine its benefit category
+        for (String columnName : vendorMatrixData.getAllColumns().keySet()) {
+            String lowerColumnName = columnName.toLowerCase();
+            String bestCategory = null;
+            double bestScore = 0.0;
+            for (String category : columnPatterns.keySet()) {
+                double score = calculateCategoryMatchScore(lowerColumnName, category);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestCategory = category;
+                }
+            }
+
+            if (bestScore >= rules.getDetectedThreshold()) {
+                detectedColumns.put(bestCategory, columnName);
+                confidenceScores.put(columnName, bestScore);
+                log.debug("{}Mapped column '{}' to category '{}' with confidence {}", logPrefix, columnName, bestCategory, bestScore);
+            } else if (bestScore >= rules.getMinimumScore()) {
+                ambiguous.add(columnName);
+            } else {
+                unmatched.add(columnName);
+            }
+        }
+
+        return new ColumnDetectionResult(detectedColumns, confidenceScores, unmatched, ambiguous);
+    }
+
+    @Override
+    public BenefitMapping findBestColumnMatch(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData) {
+        String benefitName = sobBenefit.getBenefitName();
+        log.debug("{}Finding best column match for SOB benefit: '{}'", logPrefix, benefitName);
+
+        String bestColumn = null;
+        double bestScore = 0.0;
+
+        // Candidates come in column order, so the first of equally scored columns wins
+        for (Map.Entry<String, Double> candidate : scoreColumns(sobBenefit, vendorMatrixData).entrySet()) {
+            if (candidate.getValue() > bestScore) {
+                bestScore = candidate.getValue();
+                bestColumn = candidate.getKey();
+            }
+        }
+
+        if (bestColumn != null) {
+            return createMapping(sobBenefit, vendorMatrixData, bestColumn, bestScore);
+        }
+
+        log.warn("{}No suitable column match found for SOB benefit: '{}'", logPrefix, benefitName);
+        return null;
+    }
+
+    @Override
+    public Map<String, Double> scoreColumns(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData) {
+        ColumnTokenIndex columnIndex = vendorMatrixData.getColumnIndex();
+        String lowerBenefitName = sobBenefit.getBenefitName().toLowerCase();
+        List<String> benefitCategories = matchBenefitCategories(lowerBenefitName);
+
+        // Only columns sharing a word with the benefit name or one of its category / synonym terms can score
+        BitSet candidates = columnIndex.columnsWithAnyToken(lowerBenefitName);
+        for (String category : benefitCategories) {
+            for (String pattern : columnPatterns.getOrDefault(category, List.of())) {
+                candidates.or(columnIndex.columnsWithAllTokens(pattern));
+            }
+        }
+        for (Map.Entry<String, String[]> entry : medicalTerms.entrySet()) {
+            if (lowerBenefitName.contains(entry.getKey())) {
+                for (String synonym : entry.getValue()) {
+                    candidates.or(columnIndex.columnsWithAllTokens(synonym));
+                }
+            }
+        }
+
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            double score = calculateColumnMatchScore(lowerBenefitName, benefitCategories, columnIndex.lowerNameOf(i));
+            if (score >= rules.getMinimumScore()) {
+                scores.put(columnIndex.nameOf(i), score);
+            }
+        }
+        return scores;
+    }
+
+    @Override
+    public BenefitMapping createMapping(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData, String vbmColumn, double score) {
+        String vbmValue = vendorMatrixData.getAllColumns().get(vbmColumn);
+        BenefitConditions conditions = extractConditions(vbmValue, sobBenefit);
+        List<String> matchingReasons = new ArrayList<>(List.of(getMatchingReason(score)));
+
+        return new BenefitMapping(sobBenefit, vbmColumn, vbmValue, score, conditions, matchingReasons);
+    }
+
+    @Override
+    public BenefitConditions extractConditions(String vbmValue, SOBBenefit sobBenefit) {
+        if (vbmValue == null || vbmValue.trim().isEmpty()) {
+            return new BenefitConditions(null, null, null, null, null, null, new HashMap<>());
+        }
+
+        String cleanValue = vbmValue.toLowerCase().trim();
+        long concepts = KeywordConceptScanner.scan(cleanValue);
+
+        String costAmount = extractCostAmount(cleanValue);
+        Boolean priorAuthRequired = KeywordConceptScanner.any(concepts, priorAuthMask);
+        Boolean subjectToDeductible = KeywordConceptScanner.has(concepts, Concept.DEDUCTIBLE_APPLIES);
+        Boolean moopApplicable = switch (rules.getMoopRule()) {
+            case APPLIES_UNLESS_EXCLUDED -> !KeywordConceptScanner.has(concepts, Concept.MOOP_EXCLUSION);
+            case APPLIES_WHEN_INCLUDED -> KeywordConceptScanner.has(concepts, Concept.MOOP_INCLUSION);
+        };
+
+        String paNotes = priorAuthRequired ? extractPANotes(cleanValue) : null;
+        String limitations = KeywordConceptScanner.any(concepts, limitMask) ? findFirst(limitPattern, cleanValue) : null;
+        Map<String, String> additionalFields = extractAdditionalFields(concepts);
+
+        return new BenefitConditions(costAmount, priorAuthRequired, subjectToDeductible,
+                                   moopApplicable, paNotes, limitations, additionalFields);
+    }
+
+    @Override
+    public List<ValidationIssue> validateConditions(BenefitConditions vbmConditions, SOBBenefit sobBenefit) {
+        List<ValidationIssue> issues = new ArrayList<>();
+
+        // Validate Prior Authorization
+        if (sobBenefit.getPaRequired() != null && vbmConditions.getPriorAuthRequired() != null
+                && !sobBenefit.getPaRequired().equals(vbmConditions.getPriorAuthRequired())) {
+            issues.add(issue("PRIOR_AUTH_MISMATCH", "Prior Authorization requirement mismatch",
+                    sobBenefit.getPaRequired().toString(), vbmConditions.getPriorAuthRequired().toString(), "HIGH"));
+        }
+
+        // Validate Deductible
+        if (sobBenefit.getDeductibleApplicable() != null && vbmConditions.getSubjectToDeductible() != null
+                && !sobBenefit.getDeductibleApplicable().equals(vbmConditions.getSubjectToDeductible())) {
+            issues.add(issue("DEDUCTIBLE_MISMATCH", "Deductible applicability mismatch",
+                    sobBenefit.getDeductibleApplicable().toString(), vbmConditions.getSubjectToDeductible().toString(), "HIGH"));
+        }
+
+        // Validate MOOP
+        if (sobBenefit.getMoopApplicable() != null && vbmConditions.getMoopApplicable() != null
+                && !sobBenefit.getMoopApplicable().equals(vbmConditions.getMoopApplicable())) {
+            issues.add(issue("MOOP_MISMATCH", "MOOP applicability mismatch",
+                    sobBenefit.getMoopApplicable().toString(), vbmConditions.getMoopApplicable().toString(), "MEDIUM"));
+        }
+
+        // Validate Cost Sharing
+        if (sobBenefit.getCostSharing() != null && vbmConditions.getCostAmount() != null
+                && !compareCostValues(sobBenefit.getCostSharing(), vbmConditions.getCostAmount())) {
+            issues.add(issue("COST_SHARING_MISMATCH", "Cost sharing values do not match",
+                    sobBenefit.getCostSharing(), vbmConditions.getCostAmount(), "HIGH"));
+        }
+
+        return issues;
+    }
+
+    private ValidationIssue issue(String type, String description, String sobValue, String vbmValue, String severity) {
+        return new ValidationIssue(issueCodePrefix + type, issueDescriptionPrefix + description, sobValue, vbmValue, severity);
+    }
+
+    // Helper methods
+    private List<String> matchBenefitCategories(String lowerBenefitName) {
+        List<String> categories = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : benefitPatterns.entrySet()) {
+            for (String pattern : entry.getValue()) {
+                if (lowerBenefitName.contains(pattern)) {
+                    categories.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return categories;
+    }
+
+    private double calculateColumnMatchScore(String lowerBenefitName, List<String> benefitCategories, String lowerColumnName) {
+        double score = 0.0;
+
+        // Exact substring match
+        if (lowerColumnName.contains(lowerBenefitName) || lowerBenefitName.contains(lowerColumnName)) {
+            score += rules.getExactMatchScore();
+        }
+
+        // Pattern-based matching
+        for (String category : benefitCategories) {
+            List<String> patterns = columnPatterns.get(category);
+            if (patterns != null && patterns.stream().anyMatch(lowerColumnName::contains)) {
+                score += rules.getPatternMatchScore();
+                break;
+            }
+        }
+
+        // Medical terminology scoring
+        for (Map.Entry<String, String[]> entry : medicalTerms.entrySet()) {
+            if (lowerBenefitName.contains(entry.getKey())) {
+                for (String synonym : entry.getValue()) {
+                    if (lowerColumnName.contains(synonym)) {
+                        score += rules.getSynonymScore();
+                        break;
+                    }
+                }
+            }
+        }
+
+        return Math.min(score, 1.0);
+    }
+
+    private double calculateCategoryMatchScore(String lowerColumnName, String category) {
+        for (String pattern : columnPatterns.get(category)) {
+            if (lowerColumnName.contains(pattern)) {
+                return rules.getCategoryMatchScore(); // High confidence for direct pattern match
+            }
+        }
+
+        // Check for partial matches
+        for (String[] patternWords : columnPatternWords.get(category)) {
+            int matchingWords = 0;
+            for (String word : patternWords) {
+                if (lowerColumnName.contains(word)) {
+                    matchingWords++;
+                }
+            }
+            if (matchingWords > 0) {
+                return (double) matchingWords / patternWords.length * rules.getCategoryPartialWeight();
+            }
+        }
+
+        return 0.0;
+    }
+
+    private String getMatchingReason(double score) {
+        List<String> reasons = rules.getMatchReasons();
+        if (score >= rules.getExactMatchScore()) {
+            return reasons.get(0);
+        } else if (score >= rules.getPatternMatchScore()) {
+            return reasons.get(1);
+        } else if (score >= rules.getMinimumScore()) {
+            return reasons.get(2);
+        }
+        return reasons.get(3);
+    }
+
+    private String extractCostAmount(String value) {
+        String cost = findFirst(costPattern, value);
+        return cost != null ? cost : findFirst(percentagePattern, value);
+    }
+
+    private String extractPANotes(String value) {
+        // Extract surrounding context
+        for (String sentence : SENTENCE_SEPARATOR.split(value)) {
+            if (KeywordConceptScanner.any(KeywordConceptScanner.scan(sentence), priorAuthMask)) {
+                return sentence.trim();
+            }
+        }
+        return null;
+    }
+
+    private Map<String, String> extractAdditionalFields(long concepts) {
+        Map<String, String> fields = new HashMap<>();
+
+        // Extract network information
+        if (KeywordConceptScanner.has(concepts, Concept.IN_NETWORK)) {
+            fields.put("network", rules.getInNetworkLabel());
+        } else if (KeywordConceptScanner.has(concepts, Concept.OUT_OF_NETWORK)) {
+            fields.put("network", rules.getOutOfNetworkLabel());
+        }
+
+        if (rules.getFullCoverageLabel() != null
+                && KeywordConceptScanner.has(concepts, Concept.COVERED) && KeywordConceptScanner.has(concepts, Concept.FULL_COVERAGE)) {
+            fields.put("coverage", rules.getFullCoverageLabel());
+        }
+
+        return fields;
+    }
+
+    private boolean compareCostValues(String sobCost, String vbmCost) {
+        // Extract numeric values and compare
+        String sobAmount = extractNumericAmount(sobCost);
+        String vbmAmount = extractNumericAmount(vbmCost);
+
+        if (sobAmount != null && vbmAmount != null) {
+            return sobAmount.equals(vbmAmount);
+        }
+
+        // Fallback to string comparison
+        return sobCost.toLowerCase().trim().equals(vbmCost.toLowerCase().trim());
+    }
+
+    private static String extractNumericAmount(String costString) {
+        if (costString == null) return null;
+
+        Matcher matcher = NUMERIC_AMOUNT_PATTERN.matcher(costString);
+        if (matcher.find()) {
+            return matcher.group(1).replace(",", "");
+        }
+        return null;
+    }
+
+    private static String findFirst(Pattern pattern, String value) {
+        Matcher matcher = pattern.matcher(value);
+        return matcher.find() ? matcher.group(0) : null;
+    }
+}
@@ -0,0 +1,242 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.vbmvalidator.model.BatchValidationItem;
+import com.vbmvalidator.model.SOBData;
+import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.model.VendorMatrixBook;
+import com.vbmvalidator.model.VendorMatrixData;
+import com.vbmvalidator.service.ValidationService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Validates many SOB files against one multi-plan Vendor Matrix.
+ * Each SOB is parsed, matched to its plan row and validated on a fixed-size worker pool;
+ * results are handed to the caller in completion order.
+ */
+@Service
+public class BatchValidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchValidationService.class);
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    /**
+     * Receives batch results as they complete
+     */
+    @FunctionalInterface
+    public interface BatchResultListener {
+        void onResult(BatchValidationItem item) throws IOException;
+    }
+
+    private final DocumentProcessorService documentProcessorService;
+    private final ValidationService validationService;
+    private final ExecutorService workerPool;
+    // Caps on what one batch may unpack into memory, so a zip bomb is rejected instead of inflated
+    private final int maxFiles;
+    private final long maxFileBytes;
+    private final long maxTotalBytes;
+
+    public BatchValidationService(DocumentProcessorService documentProcessorService,
+                                  ValidationService validationService, int workerThreads) {
+        this(documentProcessorService, validationService, workerThreads, 500, 50L * 1024 * 1024, 512L * 1024 * 1024);
+    }
+
+    @Autowired
+    public BatchValidationService(DocumentProcessorService documentProcessorService,
+                                  ValidationService validationService,
+                                  @Value("${vbm.batch.worker-threads:4}") int workerThreads,
+                                  @Value("${vbm.batch.max-files:500}") int maxFiles,
+                                  @Value("${vbm.batch.max-file-bytes:52428800}") long maxFileBytes,
+                                  @Value("${vbm.batch.max-total-bytes:536870912}") long maxTotalBytes) {
+        this.documentProcessorService = documentProcessorService;
+        this.validationService = validationService;
+        this.maxFiles = maxFiles;
+        this.maxFileBytes = maxFileBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "vbm-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Initialized BatchValidationService with {} worker threads", Math.max(1, workerThreads));
+    }
+
+    /**
+     * Copy uploaded SOB files into memory, unpacking any .zip upload into its Excel entries.
+     * The copies stay readable after the multipart request has been cleaned up.
+     *
+     * @throws BatchLimitException if the batch has too many files, or a file or the batch
+     *         inflates past its byte cap
+     */
+    public List<MultipartFile> expandSOBFiles(List<MultipartFile> uploads) throws IOException {
+        List<MultipartFile> sobFiles = new ArrayList<>();
+        long[] totalBytes = {0};
+        for (MultipartFile upload : uploads) {
+            String filename = upload.getOriginalFilename();
+            if (filename != null && filename.toLowerCase().endsWith(".zip")) {
+                unzipSOBFiles(upload, sobFiles, totalBytes);
+            } else if (!upload.isEmpty()) {
+                checkFileCount(sobFiles.size() + 1);
+                checkSize(filename, upload.getSize(), totalBytes[0] + upload.getSize());
+                totalBytes[0] += upload.getSize();
+                sobFiles.add(new InMemoryMultipartFile(upload.getName(), filename,
+                        upload.getContentType(), upload.getBytes()));
+            }
+        }
+        log.info("Batch contains {} SOB files", sobFiles.size());
+        return sobFiles;
+    }
+
+    /**
+     * Validate every SOB against its plan row and report each result as soon as it completes.
+     * Remaining work is cancelled if the listener fails (e.g. the client disconnected).
+     */
+    public void validateBatch(List<MultipartFile> sobFiles, VendorMatrixBook book, SOBType sobType,
+                              BatchResultListener listener) throws IOException {
+        CompletionService<BatchValidationItem> completionService = new ExecutorCompletionService<>(workerPool);
+        List<Future<BatchValidationItem>> futures = new ArrayList<>(sobFiles.size());
+        for (MultipartFile sobFile : sobFiles) {
+            futures.add(completionService.submit(() -> validateSOB(sobFile, book, sobType)));
+        }
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                listener.onResult(completionService.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch validation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error processing batch: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private BatchValidationItem validateSOB(MultipartFile sobFile, VendorMatrixBook book, SOBType sobType) {
+        BatchValidationItem.BatchValidationItemBuilder item = BatchValidationItem.builder()
+                .sobFileName(sobFile.getOriginalFilename());
+        try {
+            SOBData sobData = documentProcessorService.extractSOBData(sobFile);
+            item.productId(sobData.getProductId()).contractNumber(sobData.getContractNumber());
+
+            VendorMatrixData plan = book.findPlan(sobData);
+            if (plan == null) {
+                return item.outcome(BatchValidationItem.Outcome.UNMATCHED)
+                        .message("No Vendor Matrix row for product ID " + sobData.getProductId()
+                                + " or contract " + sobData.getContractNumber())
+                        .build();
+            }
+
+            SOBType finalSOBType = sobType != null ? sobType : sobData.getSobType();
+            ValidationResult result = validationService.validateWithSOBType(sobData, plan, finalSOBType);
+            return item.matchedProductId(plan.getProductId())
+                    .outcome(BatchValidationItem.Outcome.VALIDATED)
+                    .validationResult(result)
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            log.error("Batch validation failed for {}: {}", sobFile.getOriginalFilename(), e.getMessage());
+            return item.outcome(BatchValidationItem.Outcome.FAILED)
+                    .message(e.getMessage())
+                    .build();
+        }
+    }
+
+    private void unzipSOBFiles(MultipartFile zipFile, List<MultipartFile> entries, long[] totalBytes) throws IOException {
+        try (InputStream inputStream = zipFile.getInputStream();
+             ZipInputStream zip = new ZipInputStream(inputStream)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = entry.getName();
+                String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+                // Skip folders, OS metadata and Excel lock files
+                if (entry.isDirectory() || entryName.startsWith("__MACOSX/")
+                        || baseName.startsWith(".") || baseName.startsWith("~$")
+                        || !(baseName.toLowerCase().endsWith(".xlsx") || baseName.toLowerCase().endsWith(".xls"))) {
+                    continue;
+                }
+                checkFileCount(entries.size() + 1);
+                byte[] content = readEntry(zip, baseName, totalBytes[0]);
+                totalBytes[0] += content.length;
+                entries.add(new InMemoryMultipartFile("sobFile", baseName, XLSX_CONTENT_TYPE, content));
+            }
+        } catch (BatchLimitException e) {
+            log.warn("Rejected SOB zip file {}: {}", zipFile.getOriginalFilename(), e.getMessage());
+            throw e;
+        } catch (IOException e) {
+            log.error("Error reading SOB zip file: {}", e.getMessage());
+            throw new IOException("Error processing SOB zip file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inflate one entry, counting the bytes actually produced; the sizes in the zip headers
+     * are written by the uploader and are not trusted
+     */
+    private byte[] readEntry(ZipInputStream zip, String name, long batchBytes) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = zip.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+            checkSize(name, content.size(), batchBytes + content.size());
+        }
+        return content.toByteArray();
+    }
+
+    private void checkFileCount(int count) throws BatchLimitException {
+        if (count > maxFiles) {
+            throw new BatchLimitException("Batch has more than " + maxFiles + " SOB files");
+        }
+    }
+
+    private void checkSize(String name, long fileBytes, long batchBytes) throws BatchLimitException {
+        if (fileBytes > maxFileBytes) {
+            throw new BatchLimitException("SOB file " + name + " is larger than " + maxFileBytes + " bytes");
+        }
+        if (batchBytes > maxTotalBytes) {
+            throw new BatchLimitException("Batch is larger than " + maxTotalBytes + " bytes unpacked");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * A batch upload exceeded the file count or unpacked size limits
+     */
+    public static class BatchLimitException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public BatchLimitException(String message) {
+            super(message);
+        }
+    }
+}
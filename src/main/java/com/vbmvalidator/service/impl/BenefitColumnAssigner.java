@@ -0,0 +1,217 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Maximum-score one-to-one assignment of SOB benefits to VBM columns.
+ *
+ * Input is a sparse score matrix: for each benefit, only the columns it could map to. The
+ * assignment is solved with the Hungarian method in its shortest-augmenting-path form: each
+ * benefit is added with a Dijkstra search over candidate edges only, using node potentials
+ * to keep edge costs non-negative. Every benefit also has a private "unassigned" slot, so a
+ * benefit is left without a column rather than taking one another benefit scores higher on.
+ * Hundreds of benefits and columns take milliseconds.
+ */
+public final class BenefitColumnAssigner {
+
+    private BenefitColumnAssigner() {}
+
+    /**
+     * @param scores per benefit, candidate column -> score in (0, 1]
+     */
+    public static Assignment assign(List<Map<String, Double>> scores) {
+        int rows = scores.size();
+
+        // Columns in first-seen order; the unassigned slot of row r is column (columnCount + r)
+        Map<String, Integer> columnIds = new LinkedHashMap<>();
+        int[][] edgeColumns = new int[rows][];
+        double[][] edgeCosts = new double[rows][];
+        Map<String, Integer> bestClaims = new HashMap<>();
+        for (int r = 0; r < rows; r++) {
+            Map<String, Double> rowScores = scores.get(r);
+            edgeColumns[r] = new int[rowScores.size()];
+            edgeCosts[r] = new double[rowScores.size()];
+            int e = 0;
+            for (Map.Entry<String, Double> candidate : rowScores.entrySet()) {
+                Integer id = columnIds.putIfAbsent(candidate.getKey(), columnIds.size());
+                edgeColumns[r][e] = id != null ? id : columnIds.size() - 1;
+                // Minimising (1 - score) maximises the total score; the slot costs 1
+                edgeCosts[r][e] = 1.0 - candidate.getValue();
+                e++;
+            }
+            String best = bestColumn(rowScores, Set.of());
+            if (best != null) {
+                bestClaims.merge(best, 1, Integer::sum);
+            }
+        }
+        int columnCount = columnIds.size();
+        int contested = (int) bestClaims.values().stream().filter(claims -> claims > 1).count();
+
+        int[] columnOfRow = solve(edgeColumns, edgeCosts, columnCount);
+
+        String[] columnNames = columnIds.keySet().toArray(new String[0]);
+        String[] assigned = new String[rows];
+        double total = 0.0;
+        for (int r = 0; r < rows; r++) {
+            if (columnOfRow[r] < columnCount) {
+                assigned[r] = columnNames[columnOfRow[r]];
+                total += scores.get(r).get(assigned[r]);
+            }
+        }
+        return new Assignment(assigned, total, greedyTotal(scores), contested);
+    }
+
+    /**
+     * Baseline: benefits in order each take their best column that no earlier benefit took
+     */
+    static double greedyTotal(List<Map<String, Double>> scores) {
+        Set<String> taken = new HashSet<>();
+        double total = 0.0;
+        for (Map<String, Double> benefitScores : scores) {
+            String best = bestColumn(benefitScores, taken);
+            if (best != null) {
+                taken.add(best);
+                total += benefitScores.get(best);
+            }
+        }
+        return total;
+    }
+
+    // Highest scoring column not in the excluded set, the first one on ties
+    private static String bestColumn(Map<String, Double> benefitScores, Set<String> excluded) {
+        String best = null;
+        double bestScore = 0.0;
+        for (Map.Entry<String, Double> candidate : benefitScores.entrySet()) {
+            if (candidate.getValue() > bestScore && !excluded.contains(candidate.getKey())) {
+                bestScore = candidate.getValue();
+                best = candidate.getKey();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Minimum-cost perfect assignment of rows to real columns or their own slot.
+     * Returns the column of each row; values at or above columnCount are slots.
+     */
+    private static int[] solve(int[][] edgeColumns, double[][] edgeCosts, int columnCount) {
+        int rows = edgeColumns.length;
+        int columns = columnCount + rows;
+        int[] columnOfRow = new int[rows];
+        int[] rowOfColumn = new int[columns];
+        Arrays.fill(rowOfColumn, -1);
+        // Potentials: reduced cost cost(r, c) + rowPotential[r] - columnPotential[c] stays >= 0
+        double[] rowPotential = new double[rows];
+        double[] columnPotential = new double[columns];
+
+        double[] rowDistance = new double[rows];
+        double[] columnDistance = new double[columns];
+        int[] reachedFrom = new int[columns];
+        boolean[] settled = new boolean[columns];
+        List<Integer> touchedRows = new ArrayList<>();
+        List<Integer> touchedColumns = new ArrayList<>();
+        Arrays.fill(rowDistance, Double.POSITIVE_INFINITY);
+        Arrays.fill(columnDistance, Double.POSITIVE_INFINITY);
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+
+        for (int start = 0; start < rows; start++) {
+            queue.clear();
+            rowDistance[start] = 0.0;
+            touchedRows.add(start);
+            int row = start;
+            int target = -1;
+            double targetDistance = 0.0;
+            while (true) {
+                // Relax the row's candidate edges and its own slot
+                int edgeCount = edgeColumns[row].length;
+                for (int e = 0; e <= edgeCount; e++) {
+                    int column = e < edgeCount ? edgeColumns[row][e] : columnCount + row;
+                    double cost = e < edgeCount ? edgeCosts[row][e] : 1.0;
+                    if (settled[column]) continue;
+                    double distance = rowDistance[row] + cost + rowPotential[row] - columnPotential[column];
+                    if (distance < columnDistance[column]) {
+                        if (columnDistance[column] == Double.POSITIVE_INFINITY) touchedColumns.add(column);
+                        columnDistance[column] = distance;
+                        reachedFrom[column] = row;
+                        queue.add(new double[] {distance, column});
+                    }
+                }
+                // Nearest unsettled column; a free one ends the search
+                int column;
+                do {
+                    double[] next = queue.poll();
+                    column = (int) next[1];
+                    if (settled[column] || next[0] > columnDistance[column]) column = -1;
+                } while (column < 0);
+                settled[column] = true;
+                if (rowOfColumn[column] < 0) {
+                    target = column;
+                    targetDistance = columnDistance[column];
+                    break;
+                }
+                // The matched edge back to its row is tight, so the row is as far as the column
+                row = rowOfColumn[column];
+                rowDistance[row] = columnDistance[column];
+                touchedRows.add(row);
+            }
+
+            // Keep reduced costs non-negative and the new matching tight. Nodes the search did
+            // not reach would all move by targetDistance, so shift everything down by that instead
+            for (int r : touchedRows) {
+                rowPotential[r] += Math.min(rowDistance[r], targetDistance) - targetDistance;
+                rowDistance[r] = Double.POSITIVE_INFINITY;
+            }
+            for (int c : touchedColumns) {
+                columnPotential[c] += Math.min(columnDistance[c], targetDistance) - targetDistance;
+                columnDistance[c] = Double.POSITIVE_INFINITY;
+                settled[c] = false;
+            }
+            touchedRows.clear();
+            touchedColumns.clear();
+
+            // Flip the augmenting path
+            int column = target;
+            while (true) {
+                int from = reachedFrom[column];
+                int previous = from == start ? -1 : columnOfRow[from];
+                columnOfRow[from] = column;
+                rowOfColumn[column] = from;
+                if (previous < 0) break;
+                column = previous;
+            }
+        }
+        return columnOfRow;
+    }
+
+    /**
+     * Chosen column per benefit (null when left unassigned) and the score totals
+     */
+    public static class Assignment {
+        private final String[] columns;
+        private final double totalScore;
+        private final double greedyTotalScore;
+        private final int contestedColumns;
+
+        public Assignment(String[] columns, double totalScore, double greedyTotalScore, int contestedColumns) {
+            this.columns = columns;
+            this.totalScore = totalScore;
+            this.greedyTotalScore = greedyTotalScore;
+            this.contestedColumns = contestedColumns;
+        }
+
+        public String getColumn(int benefitIndex) { return columns[benefitIndex]; }
+        public double getTotalScore() { return totalScore; }
+        /** Total of the greedy baseline, where benefits in order take their best column still free */
+        public double getGreedyTotalScore() { return greedyTotalScore; }
+        /** Columns that were the best match of more than one benefit */
+        public int getContestedColumns() { return contestedColumns; }
+    }
+}
@@ -1,10 +1,13 @@
 package com.vbmvalidator.service.impl;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.vbmvalidator.model.SOBBenefit;
@@ -16,28 +19,56 @@ import com.vbmvalidator.service.SOBTypeProcessor;
 
 /**
  * Comprehensive benefit mapping service implementation
- * Uses SOB type-specific processors for high-accuracy benefit analysis
+ * Uses SOB type-specific processors, hand-written or from rule packs, for high-accuracy benefit analysis.
+ * Column detection only looks at the header row, so its result is cached per
+ * (header layout fingerprint, SOB type) and repeat uploads of a vendor template skip it.
  */
 @Service
 public class BenefitMappingServiceImpl implements BenefitMappingService {
     
     private static final Logger log = LoggerFactory.getLogger(BenefitMappingServiceImpl.class);
     
-    private final Map<SOBType, SOBTypeProcessor> processors = new HashMap<>();
+    // Benefit name terms and the column abbreviations that support a mapping, for calculateMappingConfidence
+    private static final Map<String, String[]> CONFIDENCE_TERMS = Map.of(
+        "inpatient", new String[]{"inpt", "admission", "hospital"},
+        "emergency", new String[]{"er", "urgent"},
+        "primary care", new String[]{"pcp", "physician"},
+        "laboratory", new String[]{"lab", "test"},
+        "skilled nursing", new String[]{"snf", "nursing"}
+    );
     
-    public BenefitMappingServiceImpl(List<SOBTypeProcessor> sobTypeProcessors) {
-        // Register all SOB type processors
-        for (SOBTypeProcessor processor : sobTypeProcessors) {
-            processors.put(processor.getSupportedSOBType(), processor);
-            log.info("Registered SOB type processor for: {}", processor.getSupportedSOBType());
-        }
+    private final SOBTypeRegistry sobTypeRegistry;
+    private final boolean globalAssignment;
+    private final boolean detectionCacheEnabled;
+    private final ParseCache<SOBTypeProcessor.ColumnDetectionResult> detectionCache;
+    
+    /**
+     * Only the given processors, no rule packs
+     */
+    public BenefitMappingServiceImpl(List<SOBTypeProcessor> sobTypeProcessors, boolean detectionCacheEnabled,
+                                     int detectionCacheEntries, long detectionCacheTtlMinutes, boolean globalAssignment) {
+        this(new SOBTypeRegistry(sobTypeProcessors), detectionCacheEnabled, detectionCacheEntries,
+                detectionCacheTtlMinutes, globalAssignment);
+    }
+    
+    @Autowired
+    public BenefitMappingServiceImpl(SOBTypeRegistry sobTypeRegistry,
+                                     @Value("${vbm.detection-cache.enabled:true}") boolean detectionCacheEnabled,
+                                     @Value("${vbm.detection-cache.max-entries:64}") int detectionCacheEntries,
+                                     @Value("${vbm.detection-cache.ttl-minutes:1440}") long detectionCacheTtlMinutes,
+                                     @Value("${vbm.mapping.global-assignment:true}") boolean globalAssignment) {
+        this.sobTypeRegistry = sobTypeRegistry;
+        this.globalAssignment = globalAssignment;
+        this.detectionCacheEnabled = detectionCacheEnabled;
+        this.detectionCache = new ParseCache<>("column-detection", detectionCacheEntries,
+                detectionCacheTtlMinutes, TimeUnit.MINUTES);
     }
     
     @Override
     public List<BenefitMapping> mapBenefits(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType) {
         log.info("Starting comprehensive benefit mapping for SOB type: {}", sobType);
         
-        SOBTypeProcessor processor = processors.get(sobType);
+        SOBTypeProcessor processor = sobTypeRegistry.getProcessor(sobType);
         if (processor == null) {
             log.error("No processor found for SOB type: {}", sobType);
             return Collections.emptyList();
@@ -46,33 +77,43 @@ public class BenefitMappingServiceImpl implements BenefitMappingService {
         List<BenefitMapping> mappings = new ArrayList<>();
         
         // First, analyze VBM column structure
-        SOBTypeProcessor.ColumnDetectionResult columnDetection = processor.detectVBMColumns(vendorMatrixData);
+        SOBTypeProcessor.ColumnDetectionResult columnDetection = detectColumns(processor, vendorMatrixData, sobType);
         log.info("Column detection completed - Detected: {}, Unmatched: {}, Ambiguous: {}", 
                 columnDetection.getDetectedColumns().size(),
                 columnDetection.getUnmatched().size(),
                 columnDetection.getAmbiguous().size());
         
         // Map each SOB benefit to VBM columns
-        for (SOBBenefit sobBenefit : sobData.getBenefits()) {
-            BenefitMapping mapping = processor.findBestColumnMatch(sobBenefit, vendorMatrixData);
-            
-            if (mapping != null) {
-                // Validate the mapping
-                List<SOBTypeProcessor.ValidationIssue> issues = processor.validateConditions(
-                    mapping.getConditions(), sobBenefit);
-                
-                if (issues.isEmpty() || mapping.getConfidence() >= 0.8) {
-                    mappings.add(mapping);
-                    log.debug("Successfully mapped benefit '{}' to column '{}' with confidence {:.2f}", 
-                             sobBenefit.getBenefitName(), mapping.getVbmColumn(), mapping.getConfidence());
+        List<BenefitMapping> candidates;
+        if (globalAssignment) {
+            candidates = assignBenefits(processor, sobData, vendorMatrixData).getMappings();
+        } else {
+            candidates = new ArrayList<>();
+            for (SOBBenefit sobBenefit : sobData.getBenefits()) {
+                BenefitMapping mapping = processor.findBestColumnMatch(sobBenefit, vendorMatrixData);
+                if (mapping != null) {
+                    candidates.add(mapping);
                 } else {
-                    log.warn("Mapping for benefit '{}' has validation issues: {}", 
-                            sobBenefit.getBenefitName(), issues.size());
-                    // Still add mapping but log the issues
-                    mappings.add(mapping);
+                    log.warn("No suitable mapping found for SOB benefit: '{}'", sobBenefit.getBenefitName());
                 }
+            }
+        }
+        
+        for (BenefitMapping mapping : candidates) {
+            SOBBenefit sobBenefit = mapping.getSobBenefit();
+            // Validate the mapping
+            List<SOBTypeProcessor.ValidationIssue> issues = processor.validateConditions(
+                mapping.getConditions(), sobBenefit);
+            
+            if (issues.isEmpty() || mapping.getConfidence() >= 0.8) {
+                mappings.add(mapping);
+                log.debug("Successfully mapped benefit '{}' to column '{}' with confidence {:.2f}", 
+                         sobBenefit.getBenefitName(), mapping.getVbmColumn(), mapping.getConfidence());
             } else {
-                log.warn("No suitable mapping found for SOB benefit: '{}'", sobBenefit.getBenefitName());
+                log.warn("Mapping for benefit '{}' has validation issues: {}", 
+                        sobBenefit.getBenefitName(), issues.size());
+                // Still add mapping but log the issues
+                mappings.add(mapping);
             }
         }
         
@@ -82,9 +123,87 @@ public class BenefitMappingServiceImpl implements BenefitMappingService {
         return mappings;
     }
     
+    /**
+     * Map the SOB's benefits to VBM columns as one optimal one-to-one assignment, so no two
+     * benefits claim the same column. The score matrix is built once from each benefit's
+     * indexed candidate columns.
+     */
+    public MappingAssignment assignBenefits(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType) {
+        SOBTypeProcessor processor = sobTypeRegistry.getProcessor(sobType);
+        if (processor == null) {
+            log.error("No processor found for SOB type: {}", sobType);
+            return new MappingAssignment(Collections.emptyList(), 0.0, 0.0, 0, 0);
+        }
+        return assignBenefits(processor, sobData, vendorMatrixData);
+    }
+    
+    private MappingAssignment assignBenefits(SOBTypeProcessor processor, SOBData sobData, VendorMatrixData vendorMatrixData) {
+        long start = System.nanoTime();
+        List<SOBBenefit> benefits = sobData.getBenefits();
+        List<Map<String, Double>> scores = new ArrayList<>(benefits.size());
+        for (SOBBenefit sobBenefit : benefits) {
+            scores.add(processor.scoreColumns(sobBenefit, vendorMatrixData));
+        }
+        
+        BenefitColumnAssigner.Assignment assignment = BenefitColumnAssigner.assign(scores);
+        List<BenefitMapping> mappings = new ArrayList<>();
+        for (int b = 0; b < benefits.size(); b++) {
+            String column = assignment.getColumn(b);
+            if (column != null) {
+                mappings.add(processor.createMapping(benefits.get(b), vendorMatrixData, column, scores.get(b).get(column)));
+            } else {
+                log.warn("No suitable mapping found for SOB benefit: '{}'", benefits.get(b).getBenefitName());
+            }
+        }
+        
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Global assignment: total score {} vs greedy {} ({} contested columns) in {} ms",
+                String.format("%.2f", assignment.getTotalScore()), String.format("%.2f", assignment.getGreedyTotalScore()),
+                assignment.getContestedColumns(), elapsedMillis);
+        return new MappingAssignment(mappings, assignment.getTotalScore(), assignment.getGreedyTotalScore(),
+                assignment.getContestedColumns(), elapsedMillis);
+    }
+    
+    /**
+     * Column detection for the matrix, reused for any earlier matrix with the same header row
+     */
+    SOBTypeProcessor.ColumnDetectionResult detectColumns(SOBTypeProcessor processor, VendorMatrixData vendorMatrixData,
+                                                         SOBType sobType) {
+        if (!detectionCacheEnabled || vendorMatrixData.getAllColumns() == null) {
+            return processor.detectVBMColumns(vendorMatrixData);
+        }
+        
+        // The rules revision keeps a reloaded rule pack from reusing the old pack's detections
+        String key = sobType.name() + ":" + sobTypeRegistry.getRevision(sobType) + ":" + headerFingerprint(vendorMatrixData);
+        SOBTypeProcessor.ColumnDetectionResult cached = detectionCache.get(key);
+        if (cached != null) {
+            log.debug("Reusing column detection for header layout {}", key);
+            return cached;
+        }
+        
+        SOBTypeProcessor.ColumnDetectionResult detected = processor.detectVBMColumns(vendorMatrixData);
+        // Shared by every later upload of the template, so it must not change
+        SOBTypeProcessor.ColumnDetectionResult frozen = new SOBTypeProcessor.ColumnDetectionResult(
+                Map.copyOf(detected.getDetectedColumns()), Map.copyOf(detected.getConfidenceScores()),
+                List.copyOf(detected.getUnmatched()), List.copyOf(detected.getAmbiguous()));
+        detectionCache.put(key, frozen);
+        return frozen;
+    }
+    
+    /**
+     * SHA-256 of the ordered header strings; matrices from the same vendor template share it
+     */
+    static String headerFingerprint(VendorMatrixData vendorMatrixData) {
+        return ContentHash.sha256(vendorMatrixData.getAllColumns().keySet());
+    }
+    
+    public ParseCache.Stats getDetectionCacheStats() {
+        return detectionCache.getStats();
+    }
+    
     @Override
     public BenefitConditions extractConditions(SOBBenefit sobBenefit, String vbmValue, SOBType sobType) {
-        SOBTypeProcessor processor = processors.get(sobType);
+        SOBTypeProcessor processor = sobTypeRegistry.getProcessor(sobType);
         if (processor == null) {
             log.error("No processor found for SOB type: {}", sobType);
             return new BenefitConditions(null, null, null, null, null, null, new HashMap<>());
@@ -109,15 +228,7 @@ public class BenefitMappingServiceImpl implements BenefitMappingService {
         }
         
         // Common medical term matching
-        Map<String, String[]> medicalTerms = Map.of(
-            "inpatient", new String[]{"inpt", "admission", "hospital"},
-            "emergency", new String[]{"er", "urgent"},
-            "primary care", new String[]{"pcp", "physician"},
-            "laboratory", new String[]{"lab", "test"},
-            "skilled nursing", new String[]{"snf", "nursing"}
-        );
-        
-        for (Map.Entry<String, String[]> entry : medicalTerms.entrySet()) {
+        for (Map.Entry<String, String[]> entry : CONFIDENCE_TERMS.entrySet()) {
             if (benefitName.contains(entry.getKey())) {
                 for (String synonym : entry.getValue()) {
                     if (columnName.contains(synonym)) {
@@ -148,6 +259,33 @@ public class BenefitMappingServiceImpl implements BenefitMappingService {
         return new MappingStatistics(totalMappings, highConfidence, mediumConfidence, lowConfidence, averageConfidence);
     }
     
+    /**
+     * Outcome of a global assignment, with the greedy baseline's score for comparison
+     */
+    public static class MappingAssignment {
+        private final List<BenefitMapping> mappings;
+        private final double totalScore;
+        private final double greedyTotalScore;
+        private final int contestedColumns;
+        private final long elapsedMillis;
+        
+        public MappingAssignment(List<BenefitMapping> mappings, double totalScore, double greedyTotalScore,
+                                 int contestedColumns, long elapsedMillis) {
+            this.mappings = mappings;
+            this.totalScore = totalScore;
+            this.greedyTotalScore = greedyTotalScore;
+            this.contestedColumns = contestedColumns;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        // Getters
+        public List<BenefitMapping> getMappings() { return mappings; }
+        public double getTotalScore() { return totalScore; }
+        public double getGreedyTotalScore() { return greedyTotalScore; }
+        public int getContestedColumns() { return contestedColumns; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+    
     /**
      * Statistics about mapping quality
      */
@@ -0,0 +1,209 @@
+package com.vbmvalidator.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.vbmvalidator.model.BenefitComparison;
+import com.vbmvalidator.model.SOBData;
+import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.model.ValidationError;
+import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.model.VendorMatrixData;
+import com.vbmvalidator.service.SOBTypeProcessor;
+import com.vbmvalidator.service.ValidationProgressListener;
+import com.vbmvalidator.service.ValidationService;
+
+/**
+ * Memoizing front for {@link ValidationServiceImpl}.
+ *
+ * Validation is a pure function of the two uploads, the SOB type and the rule set, so results
+ * are cached under (SOB content hash, VBM content hash, SOB type, rule version). The rule
+ * version fingerprints VBM_GUIDELINES, the SOB type processors' patterns, the loaded rule
+ * packs and {@link ValidationServiceImpl#RULES_REVISION}; when it changes the cache is dropped.
+ * Inputs without a content hash (not parsed from an upload) always go to the delegate.
+ * Every caller gets its own copy of a cached result, with a fresh validation ID, fresh error
+ * IDs and a new timestamp, since stores, jobs and history are keyed by those IDs.
+ */
+@Service
+@Primary
+public class CachingValidationService implements ValidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingValidationService.class);
+
+    private final ValidationServiceImpl delegate;
+    private final SOBTypeRegistry sobTypeRegistry;
+    private final boolean enabled;
+    private final ParseCache<ValidationResult> resultCache;
+    private volatile String ruleVersion;
+
+    /**
+     * Fingerprints only the given processors, no rule packs
+     */
+    public CachingValidationService(ValidationServiceImpl delegate, List<SOBTypeProcessor> processors,
+                                    boolean enabled, int maxEntries, long ttlMinutes) {
+        this(delegate, new SOBTypeRegistry(processors), enabled, maxEntries, ttlMinutes);
+    }
+
+    @Autowired
+    public CachingValidationService(ValidationServiceImpl delegate,
+                                    SOBTypeRegistry sobTypeRegistry,
+                                    @Value("${vbm.result-cache.enabled:true}") boolean enabled,
+                                    @Value("${vbm.result-cache.max-entries:128}") int maxEntries,
+                                    @Value("${vbm.result-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.delegate = delegate;
+        this.sobTypeRegistry = sobTypeRegistry;
+        this.enabled = enabled;
+        this.resultCache = new ParseCache<>("validation-results", maxEntries, ttlMinutes, TimeUnit.MINUTES);
+        this.ruleVersion = computeRuleVersion();
+        log.info("Validation result cache {} (rule version {})", enabled ? "enabled" : "disabled", ruleVersion.substring(0, 12));
+    }
+
+    @Override
+    public ValidationResult validateVendorMatrix(SOBData sobData, VendorMatrixData vendorMatrixData) {
+        return validateWithSOBType(sobData, vendorMatrixData, null);
+    }
+
+    @Override
+    public ValidationResult validateWithSOBType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType) {
+        return validateWithSOBType(sobData, vendorMatrixData, sobType, ValidationProgressListener.NONE);
+    }
+
+    @Override
+    public ValidationResult validateWithSOBType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType,
+                                                ValidationProgressListener progress) {
+        if (!enabled || sobData.getContentHash() == null || vendorMatrixData.getContentHash() == null) {
+            return delegate.validateWithSOBType(sobData, vendorMatrixData, sobType, progress);
+        }
+
+        String key = sobData.getContentHash() + "|" + vendorMatrixData.getContentHash() + "|" + sobType + "|" + ruleVersion;
+        ValidationResult cached = resultCache.get(key);
+        if (cached != null) {
+            log.info("Validation result cache hit for {} / {}", sobData.getSourceFileName(), vendorMatrixData.getSourceFileName());
+            return freshCopy(cached);
+        }
+
+        ValidationResult result = delegate.validateWithSOBType(sobData, vendorMatrixData, sobType, progress);
+        // Cache a private copy, so changes the caller makes to its result (error selection) stay its own
+        resultCache.put(key, freshCopy(result));
+        return result;
+    }
+
+    /**
+     * Copy of the result under new validation and error IDs and the current time. Errors are
+     * copied once and shared between the error list and the benefit comparisons, as in the original.
+     */
+    static ValidationResult freshCopy(ValidationResult result) {
+        Map<ValidationError, ValidationError> copies = new IdentityHashMap<>();
+        List<ValidationError> errors = result.getErrors() == null ? null
+                : result.getErrors().stream().map(error -> copies.computeIfAbsent(error, CachingValidationService::copyError)).toList();
+        List<BenefitComparison> comparisons = result.getBenefitComparisons() == null ? null
+                : result.getBenefitComparisons().stream()
+                        .map(comparison -> new BenefitComparison(comparison.getBenefitCategory(), comparison.getBenefitName(),
+                                comparison.getSobBenefit(), comparison.getVendorMatrixValue(), comparison.getStatus(),
+                                comparison.getErrors() == null ? null : comparison.getErrors().stream()
+                                        .map(error -> copies.computeIfAbsent(error, CachingValidationService::copyError)).toList()))
+                        .toList();
+
+        return ValidationResult.builder()
+                .validationId(ValidationServiceImpl.generateValidationId())
+                .sobType(result.getSobType())
+                .sobFileName(result.getSobFileName())
+                .vendorMatrixFileName(result.getVendorMatrixFileName())
+                .validatedAt(LocalDateTime.now())
+                .status(result.getStatus())
+                .totalErrors(result.getTotalErrors())
+                .totalWarnings(result.getTotalWarnings())
+                .errors(errors == null ? null : new ArrayList<>(errors))
+                .summary(result.getSummary())
+                .benefitComparisons(comparisons == null ? null : new ArrayList<>(comparisons))
+                .build();
+    }
+
+    private static ValidationError copyError(ValidationError error) {
+        return new ValidationError(ValidationServiceImpl.generateErrorId(), error.getErrorType(), error.getSeverity(),
+                error.getBenefitCategory(), error.getFieldName(), error.getSobValue(), error.getVendorMatrixValue(),
+                error.getExpectedValue(), error.getDescription(), error.getRecommendation(), error.isSelected());
+    }
+
+    @Override
+    public VendorMatrixData generateCorrectedVendorMatrix(SOBData sobData, VendorMatrixData originalVendorMatrix, ValidationResult validationResult) {
+        return delegate.generateCorrectedVendorMatrix(sobData, originalVendorMatrix, validationResult);
+    }
+
+    /**
+     * Recompute the rule version and drop every cached result if the rules changed
+     */
+    public void refreshRuleVersion() {
+        String current = computeRuleVersion();
+        if (!current.equals(ruleVersion)) {
+            log.info("Validation rules changed ({} -> {}), clearing result cache",
+                    ruleVersion.substring(0, 12), current.substring(0, 12));
+            ruleVersion = current;
+            resultCache.clear();
+        }
+    }
+
+    public String getRuleVersion() {
+        return ruleVersion;
+    }
+
+    public ParseCache.Stats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
+    private String computeRuleVersion() {
+        MessageDigest digest = newDigest();
+        update(digest, "revision", ValidationServiceImpl.RULES_REVISION);
+        new TreeMap<>(ValidationServiceImpl.vbmGuidelines()).forEach((benefit, guideline) ->
+                update(digest, "guideline:" + benefit, guideline));
+
+        sobTypeRegistry.getProcessors().stream()
+                .sorted(Comparator.comparing(processor -> String.valueOf(processor.getSupportedSOBType())))
+                .forEach(processor -> {
+                    String type = String.valueOf(processor.getSupportedSOBType());
+                    updatePatterns(digest, type + ":benefit", processor.getBenefitNamePatterns());
+                    updatePatterns(digest, type + ":column", processor.getVBMColumnPatterns());
+                    // Rule packs also bring their own guidelines and condition regexes
+                    update(digest, type + ":revision", sobTypeRegistry.getRevision(processor.getSupportedSOBType()));
+                });
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void updatePatterns(MessageDigest digest, String prefix, Map<String, List<String>> patterns) {
+        if (patterns == null) return;
+        new TreeMap<>(patterns).forEach((category, values) -> update(digest, prefix + ":" + category, String.valueOf(values)));
+    }
+
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '=');
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Streaming SHA-256 of uploaded files, used as the identity of an upload's content (and of
+ * other ordered inputs such as a header row)
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHash() {}
+
+    /**
+     * Hex SHA-256 of the upload bytes, read through a fixed buffer rather than loaded whole
+     */
+    public static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = file.getInputStream()) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hex SHA-256 of the strings in order. Each string is length-prefixed, so ("ab", "c") and
+     * ("a", "bc") hash differently.
+     */
+    public static String sha256(Iterable<String> parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) (bytes.length >>> 24));
+            digest.update((byte) (bytes.length >>> 16));
+            digest.update((byte) (bytes.length >>> 8));
+            digest.update((byte) bytes.length);
+            digest.update(bytes);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Compares SOB and Vendor Matrix cost-sharing text by the amounts it contains.
+ *
+ * Text is scanned once, left to right, into a {@link TokenBuffer}: currency amounts
+ * ("$290", "$1,000.50") are kept as long cents and percentages ("20%") as ints, in the
+ * order they appear. Two strings match when they carry the same currency amounts and the
+ * same percentages; text without amounts falls back to a case- and whitespace-insensitive
+ * comparison. No regex, and no per-call allocation once the thread's buffers exist.
+ */
+public final class CostSharingComparator {
+
+    // One pair of buffers per thread; validation runs on request and batch worker threads
+    private static final ThreadLocal<TokenBuffer[]> BUFFERS =
+            ThreadLocal.withInitial(() -> new TokenBuffer[]{new TokenBuffer(), new TokenBuffer()});
+
+    private CostSharingComparator() {}
+
+    public static boolean matches(String sobCostSharing, String vmCostSharing) {
+        if (sobCostSharing == null && vmCostSharing == null) return true;
+        if (sobCostSharing == null || vmCostSharing == null) return false;
+
+        TokenBuffer[] buffers = BUFFERS.get();
+        TokenBuffer sobTokens = buffers[0].tokenize(sobCostSharing);
+        TokenBuffer vmTokens = buffers[1].tokenize(vmCostSharing);
+
+        // If we found numeric values, compare them
+        if (!sobTokens.isEmpty() && !vmTokens.isEmpty()) {
+            return sobTokens.sameValues(vmTokens);
+        }
+
+        // Otherwise fall back to normalized string comparison
+        return normalizedEquals(sobCostSharing, vmCostSharing);
+    }
+
+    /**
+     * Equality after lower-casing, collapsing whitespace runs to one space and trimming
+     */
+    static boolean normalizedEquals(String a, String b) {
+        int i = skipWhitespace(a, 0);
+        int j = skipWhitespace(b, 0);
+
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            boolean spaceA = isWhitespace(ca);
+            boolean spaceB = isWhitespace(cb);
+
+            if (spaceA || spaceB) {
+                i = skipWhitespace(a, i);
+                j = skipWhitespace(b, j);
+                // Inner whitespace must line up, trailing whitespace is trimmed on both sides
+                boolean endA = i == a.length();
+                boolean endB = j == b.length();
+                if (endA || endB) return endA && endB;
+                if (!spaceA || !spaceB) return false;
+                continue;
+            }
+
+            if (ca != cb && Character.toLowerCase(ca) != Character.toLowerCase(cb)) {
+                return false;
+            }
+            i++;
+            j++;
+        }
+
+        return skipWhitespace(a, i) == a.length() && skipWhitespace(b, j) == b.length();
+    }
+
+    private static int skipWhitespace(String s, int index) {
+        while (index < s.length() && isWhitespace(s.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    // Same set as the regex \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Reusable buffer of typed cost tokens - currency amounts in cents and whole percentages
+     */
+    public static final class TokenBuffer {
+
+        private long[] currencyCents = new long[8];
+        private int currencyCount;
+        private int[] percentages = new int[4];
+        private int percentCount;
+
+        /**
+         * Clear the buffer and fill it with the amounts found in the text
+         */
+        public TokenBuffer tokenize(CharSequence text) {
+            currencyCount = 0;
+            percentCount = 0;
+
+            int length = text.length();
+            int i = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (c == '$' && i + 1 < length && isDigit(text.charAt(i + 1))) {
+                    i = readCurrency(text, i + 1);
+                } else if (isDigit(c)) {
+                    i = readNumber(text, i);
+                } else {
+                    i++;
+                }
+            }
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return currencyCount == 0 && percentCount == 0;
+        }
+
+        public int currencyCount() { return currencyCount; }
+
+        public long currencyCentsAt(int index) { return currencyCents[index]; }
+
+        public int percentCount() { return percentCount; }
+
+        public int percentageAt(int index) { return percentages[index]; }
+
+        public boolean sameValues(TokenBuffer other) {
+            return Arrays.equals(currencyCents, 0, currencyCount, other.currencyCents, 0, other.currencyCount)
+                    && Arrays.equals(percentages, 0, percentCount, other.percentages, 0, other.percentCount);
+        }
+
+        // $ digits, then ",ddd" groups, then an optional ".dd" cents part
+        private int readCurrency(CharSequence text, int start) {
+            int length = text.length();
+            int i = start;
+            long dollars = 0;
+            while (i < length && isDigit(text.charAt(i))) {
+                dollars = accumulate(dollars, text.charAt(i++));
+            }
+            while (i < length && text.charAt(i) == ',' && hasDigits(text, i + 1, 3)) {
+                for (int k = 1; k <= 3; k++) {
+                    dollars = accumulate(dollars, text.charAt(i + k));
+                }
+                i += 4;
+            }
+
+            long cents = 0;
+            if (i < length && text.charAt(i) == '.' && hasDigits(text, i + 1, 2)) {
+                cents = (text.charAt(i + 1) - '0') * 10 + (text.charAt(i + 2) - '0');
+                i += 3;
+            }
+
+            addCurrency(dollars > (Long.MAX_VALUE - cents) / 100 ? Long.MAX_VALUE : dollars * 100 + cents);
+            return i;
+        }
+
+        // A bare digit run is only a token when it ends in '%'
+        private int readNumber(CharSequence text, int start) {
+            int length = text.length();
+            int i = start;
+            long value = 0;
+            while (i < length && isDigit(text.charAt(i))) {
+                value = accumulate(value, text.charAt(i++));
+            }
+            if (i < length && text.charAt(i) == '%') {
+                addPercentage((int) Math.min(value, Integer.MAX_VALUE));
+                i++;
+            }
+            return i;
+        }
+
+        private static boolean hasDigits(CharSequence text, int start, int count) {
+            if (start + count > text.length()) return false;
+            for (int k = start; k < start + count; k++) {
+                if (!isDigit(text.charAt(k))) return false;
+            }
+            return true;
+        }
+
+        // Saturates instead of overflowing on absurdly long digit runs
+        private static long accumulate(long value, char digit) {
+            if (value > (Long.MAX_VALUE - 9) / 10) return Long.MAX_VALUE;
+            return value * 10 + (digit - '0');
+        }
+
+        private void addCurrency(long cents) {
+            if (currencyCount == currencyCents.length) {
+                currencyCents = Arrays.copyOf(currencyCents, currencyCount * 2);
+            }
+            currencyCents[currencyCount++] = cents;
+        }
+
+        private void addPercentage(int percentage) {
+            if (percentCount == percentages.length) {
+                percentages = Arrays.copyOf(percentages, percentCount * 2);
+            }
+            percentages[percentCount++] = percentage;
+        }
+    }
+}
@@ -2,13 +2,19 @@ package com.vbmvalidator.service.impl;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.vbmvalidator.model.SOBData;
+import com.vbmvalidator.model.VendorMatrixBook;
 import com.vbmvalidator.model.VendorMatrixData;
 import com.vbmvalidator.service.DocumentProcessor;
 
@@ -18,10 +24,30 @@ public class DocumentProcessorService {
     private static final Logger log = LoggerFactory.getLogger(DocumentProcessorService.class);
 
     private final List<DocumentProcessor> processors;
+    
+    // Parsed models keyed by SHA-256 of the upload, so re-uploading an identical file skips POI.
+    // Every hit shares one instance, so models are frozen before they are cached
+    private final boolean parseCacheEnabled;
+    private final ParseCache<SOBData> sobCache;
+    private final ParseCache<VendorMatrixData> vendorMatrixCache;
+    private final ParseCache<VendorMatrixBook> vendorMatrixBookCache;
 
     public DocumentProcessorService(List<DocumentProcessor> processors) {
+        this(processors, true, 32, 30);
+    }
+
+    @Autowired
+    public DocumentProcessorService(List<DocumentProcessor> processors,
+                                    @Value("${vbm.parse-cache.enabled:true}") boolean parseCacheEnabled,
+                                    @Value("${vbm.parse-cache.max-entries:32}") int maxEntries,
+                                    @Value("${vbm.parse-cache.ttl-minutes:30}") long ttlMinutes) {
         this.processors = processors;
-        log.info("Initialized DocumentProcessorService with {} processors", processors.size());
+        this.parseCacheEnabled = parseCacheEnabled;
+        this.sobCache = new ParseCache<>("sob", maxEntries, ttlMinutes, TimeUnit.MINUTES);
+        this.vendorMatrixCache = new ParseCache<>("vendor-matrix", maxEntries, ttlMinutes, TimeUnit.MINUTES);
+        this.vendorMatrixBookCache = new ParseCache<>("vendor-matrix-book", maxEntries, ttlMinutes, TimeUnit.MINUTES);
+        log.info("Initialized DocumentProcessorService with {} processors (parse cache {})", 
+                processors.size(), parseCacheEnabled ? "enabled" : "disabled");
     }
 
     public SOBData extractSOBData(MultipartFile file) throws IOException {
@@ -44,7 +70,13 @@ public class DocumentProcessorService {
         log.info("Processing SOB file {} with processor {}", 
                 file.getOriginalFilename(), processor.getClass().getSimpleName());
         
-        return processor.extractSOBData(file);
+        String contentHash = ContentHash.sha256(file);
+        ParseCache.Loader<SOBData> loader = () -> {
+            SOBData sobData = processor.extractSOBData(file);
+            sobData.setContentHash(contentHash);
+            return sobData.freeze();
+        };
+        return parseCacheEnabled ? sobCache.getOrLoad(cacheKey(contentHash, file), loader) : loader.load();
     }
 
     public VendorMatrixData extractVendorMatrixData(MultipartFile file) throws IOException {
@@ -67,7 +99,72 @@ public class DocumentProcessorService {
         log.info("Processing Vendor Matrix file {} with processor {}", 
                 file.getOriginalFilename(), processor.getClass().getSimpleName());
         
-        return processor.extractVendorMatrixData(file);
+        String contentHash = ContentHash.sha256(file);
+        ParseCache.Loader<VendorMatrixData> loader = () -> {
+            VendorMatrixData vendorMatrixData = processor.extractVendorMatrixData(file);
+            vendorMatrixData.setContentHash(contentHash);
+            return vendorMatrixData.freeze();
+        };
+        return parseCacheEnabled ? vendorMatrixCache.getOrLoad(cacheKey(contentHash, file), loader) : loader.load();
+    }
+
+    /**
+     * Extract every plan of a multi-plan Vendor Matrix, indexed by "2025 Product ID"
+     */
+    public VendorMatrixBook extractVendorMatrixBook(MultipartFile file) throws IOException {
+        validateFile(file);
+        
+        if (!isExcelFile(file)) {
+            throw new UnsupportedOperationException(
+                "Vendor Matrix files must be in Excel format (.xlsx or .xls only). PDF and CSV are not supported."
+            );
+        }
+        
+        DocumentProcessor processor = findProcessor(file);
+        if (processor == null) {
+            throw new UnsupportedOperationException(
+                "Unsupported file format for Vendor Matrix. Supported formats: Excel (.xlsx or .xls only)"
+            );
+        }
+        
+        log.info("Processing multi-plan Vendor Matrix file {} with processor {}", 
+                file.getOriginalFilename(), processor.getClass().getSimpleName());
+        
+        String contentHash = ContentHash.sha256(file);
+        ParseCache.Loader<VendorMatrixBook> loader = () -> readVendorMatrixBook(processor, file, contentHash);
+        return parseCacheEnabled ? vendorMatrixBookCache.getOrLoad(cacheKey(contentHash, file), loader) : loader.load();
+    }
+
+    /**
+     * Hit/miss metrics of the SOB, Vendor Matrix and multi-plan Vendor Matrix parse caches
+     */
+    public List<ParseCache.Stats> getParseCacheStats() {
+        return List.of(sobCache.getStats(), vendorMatrixCache.getStats(), vendorMatrixBookCache.getStats());
+    }
+
+    private VendorMatrixBook readVendorMatrixBook(DocumentProcessor processor, MultipartFile file, String contentHash) throws IOException {
+        List<VendorMatrixData> plans;
+        try (Stream<VendorMatrixData> rows = processor.extractVendorMatrixRows(file)) {
+            plans = rows.collect(Collectors.toList());
+        }
+        // Each plan row is its own validation input, so its hash carries the row position
+        for (int i = 0; i < plans.size(); i++) {
+            plans.get(i).setContentHash(contentHash + "#" + i);
+            plans.get(i).freeze();
+        }
+        
+        VendorMatrixBook book = new VendorMatrixBook(file.getOriginalFilename(), plans);
+        log.info("Indexed {} plans ({} distinct product IDs) from {}", 
+                book.size(), book.getPlansByProductId().size(), file.getOriginalFilename());
+        if (!book.getDuplicateProductIds().isEmpty()) {
+            log.warn("Duplicate product IDs in Vendor Matrix, keeping first row for: {}", book.getDuplicateProductIds());
+        }
+        return book;
+    }
+
+    // Content hash plus file name, so a cached model never reports another upload's name
+    private String cacheKey(String contentHash, MultipartFile file) {
+        return contentHash + "|" + file.getOriginalFilename();
     }
 
     private DocumentProcessor findProcessor(MultipartFile file) {
@@ -1,13 +1,11 @@
 package com.vbmvalidator.service.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
@@ -16,10 +14,12 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.vbmvalidator.model.SOBBenefit;
+import com.vbmvalidator.model.ColumnDictionary;
+import com.vbmvalidator.model.ColumnValues;
 import com.vbmvalidator.model.SOBData;
 import com.vbmvalidator.model.VendorMatrixData;
 import com.vbmvalidator.service.DocumentProcessor;
@@ -29,6 +29,12 @@ public class ExcelProcessor implements DocumentProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(ExcelProcessor.class);
 
+    // Read SOB sheets with the SAX event model instead of loading the whole workbook
+    @Value("${vbm.sob.streaming-ingestion:true}")
+    private boolean streamingIngestion;
+
+    private final StreamingSheetReader streamingSheetReader = new StreamingSheetReader();
+
     @Override
     public boolean canProcess(MultipartFile file) {
         String filename = file.getOriginalFilename();
@@ -40,6 +46,10 @@ public class ExcelProcessor implements DocumentProcessor {
     public SOBData extractSOBData(MultipartFile file) throws IOException {
         log.info("Processing SOB Excel file: {}", file.getOriginalFilename());
         
+        if (streamingIngestion) {
+            return extractSOBDataStreaming(file);
+        }
+        
         try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
             Sheet sheet = workbook.getSheetAt(0);
             // Using a streaming approach for large files is recommended
@@ -50,6 +60,20 @@ public class ExcelProcessor implements DocumentProcessor {
         }
     }
 
+    /**
+     * Single forward pass over the first sheet; memory is bounded by one row plus the parsed model
+     */
+    public SOBData extractSOBDataStreaming(MultipartFile file) throws IOException {
+        SOBSheetParser parser = new SOBSheetParser();
+        try (InputStream inputStream = file.getInputStream()) {
+            streamingSheetReader.readFirstSheet(inputStream, parser);
+            return parser.build(file.getOriginalFilename());
+        } catch (Exception e) {
+            log.error("Error streaming SOB Excel file: {}", e.getMessage());
+            throw new IOException("Error processing SOB file: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public VendorMatrixData extractVendorMatrixData(MultipartFile file) throws IOException {
         log.info("Processing Vendor Matrix Excel file: {}", file.getOriginalFilename());
@@ -63,50 +87,47 @@ public class ExcelProcessor implements DocumentProcessor {
             throw new IOException("Error processing Vendor Matrix file: " + e.getMessage(), e);
         }
     }
-    
-
-    
 
+    /**
+     * Every non-blank row below the header row becomes one VendorMatrixData; the header is read once
+     */
+    @Override
+    public Stream<VendorMatrixData> extractVendorMatrixRows(MultipartFile file) throws IOException {
+        log.info("Processing multi-plan Vendor Matrix Excel file: {}", file.getOriginalFilename());
+        
+        Workbook workbook;
+        try {
+            workbook = new XSSFWorkbook(file.getInputStream());
+        } catch (Exception e) {
+            log.error("Error processing Vendor Matrix Excel file: {}", e.getMessage());
+            throw new IOException("Error processing Vendor Matrix file: " + e.getMessage(), e);
+        }
+        
+        Sheet sheet = workbook.getSheetAt(0);
+        Row headerRow = sheet.getRow(0);
+        if (headerRow == null) {
+            closeWorkbook(workbook);
+            throw new IOException("Error processing Vendor Matrix file: header row is missing");
+        }
+        
+        // Header is resolved once; each data row is mapped lazily as the stream is consumed
+        SheetColumns columns = new SheetColumns(readHeaders(headerRow));
+        String fileName = file.getOriginalFilename();
+        String uploadedAt = LocalDateTime.now().toString();
+        
+        return StreamSupport.stream(sheet.spliterator(), false)
+                .filter(row -> row.getRowNum() > headerRow.getRowNum())
+                .filter(row -> !isBlankRow(row))
+                .map(row -> createVendorMatrixData(columns, row, fileName, uploadedAt))
+                .onClose(() -> closeWorkbook(workbook));
+    }
 
     private SOBData parseSOBFromExcel(Sheet sheet, String fileName) {
-        SOBData.SOBDataBuilder builder = SOBData.builder();
-        List<SOBBenefit> benefits = new ArrayList<>();
-        Map<String, String> rawData = new HashMap<>();
-
-        // Efficiently iterate through rows
+        SOBSheetParser parser = new SOBSheetParser();
         for (Row row : sheet) {
-            if (row == null) continue;
-
-            // Metadata parsing (first few rows)
-            if (row.getRowNum() <= 20) {
-                Cell keyCell = row.getCell(0);
-                Cell valueCell = row.getCell(1);
-                if (keyCell != null && valueCell != null) {
-                    String key = getCellValueAsString(keyCell).trim();
-                    String value = getCellValueAsString(valueCell).trim();
-                    if (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(value)) {
-                        parseMetadataField(key, value, builder, rawData);
-                    }
-                }
-            }
-
-            // Benefits parsing
-            Row headerRow = findBenefitsHeaderRow(sheet);
-            if (headerRow != null && row.getRowNum() > headerRow.getRowNum()) {
-                Map<String, Integer> columnMap = createColumnMapping(headerRow);
-                SOBBenefit benefit = parseBenefitFromRow(row, columnMap);
-                if (benefit != null) {
-                    benefits.add(benefit);
-                }
-            }
+            parser.handleRow(row.getRowNum(), getRowValues(row));
         }
-
-        return builder
-                .benefits(benefits)
-                .rawData(rawData)
-                .sourceFileName(fileName)
-                .uploadedAt(LocalDateTime.now().toString())
-                .build();
+        return parser.build(fileName);
     }
 
     private VendorMatrixData parseVendorMatrixFromExcel(Sheet sheet, String fileName) {
@@ -117,134 +138,81 @@ public class ExcelProcessor implements DocumentProcessor {
             throw new IllegalArgumentException("Excel file must have at least 2 rows (header + data)");
         }
         
-        Map<String, String> columnData = new HashMap<>();
-        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+        return createVendorMatrixData(new SheetColumns(readHeaders(headerRow)), dataRow, fileName, LocalDateTime.now().toString());
+    }
+
+    private String[] readHeaders(Row headerRow) {
+        int lastCellNum = Math.max(headerRow.getLastCellNum(), 0);
+        String[] headers = new String[lastCellNum];
+        for (int i = 0; i < lastCellNum; i++) {
             Cell headerCell = headerRow.getCell(i);
-            Cell dataCell = dataRow.getCell(i);
             if (headerCell != null) {
-                String header = getCellValueAsString(headerCell).trim();
-                String value = dataCell != null ? getCellValueAsString(dataCell).trim() : "";
-                columnData.put(header, value);
+                headers[i] = getCellValueAsString(headerCell).trim();
             }
         }
-        
-        return VendorMatrixData.builder()
-                .productName(columnData.get("Product Name"))
-                .productId(columnData.get("2025 Product ID"))
-                .allColumns(columnData)
-                .sourceFileName(fileName)
-                .uploadedAt(LocalDateTime.now().toString())
-                .build();
+        return headers;
     }
 
-    private void parseMetadataField(String key, String value, SOBData.SOBDataBuilder builder, Map<String, String> rawData) {
-        switch (key) {
-            case "Plan Name" -> builder.planName(value);
-            case "Effective Date" -> builder.effectiveDate(value);
-            case "Product ID" -> builder.productId(value);
-            case "CMS Contract Number/PBP" -> builder.contractNumber(value);
-            case "Service Area" -> builder.serviceArea(value);
-            case "Formulary" -> builder.formulary(value);
-            case "Provider Network Name" -> builder.providerNetwork(value);
-            case "Maximum Out of Pocket cost (MOOP)" -> builder.moop(value);
-            case "Monthly Premium" -> builder.monthlyPremium(value);
-            default -> { /* No action for unknown keys */ }
-        }
-        rawData.put(key, value);
-    }
+    // Header dictionary of one sheet plus the ordinal each cell position lands in
+    private static final class SheetColumns {
+        private final ColumnDictionary dictionary;
+        private final int[] ordinals;
 
-    private Row findBenefitsHeaderRow(Sheet sheet) {
-        for (int i = 0; i <= sheet.getLastRowNum(); i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) continue;
-            
-            Cell firstCell = row.getCell(0);
-            if (firstCell != null && "PBP Category".equals(getCellValueAsString(firstCell).trim())) {
-                return row;
-            }
+        private SheetColumns(String[] headers) {
+            this.dictionary = ColumnDictionary.intern(headers);
+            this.ordinals = dictionary.ordinalsOf(headers);
         }
-        return null;
     }
 
-    private List<SOBBenefit> parseBenefitsFromExcel(Sheet sheet, int startRow) {
-        List<SOBBenefit> benefits = new ArrayList<>();
-        
-        // Get header row to understand column positions
-        Row headerRow = sheet.getRow(startRow);
-        Map<String, Integer> columnMap = createColumnMapping(headerRow);
-        
-        // Parse data rows
-        for (int i = startRow + 1; i <= sheet.getLastRowNum(); i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) continue;
-            
-            Cell pbpCell = row.getCell(columnMap.getOrDefault("PBP Category", 0));
-            if (pbpCell == null || StringUtils.isBlank(getCellValueAsString(pbpCell))) {
-                continue;
-            }
-            
-            SOBBenefit benefit = parseBenefitFromRow(row, columnMap);
-            if (benefit != null) {
-                benefits.add(benefit);
+    private VendorMatrixData createVendorMatrixData(SheetColumns columns, Row dataRow, String fileName, String uploadedAt) {
+        String[] values = new String[columns.dictionary.size()];
+        for (int i = 0; i < columns.ordinals.length; i++) {
+            if (columns.ordinals[i] >= 0) {
+                Cell dataCell = dataRow.getCell(i);
+                values[columns.ordinals[i]] = dataCell != null ? getCellValueAsString(dataCell).trim() : "";
             }
         }
+        ColumnValues columnData = new ColumnValues(columns.dictionary, values);
         
-        return benefits;
+        return VendorMatrixData.builder()
+                .productName(columnData.get("Product Name"))
+                .productId(columnData.get("2025 Product ID"))
+                .contractId(columnData.get("Contract ID"))
+                .pbpNumber(columnData.get("PBP #"))
+                .allColumns(columnData)
+                .sourceFileName(fileName)
+                .uploadedAt(uploadedAt)
+                .sourceRowIndex(dataRow.getRowNum())
+                .build();
     }
 
-    private Map<String, Integer> createColumnMapping(Row headerRow) {
-        Map<String, Integer> columnMap = new HashMap<>();
-        
-        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-            Cell cell = headerRow.getCell(i);
-            if (cell != null) {
-                String header = getCellValueAsString(cell).trim();
-                columnMap.put(header, i);
+    private boolean isBlankRow(Row row) {
+        for (Cell cell : row) {
+            if (!getCellValueAsString(cell).trim().isEmpty()) {
+                return false;
             }
         }
-        
-        return columnMap;
+        return true;
     }
 
-    private SOBBenefit parseBenefitFromRow(Row row, Map<String, Integer> columnMap) {
+    private void closeWorkbook(Workbook workbook) {
         try {
-            String pbpCategory = getCellValue(row, columnMap, "PBP Category");
-            String benefitName = getCellValue(row, columnMap, "Benefit");
-            String costSharing = getCellValue(row, columnMap, "In Network Member Cost Sharing");
-            String notations = getCellValue(row, columnMap, "Notations");
-            
-            Boolean supplementalBenefit = parseBooleanValue(getCellValue(row, columnMap, "Supplemental Benefit"));
-            Boolean paRequired = parseBooleanValue(getCellValue(row, columnMap, "PA Required"));
-            Boolean referralRequired = parseBooleanValue(getCellValue(row, columnMap, "Referral Required"));
-            Boolean moopApplicable = parseBooleanValue(getCellValue(row, columnMap, "MOOP applicable"));
-            Boolean deductibleApplicable = parseBooleanValue(getCellValue(row, columnMap, "Deductible applicable"));
-            
-            return SOBBenefit.builder()
-                    .pbpCategory(pbpCategory)
-                    .benefitCategory(pbpCategory)  // Set benefitCategory same as pbpCategory for validation
-                    .benefitName(benefitName)
-                    .costSharing(costSharing)
-                    .notations(notations)
-                    .supplementalBenefit(supplementalBenefit)
-                    .paRequired(paRequired)
-                    .paNotes(notations)  // Use notations as PA notes
-                    .referralRequired(referralRequired)
-                    .moopApplicable(moopApplicable)
-                    .deductibleApplicable(deductibleApplicable)
-                    .rawText("%s|%s|%s|%s".formatted(pbpCategory, benefitName, costSharing, notations))
-                    .build();
-        } catch (Exception e) {
-            log.warn("Error parsing benefit from row {}: {}", row.getRowNum(), e.getMessage());
-            return null;
+            workbook.close();
+        } catch (IOException e) {
+            log.warn("Error closing Vendor Matrix workbook: {}", e.getMessage());
         }
     }
 
-    private String getCellValue(Row row, Map<String, Integer> columnMap, String columnName) {
-        Integer columnIndex = columnMap.get(columnName);
-        if (columnIndex == null) return "";
-        
-        Cell cell = row.getCell(columnIndex);
-        return cell != null ? getCellValueAsString(cell).trim() : "";
+    private String[] getRowValues(Row row) {
+        int lastCellNum = row.getLastCellNum();
+        if (lastCellNum <= 0) return new String[0];
+
+        String[] values = new String[lastCellNum];
+        for (int i = 0; i < lastCellNum; i++) {
+            Cell cell = row.getCell(i);
+            values[i] = cell != null ? getCellValueAsString(cell) : null;
+        }
+        return values;
     }
 
     private String getCellValueAsString(Cell cell) {
@@ -271,19 +239,6 @@ public class ExcelProcessor implements DocumentProcessor {
         };
     }
 
-    private Boolean parseBooleanValue(String value) {
-        if (StringUtils.isBlank(value)) return null;
-        String cleanValue = value.trim().toUpperCase();
-        return "Y".equals(cleanValue) || "YES".equals(cleanValue) || 
-               "TRUE".equals(cleanValue) || "1".equals(cleanValue);
-    }
-
-
-    
-
-    
-
-
     @Override
     public String[] getSupportedExtensions() {
         return new String[]{".xlsx", ".xls"};
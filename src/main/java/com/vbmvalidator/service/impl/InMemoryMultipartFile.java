@@ -0,0 +1,54 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * MultipartFile backed by a byte array, used for SOB files unpacked from a batch zip and for
+ * uploads that must outlive the request that carried them
+ */
+class InMemoryMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final byte[] content;
+
+    InMemoryMultipartFile(String name, String originalFilename, String contentType, byte[] content) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public String getOriginalFilename() { return originalFilename; }
+
+    @Override
+    public String getContentType() { return contentType; }
+
+    @Override
+    public boolean isEmpty() { return content.length == 0; }
+
+    @Override
+    public long getSize() { return content.length; }
+
+    @Override
+    public byte[] getBytes() { return content; }
+
+    @Override
+    public InputStream getInputStream() { return new ByteArrayInputStream(content); }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), content);
+    }
+}
@@ -0,0 +1,174 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Shared keyword automaton for VBM cell text.
+ *
+ * Every keyword phrase used by the validators and SOB type processors (prior authorization,
+ * pre-cert, deductible, MOOP statements, limits, network...) is compiled once into an
+ * Aho-Corasick automaton. {@link #scan(CharSequence)} walks a cell a single time, ASCII
+ * case-insensitively and with whitespace runs folded to one space, and returns a bitset of
+ * the {@link Concept}s whose phrases occur in it. Callers test the bitset with
+ * {@link #any(long, long)} against a mask built from the concepts they care about.
+ */
+public final class KeywordConceptScanner {
+
+    /**
+     * Keyword concepts; each maps to one bit of the scan result
+     */
+    public enum Concept {
+        PRIOR_AUTHORIZATION("prior authorization"),
+        PRIOR_AUTH("prior auth"),
+        AUTHORIZATION("authorization"),
+        AUTHORIZATION_REQUIRED("authorization required"),
+        PRE_AUTHORIZATION("pre-authorization"),
+        PRE_AUTH("pre-auth"),
+        PRIOR_APPROVAL("prior approval"),
+        PRE_CERT("pre-cert", "precert"),
+        PA_REQUIRED("pa required"),
+        DEDUCTIBLE("deductible"),
+        SUBJECT_TO("subject to"),
+        DEDUCTIBLE_APPLIES("subject to deductible", "deductible applies", "after deductible"),
+        MOOP_EXCLUSION("does not apply to moop", "not applicable to moop", "moop not applicable",
+                       "not subject to moop", "moop does not apply"),
+        MOOP_INCLUSION("applies to out-of-pocket", "counts toward moop", "subject to moop"),
+        LIMIT("visit", "day", "limit", "maximum"),
+        ANNUAL("annual"),
+        IN_NETWORK("inn", "in-network"),
+        OUT_OF_NETWORK("oon", "out-of-network"),
+        COVERED("covered"),
+        FULL_COVERAGE("100%");
+
+        private final String[] phrases;
+
+        Concept(String... phrases) {
+            this.phrases = phrases;
+        }
+
+        public long bit() {
+            return 1L << ordinal();
+        }
+    }
+
+    private static final int ALPHABET = 128;
+    private static final char OTHER = 0;  // symbol for non-ASCII input; no phrase contains it
+
+    // Dense DFA: transitions[state * ALPHABET + symbol], failure links already folded in
+    private static final int[] TRANSITIONS;
+    private static final long[] OUTPUTS;
+
+    static {
+        int maxStates = 1;
+        for (Concept concept : Concept.values()) {
+            for (String phrase : concept.phrases) {
+                maxStates += phrase.length();
+            }
+        }
+
+        int[] transitions = new int[maxStates * ALPHABET];
+        Arrays.fill(transitions, -1);
+        long[] outputs = new long[maxStates];
+        int stateCount = 1;
+
+        // Trie of all phrases
+        for (Concept concept : Concept.values()) {
+            for (String phrase : concept.phrases) {
+                int state = 0;
+                for (int i = 0; i < phrase.length(); i++) {
+                    int slot = state * ALPHABET + phrase.charAt(i);
+                    if (transitions[slot] < 0) {
+                        transitions[slot] = stateCount++;
+                    }
+                    state = transitions[slot];
+                }
+                outputs[state] |= concept.bit();
+            }
+        }
+
+        // Breadth-first failure links, turning the trie into a complete DFA
+        int[] failure = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = transitions[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[failure[state]];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int slot = state * ALPHABET + symbol;
+                int next = transitions[slot];
+                int fallback = transitions[failure[state] * ALPHABET + symbol];
+                if (next < 0) {
+                    transitions[slot] = fallback;
+                } else {
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+
+        TRANSITIONS = Arrays.copyOf(transitions, stateCount * ALPHABET);
+        OUTPUTS = Arrays.copyOf(outputs, stateCount);
+    }
+
+    private KeywordConceptScanner() {}
+
+    /**
+     * Scan text once and return the bitset of concepts whose phrases occur in it
+     */
+    public static long scan(CharSequence text) {
+        if (text == null) return 0L;
+
+        long found = 0L;
+        int state = 0;
+        boolean previousSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                // "PA  required" and "PA\nrequired" both read as "pa required"
+                if (previousSpace) continue;
+                previousSpace = true;
+                c = ' ';
+            } else {
+                previousSpace = false;
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                } else if (c >= ALPHABET) {
+                    c = OTHER;
+                }
+            }
+            state = TRANSITIONS[state * ALPHABET + c];
+            found |= OUTPUTS[state];
+        }
+        return found;
+    }
+
+    public static long mask(Concept... concepts) {
+        long mask = 0L;
+        for (Concept concept : concepts) {
+            mask |= concept.bit();
+        }
+        return mask;
+    }
+
+    public static boolean any(long found, long mask) {
+        return (found & mask) != 0;
+    }
+
+    public static boolean has(long found, Concept concept) {
+        return (found & concept.bit()) != 0;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+}
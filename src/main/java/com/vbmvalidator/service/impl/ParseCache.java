@@ -0,0 +1,237 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of parsed upload models (and results derived from them) keyed by content hash.
+ * Entries are evicted least-recently-used beyond {@code maxEntries}, or beyond {@code maxWeight}
+ * when a weigher is given, and expire {@code ttl} after they were loaded. Cached models are
+ * shared between requests and must be treated as read-only by callers.
+ */
+public class ParseCache<V> {
+
+    /**
+     * Loads the value on a cache miss
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws IOException;
+    }
+
+    /**
+     * Told about entries pushed out by the size or weight bound (not about expired ones)
+     */
+    @FunctionalInterface
+    public interface EvictionListener<V> {
+        void onEvict(String key, V value);
+    }
+
+    /**
+     * Approximate size of a value, in whatever unit {@code maxWeight} is given
+     */
+    @FunctionalInterface
+    public interface Weigher<V> {
+        long weigh(V value);
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final Weigher<V> weigher;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry<V>> entries;
+    private final EvictionListener<V> evictionListener;
+    private long totalWeight;  // guarded by entries
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ParseCache(String name, int maxEntries, long ttl, TimeUnit ttlUnit) {
+        this(name, maxEntries, ttlUnit.toNanos(ttl), System::nanoTime);
+    }
+
+    public ParseCache(String name, int maxEntries, long ttl, TimeUnit ttlUnit, EvictionListener<V> evictionListener) {
+        this(name, maxEntries, Long.MAX_VALUE, null, ttlUnit.toNanos(ttl), System::nanoTime, evictionListener);
+    }
+
+    /**
+     * Cache bounded by both entry count and total weight. The most recently added entry is
+     * always kept, even if it alone weighs more than {@code maxWeight}.
+     */
+    public ParseCache(String name, int maxEntries, long maxWeight, Weigher<V> weigher,
+                      long ttl, TimeUnit ttlUnit, EvictionListener<V> evictionListener) {
+        this(name, maxEntries, maxWeight, weigher, ttlUnit.toNanos(ttl), System::nanoTime, evictionListener);
+    }
+
+    ParseCache(String name, int maxEntries, long ttlNanos, LongSupplier nanoClock) {
+        this(name, maxEntries, Long.MAX_VALUE, null, ttlNanos, nanoClock, null);
+    }
+
+    ParseCache(String name, int maxEntries, long maxWeight, Weigher<V> weigher, long ttlNanos, LongSupplier nanoClock,
+               EvictionListener<V> evictionListener) {
+        this.name = name;
+        this.evictionListener = evictionListener;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxWeight = weigher != null ? Math.max(1, maxWeight) : Long.MAX_VALUE;
+        this.weigher = weigher;
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+        // Access-ordered so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Return the cached value for the key, or load, cache and return it.
+     * The loader runs outside the cache lock; concurrent misses on one key may both load.
+     */
+    public V getOrLoad(String key, Loader<V> loader) throws IOException {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        V loaded = loader.load();
+        if (loaded != null) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public void put(String key, V value) {
+        List<Map.Entry<String, Entry<V>>> evicted = new ArrayList<>(1);
+        synchronized (entries) {
+            long now = nanoClock.getAsLong();
+            Entry<V> entry = new Entry<>(value, now, weigher != null ? Math.max(0, weigher.weigh(value)) : 0);
+            Entry<V> replaced = entries.put(key, entry);
+            totalWeight += entry.weight - (replaced != null ? replaced.weight : 0);
+
+            Iterator<Map.Entry<String, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries || (totalWeight > maxWeight && entries.size() > 1)) {
+                Map.Entry<String, Entry<V>> victim = eldest.next();
+                eldest.remove();
+                totalWeight -= victim.getValue().weight;
+                // Entries past their TTL are gone either way; they are not handed to the listener
+                if (now - victim.getValue().loadedAt > ttlNanos) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                    evicted.add(victim);
+                }
+            }
+        }
+        // Outside the lock, the listener may be slow (e.g. spill to disk)
+        if (evictionListener != null) {
+            evicted.forEach(victim -> evictionListener.onEvict(victim.getKey(), victim.getValue().value));
+        }
+    }
+
+    public void remove(String key) {
+        synchronized (entries) {
+            Entry<V> removed = entries.remove(key);
+            if (removed != null) {
+                totalWeight -= removed.weight;
+            }
+        }
+    }
+
+    public V get(String key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && nanoClock.getAsLong() - entry.loadedAt > ttlNanos) {
+                entries.remove(key);
+                totalWeight -= entry.weight;
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    /**
+     * Total weight of the cached entries; 0 without a weigher
+     */
+    public long getWeight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(name, size, maxEntries, hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+        private final long weight;
+
+        private Entry(V value, long loadedAt, long weight) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Point-in-time cache metrics
+     */
+    public static class Stats {
+        private final String name;
+        private final int size;
+        private final int maxEntries;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+
+        public Stats(String name, int size, int maxEntries, long hits, long misses, long evictions, long expirations) {
+            this.name = name;
+            this.size = size;
+            this.maxEntries = maxEntries;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        public String getName() { return name; }
+        public int getSize() { return size; }
+        public int getMaxEntries() { return maxEntries; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
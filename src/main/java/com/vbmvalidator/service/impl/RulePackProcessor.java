@@ -0,0 +1,31 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.Map;
+
+/**
+ * SOB type processor compiled from a rule pack. Matching runs through the same precompiled
+ * tables as the hand-written processors; the pack also carries its guideline rules.
+ */
+public final class RulePackProcessor extends AbstractSOBTypeProcessor {
+
+    private final String version;
+    private final String source;
+    private final String revision;
+    private final Map<String, String> guidelines;
+
+    RulePackProcessor(SOBTypeRules rules, String version, String source, String revision, Map<String, String> guidelines) {
+        super(rules);
+        this.version = version;
+        this.source = source;
+        this.revision = revision;
+        this.guidelines = Map.copyOf(guidelines);
+    }
+
+    public String getVersion() { return version; }
+    /** Classpath resource or file the pack was loaded from */
+    public String getSource() { return source; }
+    /** SHA-256 of the pack file, so edited packs never reuse state cached for the old rules */
+    public String getRevision() { return revision; }
+    /** VBM guideline key -> guideline text, added to (or replacing) the shared VBM guidelines */
+    public Map<String, String> getGuidelines() { return guidelines; }
+}
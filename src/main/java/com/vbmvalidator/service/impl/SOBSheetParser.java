@@ -0,0 +1,158 @@
+package com.vbmvalidator.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.vbmvalidator.model.SOBBenefit;
+import com.vbmvalidator.model.SOBData;
+
+/**
+ * Builds SOBData from SOB sheet rows pushed in sheet order.
+ * Runs as a state machine (metadata -> header detection -> benefit rows) and keeps only
+ * the parsed model and the header column map between rows, so a sheet is consumed in a
+ * single forward pass whether it comes from the streaming reader or a loaded workbook.
+ */
+public class SOBSheetParser implements StreamingSheetReader.RowHandler {
+
+    private static final int METADATA_LAST_ROW = 20;
+    private static final String BENEFITS_HEADER = "PBP Category";
+
+    private final SOBData.SOBDataBuilder builder = SOBData.builder();
+    private final List<SOBBenefit> benefits = new ArrayList<>();
+    private final Map<String, String> rawData = new HashMap<>();
+    private State state = State.METADATA;
+    private Map<String, Integer> columnMap;
+
+    /**
+     * Parser states, in the order a sheet moves through them
+     */
+    private enum State {
+        METADATA,          // key/value rows at the top of the sheet
+        HEADER_DETECTION,  // past the metadata block, still looking for the benefits header
+        BENEFIT_ROWS       // header resolved, every following row is a benefit
+    }
+
+    @Override
+    public void handleRow(int rowNum, String[] cells) {
+        if (state == State.METADATA && rowNum > METADATA_LAST_ROW) {
+            state = State.HEADER_DETECTION;
+        }
+
+        switch (state) {
+            case METADATA -> {
+                parseMetadataRow(cells);
+                detectBenefitsHeader(cells);
+            }
+            case HEADER_DETECTION -> detectBenefitsHeader(cells);
+            case BENEFIT_ROWS -> {
+                // The benefits table may start inside the metadata block; those rows feed both
+                if (rowNum <= METADATA_LAST_ROW) {
+                    parseMetadataRow(cells);
+                }
+                benefits.add(parseBenefitFromRow(cells));
+            }
+        }
+    }
+
+    public SOBData build(String fileName) {
+        return builder
+                .benefits(benefits)
+                .rawData(rawData)
+                .sourceFileName(fileName)
+                .uploadedAt(LocalDateTime.now().toString())
+                .build();
+    }
+
+    private void parseMetadataRow(String[] cells) {
+        String key = cellAt(cells, 0);
+        String value = cellAt(cells, 1);
+        if (key == null || value == null) return;
+
+        key = key.trim();
+        value = value.trim();
+        if (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(value)) {
+            parseMetadataField(key, value);
+        }
+    }
+
+    private void detectBenefitsHeader(String[] cells) {
+        String firstCell = cellAt(cells, 0);
+        if (firstCell != null && BENEFITS_HEADER.equals(firstCell.trim())) {
+            // Resolve the column index map once for the whole table
+            columnMap = createColumnMapping(cells);
+            state = State.BENEFIT_ROWS;
+        }
+    }
+
+    private void parseMetadataField(String key, String value) {
+        switch (key) {
+            case "Plan Name" -> builder.planName(value);
+            case "Effective Date" -> builder.effectiveDate(value);
+            case "Product ID" -> builder.productId(value);
+            case "CMS Contract Number/PBP" -> builder.contractNumber(value);
+            case "Service Area" -> builder.serviceArea(value);
+            case "Formulary" -> builder.formulary(value);
+            case "Provider Network Name" -> builder.providerNetwork(value);
+            case "Maximum Out of Pocket cost (MOOP)" -> builder.moop(value);
+            case "Monthly Premium" -> builder.monthlyPremium(value);
+            default -> { /* No action for unknown keys */ }
+        }
+        rawData.put(key, value);
+    }
+
+    private Map<String, Integer> createColumnMapping(String[] headerCells) {
+        Map<String, Integer> mapping = new HashMap<>();
+        for (int i = 0; i < headerCells.length; i++) {
+            if (headerCells[i] != null) {
+                mapping.put(headerCells[i].trim(), i);
+            }
+        }
+        return mapping;
+    }
+
+    private SOBBenefit parseBenefitFromRow(String[] cells) {
+        String pbpCategory = getCellValue(cells, "PBP Category");
+        String benefitName = getCellValue(cells, "Benefit");
+        String costSharing = getCellValue(cells, "In Network Member Cost Sharing");
+        String notations = getCellValue(cells, "Notations");
+
+        return SOBBenefit.builder()
+                .pbpCategory(pbpCategory)
+                .benefitCategory(pbpCategory)  // Set benefitCategory same as pbpCategory for validation
+                .benefitName(benefitName)
+                .costSharing(costSharing)
+                .notations(notations)
+                .supplementalBenefit(parseBooleanValue(getCellValue(cells, "Supplemental Benefit")))
+                .paRequired(parseBooleanValue(getCellValue(cells, "PA Required")))
+                .paNotes(notations)  // Use notations as PA notes
+                .referralRequired(parseBooleanValue(getCellValue(cells, "Referral Required")))
+                .moopApplicable(parseBooleanValue(getCellValue(cells, "MOOP applicable")))
+                .deductibleApplicable(parseBooleanValue(getCellValue(cells, "Deductible applicable")))
+                .rawText("%s|%s|%s|%s".formatted(pbpCategory, benefitName, costSharing, notations))
+                .build();
+    }
+
+    private String getCellValue(String[] cells, String columnName) {
+        Integer columnIndex = columnMap.get(columnName);
+        if (columnIndex == null) return "";
+
+        String value = cellAt(cells, columnIndex);
+        return value != null ? value.trim() : "";
+    }
+
+    private static String cellAt(String[] cells, int index) {
+        return index < cells.length ? cells[index] : null;
+    }
+
+    private static Boolean parseBooleanValue(String value) {
+        if (StringUtils.isBlank(value)) return null;
+        String cleanValue = value.trim().toUpperCase();
+        return "Y".equals(cleanValue) || "YES".equals(cleanValue) ||
+               "TRUE".equals(cleanValue) || "1".equals(cleanValue);
+    }
+}
@@ -0,0 +1,375 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.service.SOBTypeProcessor;
+import com.vbmvalidator.service.impl.KeywordConceptScanner.Concept;
+
+/**
+ * SOB type processors by type: the hand-written {@code @Service} processors plus SOB types
+ * defined by JSON rule packs on the classpath ({@code rule-packs/*.json}) or in a local
+ * directory. A pack is compiled into a {@link RulePackProcessor} at load time, so it matches
+ * through the same precompiled tables as a hand-written processor. When several packs define
+ * a type, the highest version wins; a pack for a built-in type replaces its processor.
+ * {@link #reload()} swaps in a new set of packs without a restart.
+ */
+@Service
+public class SOBTypeRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SOBTypeRegistry.class);
+
+    static final String BUILT_IN_REVISION = "built-in";
+
+    private static final ObjectMapper PACK_READER = new ObjectMapper();
+
+    private final List<SOBTypeProcessor> builtInProcessors;
+    private final boolean rulePacksEnabled;
+    private final String classpathPattern;
+    private final String directory;
+
+    // Replaced as a whole on reload, so readers always see one consistent set of rules
+    private volatile Map<SOBType, SOBTypeProcessor> processors;
+
+    /**
+     * Only the given processors, no rule packs
+     */
+    public SOBTypeRegistry(List<SOBTypeProcessor> builtInProcessors) {
+        this(builtInProcessors, false, "", "");
+    }
+
+    @Autowired
+    public SOBTypeRegistry(List<SOBTypeProcessor> builtInProcessors,
+                           @Value("${vbm.rule-packs.enabled:true}") boolean rulePacksEnabled,
+                           @Value("${vbm.rule-packs.classpath:classpath*:rule-packs/*.json}") String classpathPattern,
+                           @Value("${vbm.rule-packs.directory:}") String directory) {
+        this.builtInProcessors = List.copyOf(builtInProcessors);
+        this.rulePacksEnabled = rulePacksEnabled;
+        this.classpathPattern = classpathPattern;
+        this.directory = directory;
+        reload();
+    }
+
+    /**
+     * Re-read every rule pack and replace the registered processors. A pack that fails to
+     * parse or compile is skipped with an error; the other packs still load.
+     *
+     * @return number of rule packs in use
+     */
+    public synchronized int reload() {
+        Map<SOBType, SOBTypeProcessor> loaded = new LinkedHashMap<>();
+        for (SOBTypeProcessor processor : builtInProcessors) {
+            loaded.put(processor.getSupportedSOBType(), processor);
+        }
+
+        int packCount = 0;
+        for (RulePackProcessor pack : rulePacksEnabled ? loadPacks() : List.<RulePackProcessor>of()) {
+            SOBType type = pack.getSupportedSOBType();
+            SOBTypeProcessor current = loaded.get(type);
+            if (current instanceof RulePackProcessor other && compareVersions(other.getVersion(), pack.getVersion()) >= 0) {
+                log.info("Ignoring rule pack {} version {}: version {} from {} is already loaded",
+                        pack.getSource(), pack.getVersion(), other.getVersion(), other.getSource());
+                continue;
+            }
+            if (current != null && !(current instanceof RulePackProcessor)) {
+                log.info("Rule pack {} replaces the built-in {} processor", pack.getSource(), type.name());
+            }
+            if (!(current instanceof RulePackProcessor)) {
+                packCount++;
+            }
+            loaded.put(type, pack);
+        }
+
+        this.processors = Collections.unmodifiableMap(loaded);
+        loaded.forEach((type, processor) -> log.info("Registered SOB type processor for: {} ({})", type,
+                processor instanceof RulePackProcessor pack ? pack.getSource() + " v" + pack.getVersion() : "built-in"));
+        return packCount;
+    }
+
+    public SOBTypeProcessor getProcessor(SOBType sobType) {
+        return sobType != null ? processors.get(sobType) : null;
+    }
+
+    /**
+     * Whether the type has a processor. Type codes stay known JVM-wide once registered, so
+     * {@link SOBType#valueOf} still accepts a type whose rule pack has since been removed.
+     */
+    public boolean supports(SOBType sobType) {
+        return getProcessor(sobType) != null;
+    }
+
+    /**
+     * The type with this code, if it currently has a processor
+     *
+     * @throws IllegalArgumentException for any other code, as {@link SOBType#valueOf} does
+     */
+    public SOBType resolve(String code) {
+        return processors.keySet().stream()
+                .filter(type -> type.name().equals(code))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported SOB type: " + code));
+    }
+
+    public Collection<SOBTypeProcessor> getProcessors() {
+        return processors.values();
+    }
+
+    /**
+     * Types with a processor, in registration order
+     */
+    public List<SOBType> getTypes() {
+        return List.copyOf(processors.keySet());
+    }
+
+    /**
+     * VBM guidelines for the type: the shared guidelines plus those of its rule pack
+     */
+    public Map<String, String> getGuidelines(SOBType sobType) {
+        if (getProcessor(sobType) instanceof RulePackProcessor pack && !pack.getGuidelines().isEmpty()) {
+            Map<String, String> guidelines = new LinkedHashMap<>(ValidationServiceImpl.vbmGuidelines());
+            guidelines.putAll(pack.getGuidelines());
+            return Collections.unmodifiableMap(guidelines);
+        }
+        return ValidationServiceImpl.vbmGuidelines();
+    }
+
+    /**
+     * Identity of the type's current rules, for keying anything cached from them
+     */
+    public String getRevision(SOBType sobType) {
+        return getProcessor(sobType) instanceof RulePackProcessor pack ? pack.getRevision() : BUILT_IN_REVISION;
+    }
+
+    /**
+     * What is registered for each type, for the SOB type listing
+     */
+    public List<SOBTypeInfo> describe() {
+        List<SOBTypeInfo> types = new ArrayList<>();
+        processors.forEach((type, processor) -> {
+            RulePackProcessor pack = processor instanceof RulePackProcessor p ? p : null;
+            types.add(new SOBTypeInfo(type.name(), type.getDisplayName(), type.getDescription(),
+                    pack != null ? pack.getSource() : BUILT_IN_REVISION, pack != null ? pack.getVersion() : null,
+                    processor.getVBMColumnPatterns().size()));
+        });
+        return types;
+    }
+
+    private List<RulePackProcessor> loadPacks() {
+        List<RulePackProcessor> packs = new ArrayList<>();
+        if (classpathPattern != null && !classpathPattern.isBlank()) {
+            try {
+                for (Resource resource : new PathMatchingResourcePatternResolver().getResources(classpathPattern)) {
+                    try (InputStream in = resource.getInputStream()) {
+                        addPack(packs, in.readAllBytes(), "classpath:" + resource.getFilename());
+                    } catch (IOException e) {
+                        log.error("Cannot read rule pack {}: {}", resource, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Cannot list rule packs {}: {}", classpathPattern, e.getMessage());
+            }
+        }
+        if (directory != null && !directory.isBlank()) {
+            Path dir = Paths.get(directory);
+            if (!Files.isDirectory(dir)) {
+                log.warn("Rule pack directory {} does not exist", dir);
+                return packs;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+                for (Path file : files) {
+                    try {
+                        addPack(packs, Files.readAllBytes(file), file.toString());
+                    } catch (IOException e) {
+                        log.error("Cannot read rule pack {}: {}", file, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Cannot list rule pack directory {}: {}", dir, e.getMessage());
+            }
+        }
+        return packs;
+    }
+
+    private static void addPack(List<RulePackProcessor> packs, byte[] content, String source) {
+        try {
+            JsonNode root = PACK_READER.readTree(content);
+            String revision = ContentHash.sha256(List.of(new String(content, StandardCharsets.UTF_8)));
+            packs.add(compile(root, source, revision));
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            log.error("Skipping rule pack {}: {}", source, e.getMessage());
+        }
+    }
+
+    /**
+     * Compile one parsed rule pack. Everything is checked before the SOB type is registered,
+     * so a broken pack never leaves a type behind.
+     */
+    static RulePackProcessor compile(JsonNode root, String source, String revision) {
+        String code = required(root, "type");
+        String version = required(root, "version");
+        JsonNode conditions = root.path("conditions");
+        String costRegex = checkRegex(required(conditions, "cost"), "conditions.cost");
+        String percentageRegex = checkRegex(required(conditions, "percentage"), "conditions.percentage");
+        String limitRegex = checkRegex(required(conditions, "limit"), "conditions.limit");
+        Concept[] priorAuthConcepts = concepts(conditions.path("priorAuthConcepts"));
+        Concept[] limitConcepts = concepts(conditions.path("limitConcepts"));
+        SOBTypeRules.MoopRule moopRule = conditions.has("moopRule")
+                ? SOBTypeRules.MoopRule.valueOf(conditions.path("moopRule").asText()) : null;
+        JsonNode categories = root.path("categories");
+        if (!categories.isObject() || categories.isEmpty()) {
+            throw new IllegalArgumentException("a rule pack needs at least one category");
+        }
+        JsonNode reasons = root.path("matchReasons");
+        if (reasons.isArray() && reasons.size() != 4) {
+            throw new IllegalArgumentException("matchReasons needs the exact, pattern, partial and low confidence reasons");
+        }
+
+        SOBType sobType = SOBType.register(code, root.path("displayName").asText(code), root.path("description").asText(""));
+        // Unset scores and labels keep the defaults every SOB type starts from
+        SOBTypeRules defaults = SOBTypeRules.builder(sobType).costRegex(costRegex)
+                .percentageRegex(percentageRegex).limitRegex(limitRegex).build();
+        SOBTypeRules.Builder rules = SOBTypeRules.builder(sobType)
+                .labelPrefix(root.path("labelPrefix").asText(""))
+                .costRegex(costRegex)
+                .percentageRegex(percentageRegex)
+                .limitRegex(limitRegex);
+
+        for (Map.Entry<String, JsonNode> category : categories.properties()) {
+            JsonNode benefitNames = category.getValue().path("benefitNames");
+            JsonNode columns = category.getValue().path("columns");
+            rules.category(category.getKey(), benefitNames.isArray() ? strings(benefitNames) : null,
+                    columns.isArray() ? strings(columns) : null);
+        }
+        for (Map.Entry<String, JsonNode> term : root.path("medicalTerms").properties()) {
+            rules.medicalTerm(term.getKey(), strings(term.getValue()).toArray(new String[0]));
+        }
+        if (conditions.has("priorAuthConcepts")) rules.priorAuthConcepts(priorAuthConcepts);
+        if (conditions.has("limitConcepts")) rules.limitConcepts(limitConcepts);
+        if (moopRule != null) rules.moopRule(moopRule);
+
+        JsonNode labels = root.path("labels");
+        rules.networkLabels(labels.path("inNetwork").asText(defaults.getInNetworkLabel()),
+                labels.path("outOfNetwork").asText(defaults.getOutOfNetworkLabel()));
+        if (labels.hasNonNull("fullCoverage")) rules.fullCoverageLabel(labels.path("fullCoverage").asText());
+
+        JsonNode scores = root.path("scores");
+        rules.columnScores(scores.path("exactMatch").asDouble(defaults.getExactMatchScore()),
+                        scores.path("patternMatch").asDouble(defaults.getPatternMatchScore()),
+                        scores.path("synonym").asDouble(defaults.getSynonymScore()))
+                .categoryScores(scores.path("categoryMatch").asDouble(defaults.getCategoryMatchScore()),
+                        scores.path("categoryPartialWeight").asDouble(defaults.getCategoryPartialWeight()))
+                .thresholds(scores.path("detected").asDouble(defaults.getDetectedThreshold()),
+                        scores.path("minimum").asDouble(defaults.getMinimumScore()));
+
+        if (reasons.isArray()) {
+            rules.matchReasons(reasons.get(0).asText(), reasons.get(1).asText(), reasons.get(2).asText(), reasons.get(3).asText());
+        }
+
+        Map<String, String> guidelines = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> guideline : root.path("guidelines").properties()) {
+            guidelines.put(guideline.getKey(), guideline.getValue().asText());
+        }
+
+        return new RulePackProcessor(rules.build(), version, source, revision, guidelines);
+    }
+
+    private static String required(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual() || value.asText().isBlank()) {
+            throw new IllegalArgumentException("missing \"" + field + "\"");
+        }
+        return value.asText();
+    }
+
+    private static String checkRegex(String regex, String field) {
+        try {
+            Pattern.compile(regex);
+            return regex;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(field + " is not a valid regex: " + e.getMessage());
+        }
+    }
+
+    private static Concept[] concepts(JsonNode names) {
+        List<Concept> concepts = new ArrayList<>();
+        for (String name : strings(names)) {
+            concepts.add(Concept.valueOf(name));
+        }
+        return concepts.toArray(new Concept[0]);
+    }
+
+    private static List<String> strings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    /**
+     * Dotted version comparison, numeric per part ("1.10" is newer than "1.9")
+     */
+    static int compareVersions(String a, String b) {
+        String[] left = a.split("\\.");
+        String[] right = b.split("\\.");
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            String l = i < left.length ? left[i] : "0";
+            String r = i < right.length ? right[i] : "0";
+            int result = l.matches("\\d+") && r.matches("\\d+")
+                    ? Long.compare(Long.parseLong(l), Long.parseLong(r))
+                    : l.compareTo(r);
+            if (result != 0) return result;
+        }
+        return 0;
+    }
+
+    /**
+     * A registered SOB type and where its rules come from
+     */
+    public static class SOBTypeInfo {
+        private final String code;
+        private final String displayName;
+        private final String description;
+        private final String source;
+        private final String version;
+        private final int categories;
+
+        public SOBTypeInfo(String code, String displayName, String description, String source, String version, int categories) {
+            this.code = code;
+            this.displayName = displayName;
+            this.description = description;
+            this.source = source;
+            this.version = version;
+            this.categories = categories;
+        }
+
+        // Getters
+        public String getCode() { return code; }
+        public String getDisplayName() { return displayName; }
+        public String getDescription() { return description; }
+        public String getSource() { return source; }
+        public String getVersion() { return version; }
+        public int getCategories() { return categories; }
+    }
+}
@@ -0,0 +1,210 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.service.impl.KeywordConceptScanner.Concept;
+
+/**
+ * Everything that differs between SOB types, as data: column and benefit name patterns,
+ * synonyms, condition regexes and keyword concepts, scores and thresholds, and the labels
+ * put on mappings and issues. {@link AbstractSOBTypeProcessor} compiles a rule set once into
+ * the lookup structures it matches with.
+ */
+public class SOBTypeRules {
+
+    /**
+     * How a VBM cell's MOOP statement is read
+     */
+    public enum MoopRule {
+        APPLIES_UNLESS_EXCLUDED,  // MOOP applies unless the cell says it does not
+        APPLIES_WHEN_INCLUDED     // MOOP applies only if the cell says so
+    }
+
+    private final SOBType sobType;
+    private final String labelPrefix;
+    private final Map<String, List<String>> benefitNamePatterns;
+    private final Map<String, List<String>> vbmColumnPatterns;
+    private final Map<String, List<String>> medicalTerms;
+    private final String costRegex;
+    private final String percentageRegex;
+    private final String limitRegex;
+    private final Set<Concept> priorAuthConcepts;
+    private final Set<Concept> limitConcepts;
+    private final MoopRule moopRule;
+    private final String inNetworkLabel;
+    private final String outOfNetworkLabel;
+    private final String fullCoverageLabel;
+    private final double exactMatchScore;
+    private final double patternMatchScore;
+    private final double synonymScore;
+    private final double categoryMatchScore;
+    private final double categoryPartialWeight;
+    private final double detectedThreshold;
+    private final double minimumScore;
+    private final List<String> matchReasons;
+
+    private SOBTypeRules(Builder builder) {
+        this.sobType = builder.sobType;
+        this.labelPrefix = builder.labelPrefix;
+        this.benefitNamePatterns = freeze(builder.benefitNamePatterns);
+        this.vbmColumnPatterns = freeze(builder.vbmColumnPatterns);
+        this.medicalTerms = freeze(builder.medicalTerms);
+        this.costRegex = builder.costRegex;
+        this.percentageRegex = builder.percentageRegex;
+        this.limitRegex = builder.limitRegex;
+        this.priorAuthConcepts = Collections.unmodifiableSet(EnumSet.copyOf(builder.priorAuthConcepts));
+        this.limitConcepts = Collections.unmodifiableSet(EnumSet.copyOf(builder.limitConcepts));
+        this.moopRule = builder.moopRule;
+        this.inNetworkLabel = builder.inNetworkLabel;
+        this.outOfNetworkLabel = builder.outOfNetworkLabel;
+        this.fullCoverageLabel = builder.fullCoverageLabel;
+        this.exactMatchScore = builder.exactMatchScore;
+        this.patternMatchScore = builder.patternMatchScore;
+        this.synonymScore = builder.synonymScore;
+        this.categoryMatchScore = builder.categoryMatchScore;
+        this.categoryPartialWeight = builder.categoryPartialWeight;
+        this.detectedThreshold = builder.detectedThreshold;
+        this.minimumScore = builder.minimumScore;
+        this.matchReasons = List.copyOf(builder.matchReasons);
+    }
+
+    // Insertion order is kept, so matching walks categories in the order they were declared
+    private static Map<String, List<String>> freeze(Map<String, List<String>> patterns) {
+        Map<String, List<String>> frozen = new LinkedHashMap<>();
+        patterns.forEach((key, values) -> frozen.put(key, List.copyOf(values)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    public static Builder builder(SOBType sobType) {
+        return new Builder(sobType);
+    }
+
+    public SOBType getSobType() { return sobType; }
+    /** Prefix for log lines, match reasons and issue codes ("GHI"), empty for none */
+    public String getLabelPrefix() { return labelPrefix; }
+    public Map<String, List<String>> getBenefitNamePatterns() { return benefitNamePatterns; }
+    public Map<String, List<String>> getVbmColumnPatterns() { return vbmColumnPatterns; }
+    /** Benefit name term -> column abbreviations it is known by */
+    public Map<String, List<String>> getMedicalTerms() { return medicalTerms; }
+    public String getCostRegex() { return costRegex; }
+    public String getPercentageRegex() { return percentageRegex; }
+    public String getLimitRegex() { return limitRegex; }
+    public Set<Concept> getPriorAuthConcepts() { return priorAuthConcepts; }
+    public Set<Concept> getLimitConcepts() { return limitConcepts; }
+    public MoopRule getMoopRule() { return moopRule; }
+    public String getInNetworkLabel() { return inNetworkLabel; }
+    public String getOutOfNetworkLabel() { return outOfNetworkLabel; }
+    public String getFullCoverageLabel() { return fullCoverageLabel; }
+    public double getExactMatchScore() { return exactMatchScore; }
+    public double getPatternMatchScore() { return patternMatchScore; }
+    public double getSynonymScore() { return synonymScore; }
+    public double getCategoryMatchScore() { return categoryMatchScore; }
+    public double getCategoryPartialWeight() { return categoryPartialWeight; }
+    public double getDetectedThreshold() { return detectedThreshold; }
+    public double getMinimumScore() { return minimumScore; }
+    /** Reasons for an exact, pattern, partial and low confidence match, in that order */
+    public List<String> getMatchReasons() { return matchReasons; }
+
+    public static class Builder {
+        private final SOBType sobType;
+        private String labelPrefix = "";
+        private final Map<String, List<String>> benefitNamePatterns = new LinkedHashMap<>();
+        private final Map<String, List<String>> vbmColumnPatterns = new LinkedHashMap<>();
+        private final Map<String, List<String>> medicalTerms = new LinkedHashMap<>();
+        private String costRegex;
+        private String percentageRegex;
+        private String limitRegex;
+        private Set<Concept> priorAuthConcepts = EnumSet.noneOf(Concept.class);
+        private Set<Concept> limitConcepts = EnumSet.of(Concept.LIMIT);
+        private MoopRule moopRule = MoopRule.APPLIES_UNLESS_EXCLUDED;
+        private String inNetworkLabel = "INN";
+        private String outOfNetworkLabel = "OON";
+        private String fullCoverageLabel;
+        private double exactMatchScore = 0.8;
+        private double patternMatchScore = 0.6;
+        private double synonymScore = 0.3;
+        private double categoryMatchScore = 0.9;
+        private double categoryPartialWeight = 0.7;
+        private double detectedThreshold = 0.7;
+        private double minimumScore = 0.4;
+        private List<String> matchReasons = List.of("High confidence substring match", "Pattern-based category match",
+                "Medical terminology similarity", "Low confidence match");
+
+        private Builder(SOBType sobType) {
+            this.sobType = sobType;
+        }
+
+        public Builder labelPrefix(String labelPrefix) { this.labelPrefix = labelPrefix; return this; }
+
+        public Builder category(String category, List<String> benefitNamePatterns, List<String> vbmColumnPatterns) {
+            if (benefitNamePatterns != null) this.benefitNamePatterns.put(category, benefitNamePatterns);
+            if (vbmColumnPatterns != null) this.vbmColumnPatterns.put(category, vbmColumnPatterns);
+            return this;
+        }
+
+        public Builder medicalTerm(String term, String... synonyms) {
+            this.medicalTerms.put(term, Arrays.asList(synonyms));
+            return this;
+        }
+
+        public Builder costRegex(String costRegex) { this.costRegex = costRegex; return this; }
+        public Builder percentageRegex(String percentageRegex) { this.percentageRegex = percentageRegex; return this; }
+        public Builder limitRegex(String limitRegex) { this.limitRegex = limitRegex; return this; }
+        public Builder priorAuthConcepts(Concept... concepts) { this.priorAuthConcepts = toSet(concepts); return this; }
+        public Builder limitConcepts(Concept... concepts) { this.limitConcepts = toSet(concepts); return this; }
+        public Builder moopRule(MoopRule moopRule) { this.moopRule = moopRule; return this; }
+
+        public Builder networkLabels(String inNetworkLabel, String outOfNetworkLabel) {
+            this.inNetworkLabel = inNetworkLabel;
+            this.outOfNetworkLabel = outOfNetworkLabel;
+            return this;
+        }
+
+        public Builder fullCoverageLabel(String fullCoverageLabel) { this.fullCoverageLabel = fullCoverageLabel; return this; }
+
+        public Builder columnScores(double exactMatchScore, double patternMatchScore, double synonymScore) {
+            this.exactMatchScore = exactMatchScore;
+            this.patternMatchScore = patternMatchScore;
+            this.synonymScore = synonymScore;
+            return this;
+        }
+
+        public Builder categoryScores(double categoryMatchScore, double categoryPartialWeight) {
+            this.categoryMatchScore = categoryMatchScore;
+            this.categoryPartialWeight = categoryPartialWeight;
+            return this;
+        }
+
+        public Builder thresholds(double detectedThreshold, double minimumScore) {
+            this.detectedThreshold = detectedThreshold;
+            this.minimumScore = minimumScore;
+            return this;
+        }
+
+        public Builder matchReasons(String exact, String pattern, String partial, String low) {
+            this.matchReasons = new ArrayList<>(List.of(exact, pattern, partial, low));
+            return this;
+        }
+
+        public SOBTypeRules build() {
+            if (sobType == null || costRegex == null || percentageRegex == null || limitRegex == null) {
+                throw new IllegalStateException("SOB type rules need a type and cost, percentage and limit patterns");
+            }
+            return new SOBTypeRules(this);
+        }
+
+        private static Set<Concept> toSet(Concept... concepts) {
+            Set<Concept> set = EnumSet.noneOf(Concept.class);
+            set.addAll(Arrays.asList(concepts));
+            return set;
+        }
+    }
+}
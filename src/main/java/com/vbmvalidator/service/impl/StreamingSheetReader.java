@@ -0,0 +1,251 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Forward-only reader for the first worksheet of an .xlsx file, built on the POI event model
+ * (XSSFReader + SAX). Rows are handed to a {@link RowHandler} one at a time and only the
+ * current row is buffered, so heap use does not grow with the number of rows in the sheet.
+ *
+ * Cell values are rendered the same way as ExcelProcessor renders loaded cells: numbers
+ * without a fractional part as longs, date-formatted numbers via {@code Date.toString()},
+ * booleans as "true"/"false" and formula cells as their formula text.
+ */
+public class StreamingSheetReader {
+
+    /**
+     * Receives sheet rows in document order
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * @param rowNum zero-based row index (same as {@code Row.getRowNum()})
+         * @param cells  untrimmed cell values by column index, null where the row has no cell
+         */
+        void handleRow(int rowNum, String[] cells);
+    }
+
+    /**
+     * Stream the first sheet of the workbook to the given handler.
+     * The upload is spooled to a temp file so the zip can be read with random access
+     * instead of being inflated into memory.
+     */
+    public void readFirstSheet(InputStream inputStream, RowHandler rowHandler) throws IOException {
+        Path tempFile = Files.createTempFile("vbm-sheet-", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+
+            try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = reader.getStylesTable();
+
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    throw new IOException("Workbook does not contain any sheets");
+                }
+
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new SheetHandler(sharedStrings, styles, rowHandler));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read worksheet: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * SAX handler for a single worksheet part. Holds at most one row of values.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final SharedStrings sharedStrings;
+        private final StylesTable styles;
+        private final RowHandler rowHandler;
+
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder inlineText = new StringBuilder();
+        private String[] rowBuffer = new String[32];
+        private int lastColumn = -1;
+        private int rowNum = -1;
+        private int nextColumn;
+
+        // State of the cell being parsed
+        private int column;
+        private String cellType;
+        private int styleIndex;
+        private String value;
+        private String formula;
+        private boolean collectingText;
+        private boolean inInlineString;
+
+        SheetHandler(SharedStrings sharedStrings, StylesTable styles, RowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String ref = attributes.getValue("r");
+                    rowNum = ref != null ? Integer.parseInt(ref) - 1 : rowNum + 1;
+                    lastColumn = -1;
+                    nextColumn = 0;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? columnIndex(ref) : nextColumn;
+                    cellType = attributes.getValue("t");
+                    String style = attributes.getValue("s");
+                    styleIndex = style != null ? Integer.parseInt(style) : 0;
+                    value = null;
+                    formula = null;
+                    inlineText.setLength(0);
+                }
+                case "v", "f" -> {
+                    text.setLength(0);
+                    collectingText = true;
+                }
+                case "is" -> inInlineString = true;
+                case "t" -> {
+                    if (inInlineString) {
+                        text.setLength(0);
+                        collectingText = true;
+                    }
+                }
+                default -> { /* Not needed for cell values */ }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v" -> {
+                    value = text.toString();
+                    collectingText = false;
+                }
+                case "f" -> {
+                    formula = text.toString();
+                    collectingText = false;
+                }
+                case "t" -> {
+                    if (inInlineString) {
+                        inlineText.append(text);
+                        collectingText = false;
+                    }
+                }
+                case "is" -> inInlineString = false;
+                case "c" -> {
+                    ensureCapacity(column);
+                    rowBuffer[column] = formatCellValue();
+                    lastColumn = Math.max(lastColumn, column);
+                    nextColumn = column + 1;
+                }
+                case "row" -> {
+                    String[] cells = Arrays.copyOf(rowBuffer, lastColumn + 1);
+                    Arrays.fill(rowBuffer, 0, lastColumn + 1, null);
+                    rowHandler.handleRow(rowNum, cells);
+                }
+                default -> { /* Not needed for cell values */ }
+            }
+        }
+
+        private String formatCellValue() {
+            // Formula cells are reported by their formula text, as in the loaded-workbook path
+            if (formula != null && !formula.isEmpty()) {
+                return formula;
+            }
+
+            if (cellType == null || "n".equals(cellType)) {
+                return formatNumeric();
+            }
+
+            return switch (cellType) {
+                case "s" -> value != null ? sharedStrings.getItemAt(Integer.parseInt(value.trim())).getString() : "";
+                case "inlineStr" -> inlineText.toString();
+                case "b" -> String.valueOf("1".equals(value));
+                case "str", "d" -> value != null ? value : "";
+                default -> "";
+            };
+        }
+
+        private String formatNumeric() {
+            if (value == null || value.isEmpty()) {
+                return "";
+            }
+
+            double numericValue = Double.parseDouble(value);
+            if (isDateFormatted(numericValue)) {
+                return DateUtil.getJavaDate(numericValue).toString();
+            }
+            if (numericValue == Math.floor(numericValue)) {
+                return String.valueOf((long) numericValue);
+            }
+            return String.valueOf(numericValue);
+        }
+
+        private boolean isDateFormatted(double numericValue) {
+            if (styles == null || !DateUtil.isValidExcelDate(numericValue)) {
+                return false;
+            }
+            XSSFCellStyle style = styles.getStyleAt(styleIndex);
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+
+        private void ensureCapacity(int index) {
+            if (index >= rowBuffer.length) {
+                rowBuffer = Arrays.copyOf(rowBuffer, Math.max(index + 1, rowBuffer.length * 2));
+            }
+        }
+
+        private static int columnIndex(String cellReference) {
+            int index = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char ch = cellReference.charAt(i);
+                if (ch < 'A' || ch > 'Z') {
+                    break;
+                }
+                index = index * 26 + (ch - 'A' + 1);
+            }
+            return index - 1;
+        }
+    }
+}
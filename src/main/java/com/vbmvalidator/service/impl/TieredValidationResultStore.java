@@ -0,0 +1,241 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbmvalidator.model.StoredValidation;
+import com.vbmvalidator.service.ValidationResultStore;
+
+/**
+ * Result store with a bounded in-memory LRU tier and an optional local disk tier.
+ * The memory tier is bounded by entry count and by approximate size, since each validation
+ * holds its Vendor Matrix upload. Validations pushed out of memory are spilled to the disk
+ * directory as gzipped JSON when the disk tier is enabled and dropped otherwise; reading a
+ * spilled validation moves it back into memory. Each tier forgets a validation once it has been
+ * there longer than the TTL, and an expired validation is never spilled. Every spill also
+ * deletes expired spill files and, past the disk size cap, the oldest ones.
+ */
+@Service
+public class TieredValidationResultStore implements ValidationResultStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredValidationResultStore.class);
+
+    private static final String SPILL_SUFFIX = ".json.gz";
+
+    // Rough allowance for the parsed models and result on top of the upload bytes
+    private static final long MODEL_WEIGHT_BYTES = 256 * 1024L;
+
+    private final ParseCache<StoredValidation> memory;
+    private final ObjectMapper objectMapper;
+    private final boolean diskEnabled;
+    private final Path directory;
+    private final long diskMaxBytes;
+    private final long ttlMillis;
+
+    @Autowired
+    public TieredValidationResultStore(ObjectMapper objectMapper,
+                                       @Value("${vbm.result-store.memory-entries:64}") int memoryEntries,
+                                       @Value("${vbm.result-store.memory-max-mb:256}") long memoryMaxMb,
+                                       @Value("${vbm.result-store.ttl-minutes:120}") long ttlMinutes,
+                                       @Value("${vbm.result-store.disk.enabled:false}") boolean diskEnabled,
+                                       @Value("${vbm.result-store.disk.directory:${java.io.tmpdir}/vbm-results}") String directory,
+                                       @Value("${vbm.result-store.disk.max-mb:1024}") long diskMaxMb) {
+        // Stored models carry derived getters (counts, display names) that have no setter
+        this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.diskEnabled = diskEnabled;
+        this.directory = Paths.get(directory);
+        this.diskMaxBytes = diskMaxMb * 1024 * 1024;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.memory = new ParseCache<>("validation-store", memoryEntries, memoryMaxMb * 1024 * 1024,
+                TieredValidationResultStore::weigh, ttlMinutes, TimeUnit.MINUTES, this::spill);
+
+        if (diskEnabled) {
+            try {
+                Files.createDirectories(this.directory);
+                trimSpills();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create result store directory " + this.directory, e);
+            }
+        }
+        log.info("Initialized TieredValidationResultStore: {} entries / {} MB in memory, disk tier {}", memoryEntries,
+                memoryMaxMb, diskEnabled ? this.directory + " (" + diskMaxMb + " MB)" : "disabled");
+    }
+
+    public TieredValidationResultStore(ObjectMapper objectMapper, int memoryEntries, long memoryMaxMb,
+                                       long ttlMinutes, boolean diskEnabled, String directory) {
+        this(objectMapper, memoryEntries, memoryMaxMb, ttlMinutes, diskEnabled, directory, 1024);
+    }
+
+    public TieredValidationResultStore(ObjectMapper objectMapper, int memoryEntries, long ttlMinutes,
+                                       boolean diskEnabled, String directory) {
+        this(objectMapper, memoryEntries, 256, ttlMinutes, diskEnabled, directory);
+    }
+
+    private static long weigh(StoredValidation validation) {
+        byte[] upload = validation.getVendorMatrixUpload();
+        return MODEL_WEIGHT_BYTES + (upload != null ? upload.length : 0);
+    }
+
+    @Override
+    public void put(StoredValidation validation) {
+        memory.put(validation.getValidationId(), validation);
+    }
+
+    @Override
+    public StoredValidation get(String validationId) {
+        if (validationId == null) return null;
+
+        StoredValidation validation = memory.get(validationId);
+        if (validation != null || !diskEnabled) {
+            return validation;
+        }
+
+        validation = readSpill(validationId);
+        if (validation != null) {
+            memory.put(validationId, validation);
+        }
+        return validation;
+    }
+
+    @Override
+    public void remove(String validationId) {
+        if (validationId == null) return;
+        memory.remove(validationId);
+        if (diskEnabled) {
+            deleteQuietly(spillPath(validationId));
+        }
+    }
+
+    public ParseCache.Stats getStats() {
+        return memory.getStats();
+    }
+
+    /**
+     * Approximate bytes held by the memory tier
+     */
+    public long getMemoryWeight() {
+        return memory.getWeight();
+    }
+
+    private void spill(String validationId, StoredValidation validation) {
+        if (!diskEnabled) {
+            log.debug("Dropped validation {} from the result store", validationId);
+            return;
+        }
+
+        Path target = spillPath(validationId);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                objectMapper.writeValue(out, validation);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Spilled validation {} to {}", validationId, target);
+        } catch (IOException e) {
+            log.warn("Could not spill validation {} to disk: {}", validationId, e.getMessage());
+            deleteQuietly(temp);
+        }
+
+        try {
+            trimSpills();
+        } catch (IOException e) {
+            log.warn("Could not trim result store directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private StoredValidation readSpill(String validationId) {
+        Path source = spillPath(validationId);
+        if (!Files.exists(source)) return null;
+
+        try {
+            if (isExpired(Files.getLastModifiedTime(source))) {
+                deleteQuietly(source);
+                return null;
+            }
+            StoredValidation validation;
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(source))) {
+                validation = objectMapper.readValue(in, StoredValidation.class);
+            }
+            // Back in memory now; it is written out again if evicted
+            deleteQuietly(source);
+            return validation;
+        } catch (IOException e) {
+            log.warn("Could not read spilled validation {}: {}", validationId, e.getMessage());
+            deleteQuietly(source);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes expired spill files, then the oldest ones until the rest fit under the disk cap
+     */
+    private void trimSpills() throws IOException {
+        List<SpillFile> current = new ArrayList<>();
+        try (DirectoryStream<Path> spills = Files.newDirectoryStream(directory, "*" + SPILL_SUFFIX)) {
+            for (Path spill : spills) {
+                try {
+                    FileTime writtenAt = Files.getLastModifiedTime(spill);
+                    if (isExpired(writtenAt)) {
+                        deleteQuietly(spill);
+                    } else {
+                        current.add(new SpillFile(spill, writtenAt, Files.size(spill)));
+                    }
+                } catch (IOException e) {
+                    // Read back or trimmed by another thread meanwhile
+                    log.debug("Skipped spill file {}: {}", spill, e.getMessage());
+                }
+            }
+        }
+
+        current.sort(Comparator.comparing(SpillFile::writtenAt).reversed());
+        long kept = 0;
+        for (SpillFile spill : current) {
+            kept += spill.size();
+            if (kept > diskMaxBytes) {
+                log.debug("Dropped spill file {} over the {} byte disk cap", spill.path(), diskMaxBytes);
+                deleteQuietly(spill.path());
+            }
+        }
+    }
+
+    private record SpillFile(Path path, FileTime writtenAt, long size) {
+    }
+
+    private boolean isExpired(FileTime writtenAt) {
+        return System.currentTimeMillis() - writtenAt.toMillis() > ttlMillis;
+    }
+
+    // Validation IDs are generated server-side, but never let one escape the directory
+    private Path spillPath(String validationId) {
+        return directory.resolve(validationId.replaceAll("[^A-Za-z0-9_-]", "_") + SPILL_SUFFIX);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
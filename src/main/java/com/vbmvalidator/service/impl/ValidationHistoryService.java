@@ -0,0 +1,113 @@
+package com.vbmvalidator.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vbmvalidator.entity.ValidationEntity;
+import com.vbmvalidator.entity.ValidationErrorEntity;
+import com.vbmvalidator.model.ValidationError;
+import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.repository.ValidationRepository;
+
+/**
+ * Saves finished validations to the database and reads the history back.
+ * Only present with the {@code persistence} profile; the error rows of a validation go out as
+ * JDBC batches (see application-persistence.properties).
+ */
+@Service
+@Profile("persistence")
+public class ValidationHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationHistoryService.class);
+
+    private final ValidationRepository validationRepository;
+    private final ObjectMapper objectMapper;
+
+    public ValidationHistoryService(ValidationRepository validationRepository, ObjectMapper objectMapper) {
+        this.validationRepository = validationRepository;
+        this.objectMapper = objectMapper;
+        log.info("Validation history persistence enabled");
+    }
+
+    @Transactional
+    public ValidationEntity save(ValidationResult result) {
+        ValidationEntity entity = toEntity(result);
+        ValidationEntity saved = validationRepository.save(entity);
+        log.debug("Saved validation {} with {} errors", result.getValidationId(), entity.getErrors().size());
+        return saved;
+    }
+
+    @Transactional
+    public void saveAll(List<ValidationResult> results) {
+        validationRepository.saveAll(results.stream().map(this::toEntity).toList());
+        log.debug("Saved {} validations", results.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ValidationEntity> findRecent(int limit) {
+        return validationRepository.findAll(
+                PageRequest.of(0, Math.max(1, limit), Sort.by(Sort.Direction.DESC, "createdAt"))).getContent();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ValidationEntity> findByValidationId(String validationId) {
+        return validationRepository.findByValidationId(validationId);
+    }
+
+    private ValidationEntity toEntity(ValidationResult result) {
+        ValidationEntity entity = new ValidationEntity();
+        entity.setValidationId(result.getValidationId());
+        entity.setSobType(result.getSobType() != null ? result.getSobType().name() : "UNKNOWN");
+        entity.setSobFileName(result.getSobFileName() != null ? result.getSobFileName() : "");
+        entity.setVendorMatrixFileName(result.getVendorMatrixFileName() != null ? result.getVendorMatrixFileName() : "");
+        entity.setValidatedAt(result.getValidatedAt() != null ? result.getValidatedAt() : LocalDateTime.now());
+        entity.setStatus(result.getStatus() != null ? result.getStatus().name() : "UNKNOWN");
+        entity.setTotalErrors(result.getTotalErrors());
+        entity.setTotalWarnings(result.getTotalWarnings());
+        entity.setValidationSummary(toJson(result.getSummary()));
+
+        if (result.getErrors() != null) {
+            for (ValidationError error : result.getErrors()) {
+                entity.addError(toEntity(error));
+            }
+        }
+        return entity;
+    }
+
+    private ValidationErrorEntity toEntity(ValidationError error) {
+        ValidationErrorEntity entity = new ValidationErrorEntity();
+        entity.setErrorId(error.getErrorId());
+        entity.setErrorType(error.getErrorType() != null ? error.getErrorType().name() : "UNKNOWN");
+        entity.setSeverity(error.getSeverity() != null ? error.getSeverity().name() : "UNKNOWN");
+        entity.setBenefitCategory(error.getBenefitCategory());
+        entity.setFieldName(error.getFieldName());
+        entity.setSobValue(error.getSobValue());
+        entity.setVendorMatrixValue(error.getVendorMatrixValue());
+        entity.setExpectedValue(error.getExpectedValue());
+        entity.setDescription(error.getDescription());
+        entity.setRecommendation(error.getRecommendation());
+        entity.setSelected(error.isSelected());
+        return entity;
+    }
+
+    private String toJson(Object value) {
+        if (value == null) return null;
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize validation summary: {}", e.getMessage());
+            return null;
+        }
+    }
+}
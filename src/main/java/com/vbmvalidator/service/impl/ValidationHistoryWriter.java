@@ -0,0 +1,228 @@
+package com.vbmvalidator.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.vbmvalidator.model.ValidationResult;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind front of {@link ValidationHistoryService}.
+ * Finished results are queued and saved in batches by a background writer, once a batch is
+ * full or the flush interval has passed, so request threads never wait on the database.
+ * When the queue is full, a caller waits up to the offer timeout and then saves its result
+ * itself, so writes slow down instead of getting lost. On shutdown the queue is drained; a
+ * result submitted after that is saved by its caller.
+ */
+@Service
+@Profile("persistence")
+public class ValidationHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationHistoryWriter.class);
+
+    private final ValidationHistoryService historyService;
+    private final BlockingQueue<ValidationResult> queue;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    // Submitters check running and enqueue under the read lock; shutdown flips it under the write lock
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    public ValidationHistoryWriter(ValidationHistoryService historyService,
+                                   @Value("${vbm.history.write-behind.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${vbm.history.write-behind.flush-size:50}") int flushSize,
+                                   @Value("${vbm.history.write-behind.flush-interval-millis:1000}") long flushIntervalMillis,
+                                   @Value("${vbm.history.write-behind.offer-timeout-millis:500}") long offerTimeoutMillis) {
+        this.historyService = historyService;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.flushSize = Math.max(1, flushSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+        this.writerThread = new Thread(this::runWriter, "vbm-history-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        log.info("Initialized ValidationHistoryWriter: queue {}, flush size {}, flush interval {} ms",
+                queue.remainingCapacity(), this.flushSize, flushIntervalMillis);
+    }
+
+    /**
+     * Queue a result for saving. Blocks only when the queue is full.
+     */
+    public void submit(ValidationResult result) {
+        boolean stopped = false;
+        submitLock.readLock().lock();
+        try {
+            stopped = !running;
+            if (!stopped && queue.offer(result, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                enqueued.increment();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            submitLock.readLock().unlock();
+        }
+
+        // Queue full (or shut down): write on the caller's thread
+        callerWrites.increment();
+        log.warn("History {}, saving validation {} on the request thread",
+                stopped ? "writer stopped" : "queue full", result.getValidationId());
+        flush(List.of(result));
+    }
+
+    private void runWriter() {
+        List<ValidationResult> batch = new ArrayList<>(flushSize);
+        while (running) {
+            try {
+                ValidationResult first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+
+                // Collect until the batch is full or the interval since its first result has passed
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0) break;
+                    ValidationResult next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Whatever was taken off the queue but not yet saved
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<ValidationResult> batch) {
+        long start = System.nanoTime();
+        try {
+            historyService.saveAll(batch);
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // One bad result should not cost the rest of the batch
+                log.warn("Batch save of {} validations failed, retrying one by one: {}", batch.size(), e.getMessage());
+                for (ValidationResult result : batch) {
+                    flush(List.of(result));
+                }
+                return;
+            }
+            failed.add(batch.size());
+            log.error("Could not save validation {} to history", batch.get(0).getValidationId(), e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushes.increment();
+            totalFlushNanos.add(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+            lastFlushNanos = elapsed;
+        }
+    }
+
+    /**
+     * Stop the writer and save everything still queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        // Waits for submitters still offering, so nothing is enqueued after the final drain below
+        submitLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<ValidationResult> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += flushSize) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + flushSize)));
+        }
+        log.info("ValidationHistoryWriter stopped, drained {} queued validations", remaining.size());
+    }
+
+    public Stats getStats() {
+        long flushCount = flushes.sum();
+        return new Stats(queue.size(), queue.size() + queue.remainingCapacity(), enqueued.sum(), written.sum(),
+                failed.sum(), callerWrites.sum(), flushCount,
+                flushCount == 0 ? 0.0 : totalFlushNanos.sum() / 1_000_000.0 / flushCount,
+                maxFlushNanos.get() / 1_000_000.0, lastFlushNanos / 1_000_000.0);
+    }
+
+    /**
+     * Point-in-time writer metrics; latencies in milliseconds
+     */
+    public static class Stats {
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long enqueued;
+        private final long written;
+        private final long failed;
+        private final long callerWrites;
+        private final long flushes;
+        private final double averageFlushMillis;
+        private final double maxFlushMillis;
+        private final double lastFlushMillis;
+
+        public Stats(int queueDepth, int queueCapacity, long enqueued, long written, long failed, long callerWrites,
+                     long flushes, double averageFlushMillis, double maxFlushMillis, double lastFlushMillis) {
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.enqueued = enqueued;
+            this.written = written;
+            this.failed = failed;
+            this.callerWrites = callerWrites;
+            this.flushes = flushes;
+            this.averageFlushMillis = averageFlushMillis;
+            this.maxFlushMillis = maxFlushMillis;
+            this.lastFlushMillis = lastFlushMillis;
+        }
+
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public long getEnqueued() { return enqueued; }
+        public long getWritten() { return written; }
+        public long getFailed() { return failed; }
+        public long getCallerWrites() { return callerWrites; }
+        public long getFlushes() { return flushes; }
+        public double getAverageFlushMillis() { return averageFlushMillis; }
+        public double getMaxFlushMillis() { return maxFlushMillis; }
+        public double getLastFlushMillis() { return lastFlushMillis; }
+    }
+}
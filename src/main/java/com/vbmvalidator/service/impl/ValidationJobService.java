@@ -0,0 +1,328 @@
+package com.vbmvalidator.service.impl;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.vbmvalidator.model.SOBData;
+import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.model.StoredValidation;
+import com.vbmvalidator.model.ValidationJob;
+import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.model.ValidationStage;
+import com.vbmvalidator.model.VendorMatrixData;
+import com.vbmvalidator.service.ValidationResultStore;
+import com.vbmvalidator.service.ValidationService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs upload-and-validate requests off the request thread.
+ * A submitted job is parsed and validated on a small worker pool with a bounded queue; when the
+ * queue is full, submit is refused rather than holding more uploads in memory. Every stage change
+ * is pushed to the job's listeners (the SSE endpoint) from a separate notifier pool, so a slow
+ * client never holds up a worker. The outputs of a finished job go to the result store; the job
+ * itself can be looked up by job ID or by the validation ID of its result until it is forgotten
+ * after the retention period.
+ */
+@Service
+public class ValidationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationJobService.class);
+
+    // A listener this far behind is not reading its events; there are only a handful per job
+    private static final int MAX_PENDING_UPDATES = 32;
+
+    /**
+     * Receives a job snapshot on every stage change, and once more when it finishes
+     */
+    @FunctionalInterface
+    public interface JobListener {
+        void onUpdate(ValidationJob job) throws IOException;
+    }
+
+    /**
+     * The worker queue is full; the client should retry later
+     */
+    public static class JobQueueFullException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public JobQueueFullException(String message) {
+            super(message);
+        }
+    }
+
+    private final DocumentProcessorService documentProcessorService;
+    private final ValidationService validationService;
+    private final ValidationResultStore resultStore;
+    private final Optional<ValidationHistoryWriter> historyWriter;
+    private final ThreadPoolExecutor workerPool;
+    private final ExecutorService notifierPool;
+    private final long retentionMillis;
+
+    private final Map<String, ValidationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, String> jobIdsByValidationId = new ConcurrentHashMap<>();
+    private final Map<String, List<Subscription>> listeners = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ValidationJobService(DocumentProcessorService documentProcessorService,
+                                ValidationService validationService,
+                                ValidationResultStore resultStore,
+                                Optional<ValidationHistoryWriter> historyWriter,
+                                @Value("${vbm.jobs.worker-threads:2}") int workerThreads,
+                                @Value("${vbm.jobs.retention-minutes:30}") long retentionMinutes,
+                                @Value("${vbm.jobs.max-queued:16}") int maxQueuedJobs) {
+        this.documentProcessorService = documentProcessorService;
+        this.validationService = validationService;
+        this.resultStore = resultStore;
+        this.historyWriter = historyWriter;
+        this.retentionMillis = retentionMinutes * 60_000L;
+        int threads = Math.max(1, workerThreads);
+        this.workerPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueuedJobs)), daemonThreads("vbm-job-"));
+        this.notifierPool = Executors.newFixedThreadPool(threads, daemonThreads("vbm-job-events-"));
+        log.info("Initialized ValidationJobService with {} worker threads, up to {} queued jobs", threads, Math.max(1, maxQueuedJobs));
+    }
+
+    public ValidationJobService(DocumentProcessorService documentProcessorService,
+                                ValidationService validationService,
+                                ValidationResultStore resultStore,
+                                Optional<ValidationHistoryWriter> historyWriter,
+                                int workerThreads,
+                                long retentionMinutes) {
+        this(documentProcessorService, validationService, resultStore, historyWriter, workerThreads, retentionMinutes, 16);
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queue a validation run. The uploads are copied into memory so they outlive the request.
+     *
+     * @throws JobQueueFullException if the worker queue is full
+     */
+    public ValidationJob submit(MultipartFile sobFile, MultipartFile vendorMatrixFile, SOBType sobType) throws IOException {
+        purgeExpiredJobs();
+        // Refuse before copying the uploads; execute below still enforces the bound under races
+        if (workerPool.getQueue().remainingCapacity() == 0) {
+            throw queueFull();
+        }
+
+        MultipartFile sobCopy = new InMemoryMultipartFile(sobFile.getName(), sobFile.getOriginalFilename(),
+                sobFile.getContentType(), sobFile.getBytes());
+        MultipartFile vendorMatrixCopy = new InMemoryMultipartFile(vendorMatrixFile.getName(), vendorMatrixFile.getOriginalFilename(),
+                vendorMatrixFile.getContentType(), vendorMatrixFile.getBytes());
+
+        ValidationJob job = new ValidationJob(UUID.randomUUID().toString(), sobFile.getOriginalFilename(),
+                vendorMatrixFile.getOriginalFilename(), sobType);
+        jobs.put(job.getJobId(), job);
+        try {
+            workerPool.execute(() -> run(job, sobCopy, vendorMatrixCopy));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw queueFull();
+        }
+        log.info("Queued validation job {} for {} / {}", job.getJobId(), job.getSobFileName(), job.getVendorMatrixFileName());
+        return job;
+    }
+
+    private JobQueueFullException queueFull() {
+        log.warn("Validation job queue is full ({} waiting), rejecting job", workerPool.getQueue().size());
+        return new JobQueueFullException("Too many validation jobs waiting, try again later");
+    }
+
+    public ValidationJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    public ValidationJob findByValidationId(String validationId) {
+        String jobId = jobIdsByValidationId.get(validationId);
+        return jobId != null ? jobs.get(jobId) : null;
+    }
+
+    /**
+     * Follow a job's progress. The listener gets the current state first, then every change in
+     * order, each as a snapshot on a notifier thread. It is dropped once the job finishes, when
+     * it throws, or when it falls too far behind.
+     *
+     * @return false if the job is unknown
+     */
+    public boolean subscribe(String jobId, JobListener listener) {
+        ValidationJob job = jobs.get(jobId);
+        if (job == null) return false;
+
+        Subscription subscription = new Subscription(jobId, listener);
+        synchronized (job) {
+            if (subscription.offer(job.snapshot()) && !job.isFinished()) {
+                listeners.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(subscription);
+            }
+        }
+        return true;
+    }
+
+    private void run(ValidationJob job, MultipartFile sobFile, MultipartFile vendorMatrixFile) {
+        job.setState(ValidationJob.State.RUNNING);
+        try {
+            advance(job, ValidationStage.PARSE_SOB);
+            SOBData sobData = documentProcessorService.extractSOBData(sobFile);
+
+            advance(job, ValidationStage.PARSE_VBM);
+            VendorMatrixData vendorMatrixData = documentProcessorService.extractVendorMatrixData(vendorMatrixFile);
+
+            SOBType sobType = job.getSobType() != null ? job.getSobType() : sobData.getSobType();
+            ValidationResult result = validationService.validateWithSOBType(sobData, vendorMatrixData, sobType,
+                    stage -> advance(job, stage));
+
+            resultStore.put(new StoredValidation(sobType, sobData, vendorMatrixData, result, vendorMatrixFile.getBytes()));
+            historyWriter.ifPresent(writer -> writer.submit(result));
+            job.setValidationId(result.getValidationId());
+            jobIdsByValidationId.put(result.getValidationId(), job.getJobId());
+            finish(job, ValidationJob.State.COMPLETED, ValidationStage.COMPLETED,
+                    "Validation completed with " + result.getTotalErrors() + " errors, " + result.getTotalWarnings() + " warnings");
+        } catch (IOException | RuntimeException e) {
+            log.error("Validation job {} failed", job.getJobId(), e);
+            String message = e instanceof IOException
+                    ? "Error processing files: " + e.getMessage()
+                    : "Unexpected error: " + e.getMessage();
+            finish(job, ValidationJob.State.FAILED, ValidationStage.FAILED, message);
+        }
+    }
+
+    private void advance(ValidationJob job, ValidationStage stage) {
+        synchronized (job) {
+            job.setStage(stage);
+            publish(job);
+        }
+    }
+
+    private void finish(ValidationJob job, ValidationJob.State state, ValidationStage stage, String message) {
+        synchronized (job) {
+            job.setMessage(message);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStage(stage);
+            job.setState(state);
+            publish(job);
+            listeners.remove(job.getJobId());
+        }
+    }
+
+    // Caller holds the job's lock, so updates are queued in stage order; delivery happens on the notifier pool
+    private void publish(ValidationJob job) {
+        List<Subscription> subscriptions = listeners.get(job.getJobId());
+        if (subscriptions == null) return;
+        ValidationJob snapshot = job.snapshot();
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.offer(snapshot)) {
+                subscriptions.remove(subscription);
+            }
+        }
+    }
+
+    /**
+     * One listener's pending updates, delivered in order by at most one notifier task at a time
+     */
+    private final class Subscription {
+        private final String jobId;
+        private final JobListener listener;
+        private final Queue<ValidationJob> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscription(String jobId, JobListener listener) {
+            this.jobId = jobId;
+            this.listener = listener;
+        }
+
+        boolean offer(ValidationJob update) {
+            if (closed) return false;
+            if (pendingCount.incrementAndGet() > MAX_PENDING_UPDATES) {
+                close("more than " + MAX_PENDING_UPDATES + " updates behind");
+                return false;
+            }
+            pending.add(update);
+            return schedule();
+        }
+
+        private boolean schedule() {
+            if (!draining.compareAndSet(false, true)) return true;
+            try {
+                notifierPool.execute(this::drain);
+                return true;
+            } catch (RejectedExecutionException e) {
+                close("service shutting down");
+                return false;
+            }
+        }
+
+        private void drain() {
+            ValidationJob update;
+            while (!closed && (update = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                try {
+                    listener.onUpdate(update);
+                } catch (IOException | RuntimeException e) {
+                    // Typically the client went away; the job carries on
+                    close(e.getMessage());
+                }
+            }
+            draining.set(false);
+            // An update queued after the last poll but before the flag was cleared
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close(String reason) {
+            closed = true;
+            pending.clear();
+            log.debug("Dropping listener of job {}: {}", jobId, reason);
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(retentionMillis * 1_000_000L);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.isFinished() && job.getCompletedAt().isBefore(cutoff);
+            if (expired && job.getValidationId() != null) {
+                jobIdsByValidationId.remove(job.getValidationId());
+            }
+            return expired;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdownNow();
+        notifierPool.shutdownNow();
+    }
+}
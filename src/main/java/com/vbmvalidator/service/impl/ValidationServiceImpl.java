@@ -2,17 +2,23 @@ package com.vbmvalidator.service.impl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.vbmvalidator.model.BenefitComparison;
@@ -24,10 +30,15 @@ import com.vbmvalidator.model.SOBData;
 import com.vbmvalidator.model.SOBType;
 import com.vbmvalidator.model.ValidationError;
 import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.model.ValidationStage;
 import com.vbmvalidator.model.ValidationStatus;
 import com.vbmvalidator.model.ValidationSummary;
 import com.vbmvalidator.model.VendorMatrixData;
+import com.vbmvalidator.service.ValidationProgressListener;
 import com.vbmvalidator.service.ValidationService;
+import com.vbmvalidator.service.impl.KeywordConceptScanner.Concept;
+
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class ValidationServiceImpl implements ValidationService {
@@ -55,6 +66,80 @@ public class ValidationServiceImpl implements ValidationService {
         return guidelines;
     }
 
+    // Bump when validation logic changes in a way that alters results for the same inputs
+    static final String RULES_REVISION = "2025.1";
+
+    /**
+     * Read-only view of the VBM guidelines, for fingerprinting the rule set
+     */
+    static Map<String, String> vbmGuidelines() {
+        return Collections.unmodifiableMap(VBM_GUIDELINES);
+    }
+
+    // Keyword concepts that count as a PA / deductible statement in a VM cell
+    private static final long VM_PA_CONCEPTS = KeywordConceptScanner.mask(
+            Concept.PRIOR_AUTHORIZATION, Concept.PRE_CERT, Concept.PA_REQUIRED);
+    private static final long VM_PA_DETAIL_CONCEPTS = KeywordConceptScanner.mask(
+            Concept.PRIOR_AUTHORIZATION, Concept.PRE_CERT);
+    private static final long VM_DEDUCTIBLE_CONCEPTS = KeywordConceptScanner.mask(
+            Concept.DEDUCTIBLE, Concept.SUBJECT_TO);
+
+    // Parallel per-benefit validation; null executor means always sequential
+    private final ExecutorService validationExecutor;
+    private final int parallelThreshold;
+    private final int parallelism;
+    // Supported SOB types, and per-type guideline rules from rule packs
+    private final SOBTypeRegistry sobTypeRegistry;
+
+    public ValidationServiceImpl() {
+        this(new SOBTypeRegistry(List.of(new HIPHMOProcessor(), new GHIProcessor())), false, 64, 0, "fork-join");
+    }
+
+    @Autowired
+    public ValidationServiceImpl(SOBTypeRegistry sobTypeRegistry,
+                                 @Value("${vbm.validation.parallel.enabled:false}") boolean parallelEnabled,
+                                 @Value("${vbm.validation.parallel.threshold:64}") int parallelThreshold,
+                                 @Value("${vbm.validation.parallel.threads:0}") int threads,
+                                 @Value("${vbm.validation.parallel.executor:fork-join}") String executorType) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.sobTypeRegistry = sobTypeRegistry;
+        this.validationExecutor = parallelEnabled ? createValidationExecutor(executorType, parallelism) : null;
+        if (validationExecutor != null) {
+            log.info("Parallel benefit validation enabled ({} executor, {} threads, threshold {} benefits)",
+                    executorType, parallelism, this.parallelThreshold);
+        }
+    }
+
+    /**
+     * Use the given executor for benefit fan-out (null for sequential validation)
+     */
+    public ValidationServiceImpl(ExecutorService validationExecutor, int parallelThreshold, int parallelism) {
+        this.validationExecutor = validationExecutor;
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+        this.parallelism = Math.max(1, parallelism);
+        this.sobTypeRegistry = new SOBTypeRegistry(List.of(new HIPHMOProcessor(), new GHIProcessor()));
+    }
+
+    private static ExecutorService createValidationExecutor(String executorType, int parallelism) {
+        if ("virtual".equalsIgnoreCase(executorType)) {
+            try {
+                // Looked up reflectively so the class still loads on Java 17 runtimes
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not available on this runtime, using a ForkJoin pool for validation");
+            }
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (validationExecutor != null) {
+            validationExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public ValidationResult validateVendorMatrix(SOBData sobData, VendorMatrixData vendorMatrixData) {
         log.info("Starting generic validation without specific SOB type");
@@ -63,24 +148,41 @@ public class ValidationServiceImpl implements ValidationService {
 
     @Override
     public ValidationResult validateWithSOBType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType) {
+        return validateWithSOBType(sobData, vendorMatrixData, sobType, ValidationProgressListener.NONE);
+    }
+
+    @Override
+    public ValidationResult validateWithSOBType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType,
+                                                ValidationProgressListener progress) {
         log.info("Starting validation for SOB type: {}", sobType);
+        if (sobType != null && !sobTypeRegistry.supports(sobType)) {
+            throw new IllegalArgumentException("Unsupported SOB type: " + sobType.name());
+        }
         
         String validationId = generateValidationId();
-        List<ValidationError> errors = new ArrayList<>();
         
-        // Enhanced validation based on SOB type
-        switch (sobType) {
-            case HIP_HMO -> errors.addAll(validateHIPHMO(sobData, vendorMatrixData));
-            case GHI -> errors.addAll(validateGHI(sobData, vendorMatrixData));
-            default -> errors.addAll(validateGeneric(sobData, vendorMatrixData));
+        // Enhanced validation based on SOB type; any registered type, built-in or from a rule pack
+        List<BenefitValidation> benefitValidations = sobType != null
+                ? validateForType(sobData, vendorMatrixData, sobType, progress)
+                : validateGeneric(sobData, vendorMatrixData, progress);
+        
+        // One pass over the errors feeds the summary, the totals and the per-category grouping
+        List<ValidationError> errors = new ArrayList<>();
+        ErrorTally tally = new ErrorTally();
+        for (BenefitValidation benefitValidation : benefitValidations) {
+            for (ValidationError error : benefitValidation.errors) {
+                errors.add(error);
+                tally.add(error);
+            }
         }
         
         // Create validation summary
-        ValidationSummary summary = createValidationSummary(sobData, errors);
-        ValidationStatus status = determineValidationStatus(errors);
+        ValidationSummary summary = createValidationSummary(sobData, tally);
+        ValidationStatus status = determineValidationStatus(tally);
         
         // Create benefit comparisons for UI
-        List<BenefitComparison> comparisons = createBenefitComparisons(sobData, vendorMatrixData, errors);
+        progress.onStage(ValidationStage.BUILD_COMPARISONS);
+        List<BenefitComparison> comparisons = createBenefitComparisons(benefitValidations, tally);
         
         return ValidationResult.builder()
                 .validationId(validationId)
@@ -89,8 +191,8 @@ public class ValidationServiceImpl implements ValidationService {
                 .errors(errors)
                 .summary(summary)
                 .benefitComparisons(comparisons)
-                .totalErrors((int) errors.stream().filter(e -> e.getSeverity() == ErrorSeverity.CRITICAL || e.getSeverity() == ErrorSeverity.HIGH).count())
-                .totalWarnings((int) errors.stream().filter(e -> e.getSeverity() == ErrorSeverity.MEDIUM || e.getSeverity() == ErrorSeverity.LOW).count())
+                .totalErrors(tally.critical + tally.high)
+                .totalWarnings(tally.medium + tally.low)
                 .validatedAt(LocalDateTime.now())
                 .build();
     }
@@ -111,47 +213,85 @@ public class ValidationServiceImpl implements ValidationService {
                 .build();
     }
 
-    private List<ValidationError> validateHIPHMO(SOBData sobData, VendorMatrixData vendorMatrixData) {
-        log.info("Validating HIP HMO benefits");
-        List<ValidationError> errors = new ArrayList<>();
-        
-        for (SOBBenefit sobBenefit : sobData.getBenefits()) {
-            errors.addAll(validateIndividualBenefit(sobBenefit, vendorMatrixData, SOBType.HIP_HMO));
-        }
-        
-        return errors;
+    private List<BenefitValidation> validateForType(SOBData sobData, VendorMatrixData vendorMatrixData, SOBType sobType,
+                                                    ValidationProgressListener progress) {
+        log.info("Validating {} benefits", sobType);
+        return validateBenefits(sobData.getBenefits(), vendorMatrixData, sobType, progress);
     }
 
+    private List<BenefitValidation> validateGeneric(SOBData sobData, VendorMatrixData vendorMatrixData, ValidationProgressListener progress) {
+        log.info("Validating with generic rules");
+        return validateBenefits(sobData.getBenefits(), vendorMatrixData, null, progress);
+    }
 
-
-    private List<ValidationError> validateGHI(SOBData sobData, VendorMatrixData vendorMatrixData) {
-        log.info("Validating GHI benefits");
-        List<ValidationError> errors = new ArrayList<>();
-        
-        for (SOBBenefit sobBenefit : sobData.getBenefits()) {
-            errors.addAll(validateIndividualBenefit(sobBenefit, vendorMatrixData, SOBType.GHI));
-        }
-        
-        return errors;
+    /**
+     * Map every benefit to its Vendor Matrix value, then validate each benefit independently
+     */
+    private List<BenefitValidation> validateBenefits(List<SOBBenefit> benefits, VendorMatrixData vendorMatrixData,
+                                                     SOBType sobType, ValidationProgressListener progress) {
+        progress.onStage(ValidationStage.MAP);
+        List<String> vmValues = forEachBenefit(benefits, index ->
+                getVendorMatrixValueForBenefit(benefits.get(index), vendorMatrixData));
+        
+        progress.onStage(ValidationStage.VALIDATE);
+        Map<String, String> guidelines = sobTypeRegistry.getGuidelines(sobType);
+        return forEachBenefit(benefits, index ->
+                validateIndividualBenefit(benefits.get(index), vmValues.get(index), sobType, guidelines));
     }
 
-    private List<ValidationError> validateGeneric(SOBData sobData, VendorMatrixData vendorMatrixData) {
-        log.info("Validating with generic rules");
-        List<ValidationError> errors = new ArrayList<>();
+    /**
+     * Run a task per benefit index, fanning out across the validation executor for large SOBs.
+     * Results always come back in benefit order, so the output matches a sequential run.
+     */
+    private <T> List<T> forEachBenefit(List<SOBBenefit> benefits, IntFunction<T> task) {
+        if (validationExecutor == null || benefits.size() < parallelThreshold) {
+            List<T> results = new ArrayList<>(benefits.size());
+            for (int index = 0; index < benefits.size(); index++) {
+                results.add(task.apply(index));
+            }
+            return results;
+        }
         
-        for (SOBBenefit sobBenefit : sobData.getBenefits()) {
-            errors.addAll(validateIndividualBenefit(sobBenefit, vendorMatrixData, null));
+        // Contiguous chunks, a few per thread to even out uneven benefits
+        int chunkCount = Math.min(benefits.size(), parallelism * 4);
+        int chunkSize = (benefits.size() + chunkCount - 1) / chunkCount;
+        List<Future<List<T>>> chunks = new ArrayList<>(chunkCount);
+        for (int start = 0; start < benefits.size(); start += chunkSize) {
+            int chunkStart = start;
+            int chunkEnd = Math.min(start + chunkSize, benefits.size());
+            chunks.add(validationExecutor.submit(() -> {
+                List<T> results = new ArrayList<>(chunkEnd - chunkStart);
+                for (int index = chunkStart; index < chunkEnd; index++) {
+                    results.add(task.apply(index));
+                }
+                return results;
+            }));
         }
         
-        return errors;
+        // Merge in submission order
+        List<T> results = new ArrayList<>(benefits.size());
+        try {
+            for (Future<List<T>> chunk : chunks) {
+                results.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Benefit validation interrupted", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Benefit validation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return results;
     }
 
-    private List<ValidationError> validateIndividualBenefit(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData, SOBType sobType) {
+    private BenefitValidation validateIndividualBenefit(SOBBenefit sobBenefit, String vmValue, SOBType sobType,
+                                                        Map<String, String> guidelines) {
         List<ValidationError> errors = new ArrayList<>();
         
-        // Find corresponding vendor matrix field
-        String vmValue = getVendorMatrixValueForBenefit(sobBenefit, vendorMatrixData);
-        
         // Skip validation if no corresponding VM value found
         if (vmValue == null || vmValue.trim().isEmpty()) {
             // Only report error if this is a critical benefit
@@ -168,7 +308,7 @@ public class ValidationServiceImpl implements ValidationService {
                     "Add this benefit to the Vendor Matrix"
                 ));
             }
-            return errors;
+            return new BenefitValidation(sobBenefit, vmValue, errors);
         }
         
         // 1. Cost Sharing Validation - Main validation for actual costs
@@ -186,25 +326,28 @@ public class ValidationServiceImpl implements ValidationService {
             ));
         }
         
+        // Scan the VM cell once for every PA / deductible / MOOP keyword
+        long vmConcepts = KeywordConceptScanner.scan(vmValue);
+        
         // 2. Enhanced Prior Authorization Validation - Only if PA is required
         if (sobBenefit.getPaRequired() != null && sobBenefit.getPaRequired()) {
-            errors.addAll(validatePriorAuthorizationEnhanced(sobBenefit, vmValue, sobType));
+            errors.addAll(validatePriorAuthorizationEnhanced(sobBenefit, vmValue, vmConcepts, sobType));
         }
         
         // 3. Enhanced Deductible Validation - Only if deductible applies
         if (sobBenefit.getDeductibleApplicable() != null && sobBenefit.getDeductibleApplicable()) {
-            errors.addAll(validateDeductibleEnhanced(sobBenefit, vmValue));
+            errors.addAll(validateDeductibleEnhanced(sobBenefit, vmValue, vmConcepts));
         }
         
         // 4. Enhanced MOOP Validation - Only if MOOP does NOT apply
         if (sobBenefit.getMoopApplicable() != null && !sobBenefit.getMoopApplicable()) {
-            errors.addAll(validateMOOPEnhanced(sobBenefit, vmValue));
+            errors.addAll(validateMOOPEnhanced(sobBenefit, vmValue, vmConcepts));
         }
         
         // 5. VBM Guidelines Validation - Apply specific rules
-        errors.addAll(validateWithVBMGuidelines(sobBenefit, vmValue));
+        errors.addAll(validateWithVBMGuidelines(sobBenefit, vmValue, guidelines));
         
-        return errors;
+        return new BenefitValidation(sobBenefit, vmValue, errors);
     }
     
     private boolean isCriticalBenefit(String pbpCategory) {
@@ -217,7 +360,7 @@ public class ValidationServiceImpl implements ValidationService {
      * Enhanced Prior Authorization validation
      * Check if PA is required and include details/notes
      */
-    private List<ValidationError> validatePriorAuthorizationEnhanced(SOBBenefit sobBenefit, String vmValue, SOBType sobType) {
+    private List<ValidationError> validatePriorAuthorizationEnhanced(SOBBenefit sobBenefit, String vmValue, long vmConcepts, SOBType sobType) {
         List<ValidationError> errors = new ArrayList<>();
         
         // Check if PA is required in SOB
@@ -225,12 +368,7 @@ public class ValidationServiceImpl implements ValidationService {
             String sobPADetails = buildPADetails(sobBenefit);
             
             // Extract PA information from VM value
-            boolean vmHasPA = vmValue != null && (
-                vmValue.toLowerCase().contains("prior authorization") ||
-                vmValue.toLowerCase().contains("pre-cert") ||
-                vmValue.toLowerCase().contains("precert") ||
-                vmValue.toLowerCase().contains("pa required")
-            );
+            boolean vmHasPA = KeywordConceptScanner.any(vmConcepts, VM_PA_CONCEPTS);
             
             if (!vmHasPA) {
                 errors.add(createValidationError(
@@ -272,7 +410,7 @@ public class ValidationServiceImpl implements ValidationService {
      * Enhanced Deductible validation
      * Check if deductible is applicable and include details
      */
-    private List<ValidationError> validateDeductibleEnhanced(SOBBenefit sobBenefit, String vmValue) {
+    private List<ValidationError> validateDeductibleEnhanced(SOBBenefit sobBenefit, String vmValue, long vmConcepts) {
         List<ValidationError> errors = new ArrayList<>();
         
         // Check if deductible is applicable in SOB
@@ -280,11 +418,7 @@ public class ValidationServiceImpl implements ValidationService {
             String deductibleInfo = "Yes - Subject to deductible";
             
             // Check if VM reflects deductible applicability
-            boolean vmHasDeductible = vmValue != null && (
-                vmValue.toLowerCase().contains("deductible") ||
-                vmValue.toLowerCase().contains("subject to") ||
-                vmValue.toLowerCase().contains("after deductible")
-            );
+            boolean vmHasDeductible = KeywordConceptScanner.any(vmConcepts, VM_DEDUCTIBLE_CONCEPTS);
             
             if (!vmHasDeductible) {
                 errors.add(createValidationError(
@@ -308,7 +442,7 @@ public class ValidationServiceImpl implements ValidationService {
      * Enhanced MOOP validation
      * Check if MOOP is not applicable and state accordingly
      */
-    private List<ValidationError> validateMOOPEnhanced(SOBBenefit sobBenefit, String vmValue) {
+    private List<ValidationError> validateMOOPEnhanced(SOBBenefit sobBenefit, String vmValue, long vmConcepts) {
         List<ValidationError> errors = new ArrayList<>();
         
         // Check if MOOP is not applicable in SOB
@@ -316,11 +450,7 @@ public class ValidationServiceImpl implements ValidationService {
             String expectedMoopStatement = "Does not apply to MOOP";
             
             // Check if VM correctly states MOOP non-applicability
-            boolean vmHasMoopStatement = vmValue != null && (
-                vmValue.toLowerCase().contains("does not apply to moop") ||
-                vmValue.toLowerCase().contains("not applicable to moop") ||
-                vmValue.toLowerCase().contains("moop not applicable")
-            );
+            boolean vmHasMoopStatement = KeywordConceptScanner.has(vmConcepts, Concept.MOOP_EXCLUSION);
             
             if (!vmHasMoopStatement) {
                 errors.add(createValidationError(
@@ -343,21 +473,21 @@ public class ValidationServiceImpl implements ValidationService {
     /**
      * Validate based on VBM Guidelines
      */
-    private List<ValidationError> validateWithVBMGuidelines(SOBBenefit sobBenefit, String vmValue) {
+    private List<ValidationError> validateWithVBMGuidelines(SOBBenefit sobBenefit, String vmValue, Map<String, String> guidelines) {
         List<ValidationError> errors = new ArrayList<>();
         
-        String benefitKey = findVBMGuidelineKey(sobBenefit.getBenefitCategory());
+        String benefitKey = findVBMGuidelineKey(sobBenefit.getBenefitCategory(), guidelines);
         if (benefitKey != null) {
-            String guideline = VBM_GUIDELINES.get(benefitKey);
+            String guideline = guidelines.get(benefitKey);
             errors.addAll(applyVBMGuideline(sobBenefit, vmValue, benefitKey, guideline));
         }
         
         return errors;
     }
 
-    private String findVBMGuidelineKey(String benefitCategory) {
+    private String findVBMGuidelineKey(String benefitCategory, Map<String, String> guidelines) {
         // Fuzzy matching to find the best VBM guideline key
-        for (String key : VBM_GUIDELINES.keySet()) {
+        for (String key : guidelines.keySet()) {
             if (key.toLowerCase().contains(benefitCategory.toLowerCase()) || 
                 benefitCategory.toLowerCase().contains(key.toLowerCase().split("/")[0].toLowerCase().trim())) {
                 return key;
@@ -446,9 +576,7 @@ public class ValidationServiceImpl implements ValidationService {
         // Extract PA-related information from VM value
         String[] sentences = vmValue.split("\\.");
         for (String sentence : sentences) {
-            if (sentence.toLowerCase().contains("prior authorization") || 
-                sentence.toLowerCase().contains("pre-cert") ||
-                sentence.toLowerCase().contains("precert")) {
+            if (KeywordConceptScanner.any(KeywordConceptScanner.scan(sentence), VM_PA_DETAIL_CONCEPTS)) {
                 return sentence.trim();
             }
         }
@@ -456,55 +584,8 @@ public class ValidationServiceImpl implements ValidationService {
     }
 
     private boolean isCostSharingMatch(String sobCostSharing, String vmCostSharing) {
-        if (sobCostSharing == null && vmCostSharing == null) return true;
-        if (sobCostSharing == null || vmCostSharing == null) return false;
-        
-        // Normalize cost sharing for comparison
-        String normalizedSOB = normalizeCostSharing(sobCostSharing);
-        String normalizedVM = normalizeCostSharing(vmCostSharing);
-        
-        // Extract key values from both strings for comparison
-        List<String> sobValues = extractCostValues(normalizedSOB);
-        List<String> vmValues = extractCostValues(normalizedVM);
-        
-        // If we found numeric values, compare them
-        if (!sobValues.isEmpty() && !vmValues.isEmpty()) {
-            return sobValues.equals(vmValues);
-        }
-        
-        // Otherwise fall back to normalized string comparison
-        return normalizedSOB.equals(normalizedVM);
-    }
-
-    private String normalizeCostSharing(String costSharing) {
-        if (costSharing == null) return "";
-        
-        // Keep more structure for better comparison
-        return costSharing.toLowerCase()
-                .replaceAll("\\s+", " ")
-                .replaceAll("\\n", " ")
-                .replaceAll("\\r", " ")
-                .trim();
-    }
-    
-    private List<String> extractCostValues(String text) {
-        List<String> values = new ArrayList<>();
-        // Match currency values like $290, $0, etc.
-        Pattern pattern = Pattern.compile("\\$\\d+(?:,\\d{3})*(?:\\.\\d{2})?");
-        Matcher matcher = pattern.matcher(text);
-        
-        while (matcher.find()) {
-            values.add(matcher.group());
-        }
-        
-        // Also match percentages
-        pattern = Pattern.compile("\\d+%");
-        matcher = pattern.matcher(text);
-        while (matcher.find()) {
-            values.add(matcher.group());
-        }
-        
-        return values;
+        // Single-pass tokenizer: amounts compared as cents/percentages, no per-call regex
+        return CostSharingComparator.matches(sobCostSharing, vmCostSharing);
     }
 
     private String getVendorMatrixValueForBenefit(SOBBenefit sobBenefit, VendorMatrixData vendorMatrixData) {
@@ -591,31 +672,32 @@ public class ValidationServiceImpl implements ValidationService {
                 .build();
     }
 
-    private ValidationSummary createValidationSummary(SOBData sobData, List<ValidationError> errors) {
-        Set<String> benefitsWithErrors = errors.stream()
-                .map(ValidationError::getBenefitCategory)
-                .collect(Collectors.toSet());
-        
+    private ValidationSummary createValidationSummary(SOBData sobData, ErrorTally tally) {
         return ValidationSummary.builder()
                 .benefitsValidated(sobData.getBenefits().size())
-                .benefitsWithErrors(benefitsWithErrors.size())
-                .totalDiscrepancies(errors.size())
-                .criticalErrors((int) errors.stream().filter(e -> e.getSeverity() == ErrorSeverity.CRITICAL).count())
-                .highErrors((int) errors.stream().filter(e -> e.getSeverity() == ErrorSeverity.HIGH).count())
-                .mediumErrors((int) errors.stream().filter(e -> e.getSeverity() == ErrorSeverity.MEDIUM).count())
-                .lowErrors((int) errors.stream().filter(e -> e.getSeverity() == ErrorSeverity.LOW).count())
+                .benefitsWithErrors(tally.errorsByCategory.size())
+                .totalDiscrepancies(tally.total)
+                .criticalErrors(tally.critical)
+                .highErrors(tally.high)
+                .mediumErrors(tally.medium)
+                .lowErrors(tally.low)
+                .costSharingErrors(tally.costSharing)
+                .priorAuthErrors(tally.priorAuth)
+                .moopErrors(tally.moop)
+                .deductibleErrors(tally.deductible)
                 .build();
     }
 
-    private List<BenefitComparison> createBenefitComparisons(SOBData sobData, VendorMatrixData vendorMatrixData, List<ValidationError> errors) {
-        List<BenefitComparison> comparisons = new ArrayList<>();
+    private List<BenefitComparison> createBenefitComparisons(List<BenefitValidation> benefitValidations, ErrorTally tally) {
+        List<BenefitComparison> comparisons = new ArrayList<>(benefitValidations.size());
         
-        for (SOBBenefit sobBenefit : sobData.getBenefits()) {
-            String vmValue = getVendorMatrixValueForBenefit(sobBenefit, vendorMatrixData);
+        for (BenefitValidation benefitValidation : benefitValidations) {
+            SOBBenefit sobBenefit = benefitValidation.benefit;
             
-            List<ValidationError> benefitErrors = errors.stream()
-                    .filter(e -> e.getBenefitCategory().equals(sobBenefit.getBenefitCategory()))
-                    .collect(Collectors.toList());
+            // Benefits sharing a category share that category's errors
+            List<ValidationError> benefitErrors = sobBenefit.getBenefitCategory() != null
+                    ? tally.errorsByCategory.getOrDefault(sobBenefit.getBenefitCategory(), List.of())
+                    : List.of();
             
             ComparisonStatus status = benefitErrors.isEmpty() ? ComparisonStatus.MATCH : 
                                     benefitErrors.stream().anyMatch(e -> e.getSeverity() == ErrorSeverity.CRITICAL || e.getSeverity() == ErrorSeverity.HIGH) ? 
@@ -625,31 +707,86 @@ public class ValidationServiceImpl implements ValidationService {
                     .benefitCategory(sobBenefit.getBenefitCategory())
                     .benefitName(sobBenefit.getBenefitName())
                     .sobBenefit(sobBenefit)
-                    .vendorMatrixValue(vmValue)
+                    .vendorMatrixValue(benefitValidation.vmValue)
                     .status(status)
-                    .errors(benefitErrors)
+                    .errors(new ArrayList<>(benefitErrors))
                     .build());
         }
         
         return comparisons;
     }
 
-    private ValidationStatus determineValidationStatus(List<ValidationError> errors) {
-        if (errors.isEmpty()) {
+    private ValidationStatus determineValidationStatus(ErrorTally tally) {
+        if (tally.total == 0) {
             return ValidationStatus.PASSED;
         }
         
-        boolean hasCriticalOrHigh = errors.stream()
-                .anyMatch(e -> e.getSeverity() == ErrorSeverity.CRITICAL || e.getSeverity() == ErrorSeverity.HIGH);
+        boolean hasCriticalOrHigh = tally.critical + tally.high > 0;
         
         return hasCriticalOrHigh ? ValidationStatus.FAILED_WITH_ERRORS : ValidationStatus.PASSED_WITH_WARNINGS;
     }
 
-    private String generateValidationId() {
+    static String generateValidationId() {
         return "VAL-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    private String generateErrorId() {
+    static String generateErrorId() {
         return "ERR-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
     }
-} 
+
+    /**
+     * Errors found for one SOB benefit, with the VM value it was validated against
+     */
+    private static final class BenefitValidation {
+        private final SOBBenefit benefit;
+        private final String vmValue;
+        private final List<ValidationError> errors;
+
+        private BenefitValidation(SOBBenefit benefit, String vmValue, List<ValidationError> errors) {
+            this.benefit = benefit;
+            this.vmValue = vmValue;
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * Single-pass accumulator for severity/type counts and errors grouped by benefit category
+     */
+    private static final class ErrorTally {
+        private final Map<String, List<ValidationError>> errorsByCategory = new HashMap<>();
+        private int total;
+        private int critical;
+        private int high;
+        private int medium;
+        private int low;
+        private int costSharing;
+        private int priorAuth;
+        private int moop;
+        private int deductible;
+
+        private void add(ValidationError error) {
+            total++;
+            errorsByCategory.computeIfAbsent(error.getBenefitCategory(), category -> new ArrayList<>()).add(error);
+
+            if (error.getSeverity() != null) {
+                switch (error.getSeverity()) {
+                    case CRITICAL -> critical++;
+                    case HIGH -> high++;
+                    case MEDIUM -> medium++;
+                    case LOW -> low++;
+                    default -> { /* Not counted */ }
+                }
+            }
+
+            if (error.getErrorType() != null) {
+                switch (error.getErrorType()) {
+                    case COST_SHARING_MISMATCH -> costSharing++;
+                    case PRIOR_AUTH_MISMATCH, PRIOR_AUTH_DETAILS_MISMATCH -> priorAuth++;
+                    case MOOP_STATEMENT_MISSING -> moop++;
+                    case DEDUCTIBLE_MISMATCH -> deductible++;
+                    default -> { /* Not counted */ }
+                }
+            }
+        }
+    }
+}
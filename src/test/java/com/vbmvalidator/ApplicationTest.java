@@ -1,24 +1,48 @@
 package com.vbmvalidator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -28,20 +52,53 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vbmvalidator.controller.ValidationController;
+import com.vbmvalidator.model.BatchValidationItem;
+import com.vbmvalidator.model.BenefitComparison;
+import com.vbmvalidator.model.ColumnTokenIndex;
+import com.vbmvalidator.model.ColumnValues;
+import com.vbmvalidator.model.ComparisonStatus;
 import com.vbmvalidator.model.ErrorSeverity;
 import com.vbmvalidator.model.ErrorType;
 import com.vbmvalidator.model.SOBBenefit;
 import com.vbmvalidator.model.SOBData;
 import com.vbmvalidator.model.SOBType;
+import com.vbmvalidator.model.StoredValidation;
 import com.vbmvalidator.model.ValidationError;
+import com.vbmvalidator.model.ValidationJob;
 import com.vbmvalidator.model.ValidationResult;
+import com.vbmvalidator.model.ValidationStage;
 import com.vbmvalidator.model.ValidationStatus;
+import com.vbmvalidator.model.VendorMatrixBook;
 import com.vbmvalidator.model.VendorMatrixData;
+import com.vbmvalidator.service.ColumnWidthEstimator;
+import com.vbmvalidator.service.DocumentProcessor;
+import com.vbmvalidator.service.ExcelExportService;
 import com.vbmvalidator.service.ValidationService;
+import com.vbmvalidator.service.XlsxCellPatcher;
+import com.vbmvalidator.repository.ValidationRepository;
+import com.vbmvalidator.service.impl.BatchValidationService;
+import com.vbmvalidator.service.impl.BenefitColumnAssigner;
+import com.vbmvalidator.service.impl.BenefitMappingServiceImpl;
+import com.vbmvalidator.service.impl.CachingValidationService;
+import com.vbmvalidator.service.impl.CostSharingComparator;
 import com.vbmvalidator.service.impl.DocumentProcessorService;
+import com.vbmvalidator.service.impl.GHIProcessor;
+import com.vbmvalidator.service.impl.HIPHMOProcessor;
+import com.vbmvalidator.service.impl.KeywordConceptScanner;
+import com.vbmvalidator.service.impl.KeywordConceptScanner.Concept;
+import com.vbmvalidator.service.impl.ParseCache;
+import com.vbmvalidator.service.impl.RulePackProcessor;
+import com.vbmvalidator.service.impl.SOBTypeRegistry;
+import com.vbmvalidator.service.impl.SOBTypeRules;
+import com.vbmvalidator.service.impl.TieredValidationResultStore;
+import com.vbmvalidator.service.impl.ValidationHistoryService;
+import com.vbmvalidator.service.impl.ValidationHistoryWriter;
+import com.vbmvalidator.service.impl.ValidationJobService;
 import com.vbmvalidator.service.impl.ExcelProcessor;
 import com.vbmvalidator.service.impl.ValidationServiceImpl;
 
@@ -50,6 +107,18 @@ import jakarta.servlet.http.HttpSession;
 @DisplayName("VBM Validator Application Tests")
 public class ApplicationTest {
 
+    // SOB / VM cost sharing pairs the tokenizer must judge exactly like the old regex extraction
+    private static final String[][] COST_SHARING_PAIRS = {
+        {"$290 per day for days 1-5", "$290 per day for days 1-5"},
+        {"$290 per day for days 1-5", "$295 per day for days 1-5"},
+        {"$0 copay\nPrior authorization required", "$0  copay prior authorization required"},
+        {"20% coinsurance", "20% coinsurance after deductible"},
+        {"20% coinsurance", "25% coinsurance"},
+        {"$1,000.50 deductible then 20%", "$1,000.50 deductible, 20% coinsurance"},
+        {"Not covered", "  not   COVERED "},
+        {"Not covered", "Covered"}
+    };
+    
     private MockMvc mockMvc;
     
     @Mock
@@ -67,6 +136,8 @@ public class ApplicationTest {
         // Inject mocks using reflection
         injectMock(controller, "documentProcessorService", documentProcessorService);
         injectMock(controller, "validationService", validationService);
+        injectMock(controller, "validationResultStore", createResultStore(16, false, null));
+        injectMock(controller, "sobTypeRegistry", new SOBTypeRegistry(List.of(new HIPHMOProcessor(), new GHIProcessor())));
         
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
@@ -326,7 +397,1305 @@ public class ApplicationTest {
         verify(model).addAttribute(eq("validationResult"), any(ValidationResult.class));
     }
     
+    @Test
+    @DisplayName("Test 10: SOB Parser - Single pass over large sheet")
+    void testSOBParserScalesLinearly() throws Exception {
+        MockMultipartFile largeSheet = createSOBExcelFile(10_000);
+        ExcelProcessor processor = new ExcelProcessor();
+        
+        // Both ingestion paths: loaded workbook, and the SAX stream that is the configured default
+        SOBData loaded = parseSOB(processor, largeSheet, false);
+        SOBData streamed = parseSOB(processor, largeSheet, true);
+        for (SOBData sobData : List.of(loaded, streamed)) {
+            assertEquals(10_000, sobData.getBenefits().size());
+            assertEquals("Large Plan", sobData.getPlanName());
+            assertEquals("$100 copay for benefit 0", sobData.getBenefits().get(0).getCostSharing());
+            assertEquals("$100 copay for benefit 9999", sobData.getBenefits().get(9_999).getCostSharing());
+        }
+        // Every row lands once, in sheet order
+        for (int i = 0; i < 10_000; i += 997) {
+            assertEquals(loaded.getBenefits().get(i).getCostSharing(), streamed.getBenefits().get(i).getCostSharing());
+            assertEquals("$100 copay for benefit " + i, streamed.getBenefits().get(i).getCostSharing());
+        }
+    }
+    
+    private SOBData parseSOB(ExcelProcessor processor, MockMultipartFile file, boolean streaming) throws Exception {
+        return streaming ? processor.extractSOBDataStreaming(file) : processor.extractSOBData(file);
+    }
+    
+    @Test
+    @DisplayName("Test 11: SOB Parser - Streaming and workbook paths agree")
+    void testStreamingSOBParserMatchesWorkbookParser() throws Exception {
+        ExcelProcessor processor = new ExcelProcessor();
+        MockMultipartFile sobFile = createSOBExcelFile(50);
+        
+        SOBData loaded = processor.extractSOBData(sobFile);
+        SOBData streamed = processor.extractSOBDataStreaming(sobFile);
+        
+        assertEquals(loaded.getPlanName(), streamed.getPlanName());
+        assertEquals(loaded.getProductId(), streamed.getProductId());
+        assertEquals(loaded.getRawData(), streamed.getRawData());
+        assertEquals(loaded.getBenefits().size(), streamed.getBenefits().size());
+        for (int i = 0; i < loaded.getBenefits().size(); i++) {
+            assertEquals(loaded.getBenefits().get(i).getRawText(), streamed.getBenefits().get(i).getRawText());
+            assertEquals(loaded.getBenefits().get(i).getPaRequired(), streamed.getBenefits().get(i).getPaRequired());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test 12: Vendor Matrix - Multi-plan ingestion indexed by product ID")
+    void testMultiPlanVendorMatrixIngestion() throws Exception {
+        DocumentProcessorService service = new DocumentProcessorService(List.of(new ExcelProcessor()));
+        MockMultipartFile vmFile = createVendorMatrixExcelFile(300);
+        
+        VendorMatrixBook book = service.extractVendorMatrixBook(vmFile);
+        
+        assertEquals(300, book.size());
+        assertEquals("Plan 0", book.getPlans().get(0).getProductName());
+        assertEquals("Plan 299", book.getPlan("PID-299").getProductName());
+        assertEquals("$10 copay", book.getPlan(" pid-42 ").getAllColumns().get("PCP Copay"));
+        assertNull(book.getPlan("PID-300"));
+        assertTrue(book.getDuplicateProductIds().isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Test 13: Batch Validation - Zip of SOBs matched to plan rows")
+    void testBatchValidationAgainstMultiPlanVendorMatrix() throws Exception {
+        DocumentProcessorService processorService = new DocumentProcessorService(List.of(new ExcelProcessor()));
+        when(validationService.validateWithSOBType(any(SOBData.class), any(VendorMatrixData.class), eq(SOBType.HIP_HMO)))
+            .thenReturn(createMockValidationResult());
+        BatchValidationService batchService = new BatchValidationService(processorService, validationService, 2);
+        
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+            for (String productId : List.of("PID-1", "PID-2", "UNKNOWN")) {
+                zip.putNextEntry(new ZipEntry("sobs/" + productId + ".xlsx"));
+                zip.write(createSOBExcelFile(5, productId, productId + ".xlsx").getBytes());
+                zip.closeEntry();
+            }
+        }
+        MockMultipartFile zipFile = new MockMultipartFile("sobFiles", "sobs.zip", "application/zip", zipBytes.toByteArray());
+        MockMultipartFile looseFile = createSOBExcelFile(5, "PID-3", "PID-3.xlsx");
+        
+        VendorMatrixBook book = processorService.extractVendorMatrixBook(createVendorMatrixExcelFile(10));
+        List<MultipartFile> sobFiles = batchService.expandSOBFiles(List.of(zipFile, looseFile));
+        Map<String, BatchValidationItem> items = new HashMap<>();
+        try {
+            batchService.validateBatch(sobFiles, book, SOBType.HIP_HMO, item -> items.put(item.getSobFileName(), item));
+        } finally {
+            batchService.shutdown();
+        }
+        
+        assertEquals(4, items.size());
+        assertEquals(BatchValidationItem.Outcome.VALIDATED, items.get("PID-1.xlsx").getOutcome());
+        assertEquals("PID-2", items.get("PID-2.xlsx").getMatchedProductId());
+        assertEquals(BatchValidationItem.Outcome.VALIDATED, items.get("PID-3.xlsx").getOutcome());
+        assertEquals(BatchValidationItem.Outcome.UNMATCHED, items.get("UNKNOWN.xlsx").getOutcome());
+        assertNotNull(items.get("PID-1.xlsx").getValidationResult());
+    }
+    
+    @Test
+    @DisplayName("Test 14: Cost Sharing - Tokenizer matches regex extraction")
+    void testCostSharingTokenizer() {
+        for (String[] pair : COST_SHARING_PAIRS) {
+            assertEquals(legacyCostSharingMatch(pair[0], pair[1]), CostSharingComparator.matches(pair[0], pair[1]),
+                "Tokenizer and regex disagree on: " + Arrays.toString(pair));
+        }
+        
+        // Amounts are compared as values, not as text
+        assertTrue(CostSharingComparator.matches("$1,000 deductible", "$1000.00 deductible"));
+        CostSharingComparator.TokenBuffer tokens = new CostSharingComparator.TokenBuffer()
+            .tokenize("$290 per day for days 1-5, then $0; 20% coinsurance");
+        assertEquals(2, tokens.currencyCount());
+        assertEquals(29_000L, tokens.currencyCentsAt(0));
+        assertEquals(20, tokens.percentageAt(0));
+    }
+    
+    @Test
+    @DisplayName("Test 15: Keyword Scanner - One pass yields every matched concept")
+    void testKeywordConceptScanner() {
+        long concepts = KeywordConceptScanner.scan("$290 per day, days 1-5. PRIOR Authorization\nrequired; Does not apply to MOOP");
+        
+        assertTrue(KeywordConceptScanner.has(concepts, Concept.PRIOR_AUTHORIZATION));
+        assertTrue(KeywordConceptScanner.has(concepts, Concept.AUTHORIZATION_REQUIRED));
+        assertTrue(KeywordConceptScanner.has(concepts, Concept.MOOP_EXCLUSION));
+        assertTrue(KeywordConceptScanner.has(concepts, Concept.LIMIT));
+        assertFalse(KeywordConceptScanner.has(concepts, Concept.DEDUCTIBLE));
+        assertTrue(KeywordConceptScanner.has(KeywordConceptScanner.scan("PA   required"), Concept.PA_REQUIRED));
+        assertEquals(0L, KeywordConceptScanner.scan("$0 copay"));
+    }
+    
+    @Test
+    @DisplayName("Test 16: Parallel Validation - Same output order as sequential")
+    void testParallelValidationMatchesSequential() {
+        String[] categories = {"1a", "7a", "4a", "2", "7d"};
+        List<SOBBenefit> benefits = new java.util.ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            benefits.add(SOBBenefit.builder()
+                .pbpCategory(categories[i % categories.length])
+                .benefitCategory(categories[i % categories.length])
+                .benefitName("Benefit " + i)
+                .costSharing(i % 3 == 0 ? "$350 per day (days 1-5)" : "$" + i + " copay")
+                .paRequired(i % 2 == 0)
+                .moopApplicable(i % 5 != 0)
+                .build());
+        }
+        SOBData sobData = SOBData.builder().planName("Parallel Plan").benefits(benefits).build();
+        VendorMatrixData vmData = createMockVendorMatrixData();
+        
+        ValidationResult sequential = new ValidationServiceImpl().validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        ValidationResult parallel;
+        try {
+            parallel = new ValidationServiceImpl(pool, 16, 4).validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        } finally {
+            pool.shutdown();
+        }
+        
+        assertEquals(sequential.getErrors().size(), parallel.getErrors().size());
+        for (int i = 0; i < sequential.getErrors().size(); i++) {
+            ValidationError expected = sequential.getErrors().get(i);
+            ValidationError actual = parallel.getErrors().get(i);
+            assertEquals(expected.getBenefitCategory(), actual.getBenefitCategory());
+            assertEquals(expected.getErrorType(), actual.getErrorType());
+            assertEquals(expected.getSobValue(), actual.getSobValue());
+        }
+        assertEquals(sequential.getBenefitComparisons().size(), parallel.getBenefitComparisons().size());
+        assertEquals(sequential.getTotalErrors(), parallel.getTotalErrors());
+        assertEquals(sequential.getStatus(), parallel.getStatus());
+    }
+    
+    @Test
+    @DisplayName("Test 17: Parse Cache - Identical upload skips the parser")
+    void testParseCacheSkipsReparse() throws Exception {
+        DocumentProcessor processor = mock(DocumentProcessor.class);
+        when(processor.canProcess(any())).thenReturn(true);
+        when(processor.extractSOBData(any())).thenReturn(createCompleteMockSOBData());
+        DocumentProcessorService service = new DocumentProcessorService(List.of(processor), true, 1, 30);
+        
+        MockMultipartFile first = new MockMultipartFile("sobFile", "SOB.xlsx", "application/octet-stream", "same bytes".getBytes());
+        MockMultipartFile reupload = new MockMultipartFile("sobFile", "SOB.xlsx", "application/octet-stream", "same bytes".getBytes());
+        MockMultipartFile other = new MockMultipartFile("sobFile", "SOB.xlsx", "application/octet-stream", "other bytes".getBytes());
+        
+        SOBData parsed = service.extractSOBData(first);
+        assertTrue(parsed == service.extractSOBData(reupload));
+        verify(processor, times(1)).extractSOBData(any());
+        
+        // Capacity 1: a different file evicts the first one
+        service.extractSOBData(other);
+        service.extractSOBData(first);
+        verify(processor, times(3)).extractSOBData(any());
+        
+        ParseCache.Stats stats = service.getParseCacheStats().get(0);
+        assertEquals(1, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        
+        // Hits share one instance, so its collections are read-only; corrections go through an overlay
+        assertThrows(UnsupportedOperationException.class, () -> parsed.getBenefits().add(SOBBenefit.builder().build()));
+        when(processor.extractVendorMatrixData(any())).thenReturn(createMockVendorMatrixData());
+        VendorMatrixData vendorMatrix = service.extractVendorMatrixData(first);
+        assertThrows(UnsupportedOperationException.class, () -> vendorMatrix.getBenefitData().put("7a - PCP", "$20 copay"));
+        VendorMatrixData corrected = vendorMatrix.copyForCorrection();
+        corrected.getBenefitData().put("7a - PCP", "$20 copay");
+        assertEquals("$20 copay", corrected.getBenefitData().get("7a - PCP"));
+        assertEquals("$0 copay", vendorMatrix.getBenefitData().get("7a - PCP"));
+    }
+    
+    @Test
+    @DisplayName("Test 18: Result Cache - Same inputs and rules reuse the validation result under fresh IDs")
+    void testValidationResultCache() {
+        ValidationServiceImpl delegate = mock(ValidationServiceImpl.class);
+        when(delegate.validateWithSOBType(any(), any(), any(), any())).thenAnswer(invocation -> {
+            ValidationResult result = createMockValidationResult();
+            result.setBenefitComparisons(List.of(new BenefitComparison("2 - SNF", "SNF", null, "$50 per day (days 1-20)",
+                    ComparisonStatus.MISMATCH, List.of(result.getErrors().get(0)))));
+            return result;
+        });
+        CachingValidationService service = new CachingValidationService(delegate, List.of(), true, 8, 60);
+        
+        SOBData sobData = createCompleteMockSOBData();
+        VendorMatrixData vmData = createMockVendorMatrixData();
+        sobData.setContentHash("sob-hash");
+        vmData.setContentHash("vm-hash");
+        
+        ValidationResult first = service.validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        first.getErrors().get(0).setSelected(true);
+        ValidationResult hit = service.validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        ValidationResult secondHit = service.validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        
+        // Hits carry the same findings, but IDs of their own: stores, jobs and history are keyed by them
+        assertNotEquals(first.getValidationId(), hit.getValidationId());
+        assertNotEquals(hit.getValidationId(), secondHit.getValidationId());
+        assertNotEquals(hit.getErrors().get(0).getErrorId(), secondHit.getErrors().get(0).getErrorId());
+        assertNotEquals(first.getErrors().get(0).getErrorId(), hit.getErrors().get(0).getErrorId());
+        for (ValidationResult result : List.of(hit, secondHit)) {
+            assertEquals(first.getStatus(), result.getStatus());
+            assertEquals(first.getTotalErrors(), result.getTotalErrors());
+            assertEquals(1, result.getErrors().size());
+            assertEquals("Cost sharing mismatch", result.getErrors().get(0).getDescription());
+            assertEquals("$50 per day (days 1-20)", result.getErrors().get(0).getVendorMatrixValue());
+            assertFalse(result.getErrors().get(0).isSelected());
+            assertSame(result.getErrors().get(0), result.getBenefitComparisons().get(0).getErrors().get(0));
+        }
+        service.validateWithSOBType(sobData, vmData, SOBType.GHI);
+        verify(delegate, times(2)).validateWithSOBType(any(), any(), any(), any());
+        
+        // Models not parsed from an upload carry no hash and are never cached
+        vmData.setContentHash(null);
+        service.validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        service.validateWithSOBType(sobData, vmData, SOBType.HIP_HMO);
+        verify(delegate, times(4)).validateWithSOBType(any(), any(), any(), any());
+        
+        String ruleVersion = service.getRuleVersion();
+        service.refreshRuleVersion();
+        assertEquals(ruleVersion, service.getRuleVersion());
+        assertEquals(2, service.getResultCacheStats().getHits());
+    }
+    
+    @Test
+    @DisplayName("Test 19: Streaming Export - Corrected matrix written straight to the output stream")
+    void testStreamingCorrectedMatrixExport() throws IOException {
+        ExcelExportService exportService = new ExcelExportService();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        exportService.writeCorrectedVendorMatrix(createMockVendorMatrixData(), createMockValidationResult(),
+                List.of("ERR-001"), true, out);
+        
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Corrected Vendor Matrix");
+            assertNotNull(sheet);
+            assertEquals("Product Name", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("HIP-001", sheet.getRow(1).getCell(1).getStringCellValue());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test 20: Column Widths - Estimated from cell text and capped")
+    void testColumnWidthEstimator() {
+        ColumnWidthEstimator widths = new ColumnWidthEstimator();
+        widths.record(0, "PCP");
+        widths.record(0, "$10 copay\nPrior authorization");
+        widths.record(2, "x".repeat(500));
+        
+        assertEquals(3, widths.getColumnCount());
+        assertTrue(widths.widthOf(0) > widths.widthOf(1));
+        assertEquals((19 + 2) * 256, widths.widthOf(0));
+        assertEquals(ColumnWidthEstimator.MAX_COLUMN_WIDTH, widths.widthOf(2));
+    }
+    
+    @Test
+    @DisplayName("Test 21: Patch Export - Only corrected cells of the original upload change")
+    void testPatchInPlaceExport() throws IOException {
+        byte[] upload = createVendorMatrixExcelFile(2).getBytes();
+        VendorMatrixData plan = VendorMatrixData.builder()
+            .productId("PID-1")
+            .sourceFileName("Multi_Plan_VBM.xlsx")
+            .sourceRowIndex(2)
+            .build();
+        ValidationResult result = ValidationResult.builder()
+            .errors(List.of(ValidationError.builder()
+                .errorId("ERR-PCP")
+                .benefitCategory("PCP Copay")
+                .fieldName("Cost Sharing")
+                .expectedValue("$15 copay")
+                .build()))
+            .build();
+        
+        XlsxCellPatcher.PatchedWorkbook patched = new ExcelExportService()
+            .patchCorrectedVendorMatrix(upload, plan, result, List.of("ERR-PCP"));
+        assertEquals(1, patched.getPatchedCells());
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        patched.writeTo(out);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("VBM");
+            assertEquals("$10 copay", sheet.getRow(1).getCell(2).getStringCellValue());
+            assertEquals("$15 copay", sheet.getRow(2).getCell(2).getStringCellValue());
+            assertEquals("PID-1", sheet.getRow(2).getCell(1).getStringCellValue());
+        }
+        
+        // Every part but the patched sheet is copied byte for byte, compressed data included
+        Map<String, byte[]> originalParts = readRawZipEntries(upload);
+        Map<String, byte[]> patchedParts = readRawZipEntries(out.toByteArray());
+        assertEquals(originalParts.keySet(), patchedParts.keySet());
+        List<String> changed = originalParts.keySet().stream()
+            .filter(name -> !Arrays.equals(originalParts.get(name), patchedParts.get(name)))
+            .toList();
+        assertEquals(List.of("xl/worksheets/sheet1.xml"), changed);
+    }
+    
+    @Test
+    @DisplayName("Test 22: Validation Jobs - Background run reports stages in order")
+    void testAsyncValidationJob() throws Exception {
+        when(documentProcessorService.extractSOBData(any())).thenReturn(createCompleteMockSOBData());
+        when(documentProcessorService.extractVendorMatrixData(any())).thenReturn(createMockVendorMatrixData());
+        TieredValidationResultStore resultStore = createResultStore(4, false, null);
+        ValidationJobService jobService = new ValidationJobService(documentProcessorService, new ValidationServiceImpl(),
+            resultStore, java.util.Optional.empty(), 1, 30);
+        
+        try {
+            ValidationJob job = jobService.submit(
+                new MockMultipartFile("sobFile", "SOB.xlsx", "application/octet-stream", "sob".getBytes()),
+                new MockMultipartFile("vendorMatrixFile", "VM.xlsx", "application/octet-stream", "vm".getBytes()),
+                SOBType.HIP_HMO);
+            assertNotNull(job.getJobId());
+            
+            List<ValidationStage> stages = new java.util.concurrent.CopyOnWriteArrayList<>();
+            java.util.concurrent.CountDownLatch finished = new java.util.concurrent.CountDownLatch(1);
+            assertTrue(jobService.subscribe(job.getJobId(), update -> {
+                stages.add(update.getStage());
+                if (update.isFinished()) finished.countDown();
+            }));
+            assertTrue(finished.await(10, java.util.concurrent.TimeUnit.SECONDS));
+            
+            assertEquals(ValidationJob.State.COMPLETED, job.getState());
+            assertEquals(ValidationStage.COMPLETED, stages.get(stages.size() - 1));
+            for (int i = 1; i < stages.size(); i++) {
+                assertTrue(stages.get(i - 1).ordinal() < stages.get(i).ordinal());
+            }
+            assertTrue(job == jobService.findByValidationId(job.getValidationId()));
+            assertNotNull(resultStore.get(job.getValidationId()).getValidationResult());
+            assertFalse(jobService.subscribe("unknown-job", update -> {}));
+        } finally {
+            jobService.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Test 24: Result Store - Evicted validations spill to disk and come back")
+    void testResultStoreSpillsToDisk() throws Exception {
+        java.nio.file.Path directory = java.nio.file.Files.createTempDirectory("vbm-results");
+        TieredValidationResultStore store = createResultStore(1, true, directory);
+        
+        ValidationResult first = createMockValidationResult();
+        first.setValidationId("VAL-1-FIRST");
+        ValidationResult second = createMockValidationResult();
+        second.setValidationId("VAL-2-SECOND");
+        store.put(new StoredValidation(SOBType.HIP_HMO, createCompleteMockSOBData(), createMockVendorMatrixData(),
+            first, "upload".getBytes()));
+        store.put(new StoredValidation(SOBType.HIP_HMO, createCompleteMockSOBData(), createMockVendorMatrixData(),
+            second, null));
+        
+        // The first validation was pushed out of memory onto disk
+        assertTrue(java.nio.file.Files.exists(directory.resolve("VAL-1-FIRST.json.gz")));
+        StoredValidation restored = store.get("VAL-1-FIRST");
+        assertNotNull(restored);
+        assertEquals(SOBType.HIP_HMO, restored.getSobType());
+        assertEquals(first.getErrors().size(), restored.getValidationResult().getErrors().size());
+        assertEquals("HIP-001", restored.getVendorMatrixData().getProductId());
+        assertEquals("upload", new String(restored.getVendorMatrixUpload()));
+        
+        // Reading it back evicted the second one in turn
+        assertTrue(java.nio.file.Files.exists(directory.resolve("VAL-2-SECOND.json.gz")));
+        store.remove("VAL-2-SECOND");
+        assertNull(store.get("VAL-2-SECOND"));
+        assertNull(store.get("../VAL-1-FIRST"));
+    }
+    
+    @Test
+    @DisplayName("Test 25: Persistence - Thousands of errors are saved in a few JDBC batches")
+    void testValidationHistoryBatchesErrorInserts() {
+        // Command-line args outrank application-persistence.properties, which points at the file database
+        String runId = java.util.UUID.randomUUID().toString();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(App.class)
+                .web(org.springframework.boot.WebApplicationType.NONE)
+                .profiles("persistence")
+                .run("--spring.datasource.url=jdbc:h2:mem:vbm-history-" + runId + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                    "--spring.jpa.properties.hibernate.generate_statistics=true")) {
+            ValidationHistoryService history = context.getBean(ValidationHistoryService.class);
+            org.hibernate.stat.Statistics statistics = context.getBean(jakarta.persistence.EntityManagerFactory.class)
+                .unwrap(org.hibernate.SessionFactory.class).getStatistics();
+            
+            List<ValidationError> errors = new java.util.ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                errors.add(ValidationError.builder()
+                    .errorId("ERR-" + i)
+                    .errorType(ErrorType.COST_SHARING_MISMATCH)
+                    .severity(ErrorSeverity.HIGH)
+                    .benefitCategory("1a - Inpatient Hospital")
+                    .description("Mismatch " + i)
+                    .build());
+            }
+            ValidationResult result = createMockValidationResult();
+            result.setValidationId("VAL-HISTORY-" + runId);
+            result.setErrors(errors);
+            
+            statistics.clear();
+            history.save(result);
+            
+            // One batch per 500 rows plus the sequence calls, not one insert per error
+            assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Prepared " + statistics.getPrepareStatementCount() + " statements");
+            assertEquals(2_000, context.getBean(ValidationRepository.class).countErrors(result.getValidationId()));
+            assertTrue(history.findByValidationId(result.getValidationId()).isPresent());
+        }
+    }
+    
+    @Test
+    @DisplayName("Test 26: Write-Behind History - Results are saved in batches and drained on shutdown")
+    void testValidationHistoryWriterBatchesAndDrains() throws Exception {
+        ValidationHistoryService history = mock(ValidationHistoryService.class);
+        List<Integer> batchSizes = new java.util.concurrent.CopyOnWriteArrayList<>();
+        java.util.concurrent.CountDownLatch firstFlush = new java.util.concurrent.CountDownLatch(1);
+        org.mockito.Mockito.doAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            firstFlush.await(5, java.util.concurrent.TimeUnit.SECONDS);  // hold the writer so results pile up
+            return null;
+        }).when(history).saveAll(any());
+        ValidationHistoryWriter writer = new ValidationHistoryWriter(history, 100, 10, 50, 500);
+        
+        for (int i = 0; i < 35; i++) {
+            ValidationResult result = createMockValidationResult();
+            result.setValidationId("VAL-" + i);
+            writer.submit(result);
+        }
+        firstFlush.countDown();
+        writer.shutdown();
+        
+        assertEquals(35, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        ValidationHistoryWriter.Stats stats = writer.getStats();
+        assertEquals(35, stats.getWritten());
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(0, stats.getCallerWrites());
+        assertTrue(stats.getFlushes() >= 4);
+    }
+    
+    @Test
+    @DisplayName("Test 27: Columnar Vendor Matrix - Rows share one dictionary and corrections overlay them")
+    void testColumnarVendorMatrixRows() throws Exception {
+        List<VendorMatrixData> plans;
+        try (java.util.stream.Stream<VendorMatrixData> rows = new ExcelProcessor().extractVendorMatrixRows(createVendorMatrixExcelFile(3))) {
+            plans = rows.toList();
+        }
+        assertEquals(3, plans.size());
+        ColumnValues first = (ColumnValues) plans.get(0).getAllColumns();
+        ColumnValues last = (ColumnValues) plans.get(2).getAllColumns();
+        assertTrue(first.getDictionary() == last.getDictionary());
+        assertEquals(Map.of("Product Name", "Plan 2", "2025 Product ID", "PID-2", "PCP Copay", "$10 copay"), last);
+        
+        VendorMatrixData original = plans.get(0);
+        VendorMatrixData corrected = original.copyForCorrection();
+        corrected.getAllColumns().put("PCP Copay", "$0 copay");
+        corrected.getAllColumns().put("Ind MOOP", "$3,400");
+        corrected.setPcpVisits("$0 copay");
+        
+        assertEquals("$0 copay", corrected.getAllColumns().get("PCP Copay"));
+        assertEquals(4, corrected.getAllColumns().size());
+        assertEquals("$10 copay", original.getAllColumns().get("PCP Copay"));
+        assertFalse(original.getAllColumns().containsKey("Ind MOOP"));
+        assertNull(original.getPcpVisits());
+        assertEquals("PID-0", corrected.getProductId());
+    }
+    
+    @Test
+    @DisplayName("Test 28: SOB Benefit Lookup - Lookups by category and PBP category go through the index")
+    void testSOBBenefitLookupIsIndexed() {
+        SOBData largeSob = createIndexedLookupSOB(5_000);
+        
+        assertEquals("Benefit 4999", largeSob.getBenefit("Category 4999").getBenefitName());
+        assertNull(largeSob.getBenefit("Category 5000"));
+        assertEquals(4, largeSob.getBenefitsByPbpCategory("7").size());
+        assertEquals("Benefit 7", largeSob.getBenefitsByPbpCategory("7").get(0).getBenefitName());
+        assertTrue(largeSob.getBenefitsByPbpCategory("unknown").isEmpty());
+        
+        // Changing the list in place is picked up on the next lookup
+        largeSob.getBenefits().add(SOBBenefit.builder().pbpCategory("7").benefitName("Late").benefitCategory("Late Category").build());
+        assertEquals("Late", largeSob.getBenefit("Late Category").getBenefitName());
+    }
+    
+    @Test
+    @DisplayName("Test 29: Column Matching - Only columns sharing a header word with the benefit are scored")
+    void testColumnMatchingUsesTokenIndex() {
+        Map<String, String> columns = new java.util.LinkedHashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            columns.put("Supplemental Rider " + i + " Copay", "$" + i);
+        }
+        columns.put("INN Podiatry", "$20 copay");
+        columns.put("INN ER", "$90 copay");
+        columns.put("INN Inpt. Admission", "$300 per day");
+        columns.put("INN Lab Services Medicare Covered", "$0");
+        VendorMatrixData vendorMatrix = new VendorMatrixData();
+        vendorMatrix.setAllColumns(columns);
+        
+        ColumnTokenIndex index = vendorMatrix.getColumnIndex();
+        assertEquals(3_004, index.size());
+        assertEquals(2, index.columnsWithAnyToken("Podiatry Services").cardinality());  // INN Podiatry, INN Lab Services
+        assertEquals(1, index.columnsWithAllTokens("lab").cardinality());
+        assertTrue(index.columnsWithAnyToken("Skilled Nursing").isEmpty());
+        
+        HIPHMOProcessor hipProcessor = new HIPHMOProcessor();
+        GHIProcessor ghiProcessor = new GHIProcessor();
+        SOBBenefit podiatry = SOBBenefit.builder().benefitName("Podiatry Services").build();
+        SOBBenefit emergency = SOBBenefit.builder().benefitName("Emergency Room").build();
+        SOBBenefit inpatient = SOBBenefit.builder().benefitName("Inpatient Hospital").build();
+        SOBBenefit laboratory = SOBBenefit.builder().benefitName("Laboratory Services").build();
+        
+        assertEquals("INN Podiatry", hipProcessor.findBestColumnMatch(podiatry, vendorMatrix).getVbmColumn());
+        assertEquals("INN ER", hipProcessor.findBestColumnMatch(emergency, vendorMatrix).getVbmColumn());
+        assertEquals("INN Inpt. Admission", hipProcessor.findBestColumnMatch(inpatient, vendorMatrix).getVbmColumn());
+        assertEquals("INN Lab Services Medicare Covered", hipProcessor.findBestColumnMatch(laboratory, vendorMatrix).getVbmColumn());
+        // "er" inside "Rider" is not the ER column
+        assertEquals("INN ER", ghiProcessor.findBestColumnMatch(emergency, vendorMatrix).getVbmColumn());
+        
+        // The index is reused across benefits and rebuilt when a column is added
+        assertTrue(index == vendorMatrix.getColumnIndex());
+        vendorMatrix.getAllColumns().put("OON Podiatry", "$40 copay");
+        assertEquals(3_005, vendorMatrix.getColumnIndex().size());
+    }
+    
+    @Test
+    @DisplayName("Test 30: Column Detection Cache - Same vendor header row skips detection")
+    void testColumnDetectionCachedPerHeaderLayout() {
+        HIPHMOProcessor processor = spy(new HIPHMOProcessor());
+        BenefitMappingServiceImpl mappingService = new BenefitMappingServiceImpl(List.of(processor), true, 16, 60, true);
+        SOBData sobData = createCompleteMockSOBData();
+        
+        Map<String, String> januaryColumns = new java.util.LinkedHashMap<>();
+        januaryColumns.put("INN PCP", "$0 copay");
+        januaryColumns.put("INN Specialist", "$40 copay");
+        Map<String, String> februaryColumns = new java.util.LinkedHashMap<>();
+        februaryColumns.put("INN PCP", "$5 copay");
+        februaryColumns.put("INN Specialist", "$45 copay");
+        Map<String, String> reorderedColumns = new java.util.LinkedHashMap<>();
+        reorderedColumns.put("INN Specialist", "$45 copay");
+        reorderedColumns.put("INN PCP", "$5 copay");
+        
+        for (Map<String, String> columns : List.of(januaryColumns, februaryColumns, reorderedColumns)) {
+            VendorMatrixData vendorMatrix = new VendorMatrixData();
+            vendorMatrix.setAllColumns(columns);
+            mappingService.mapBenefits(sobData, vendorMatrix, SOBType.HIP_HMO);
+        }
+        
+        // Same headers with new values reuse the detection; a different order is a different layout
+        verify(processor, times(2)).detectVBMColumns(any());
+        ParseCache.Stats stats = mappingService.getDetectionCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+    }
+    
+    @Test
+    @DisplayName("Test 31: Benefit Assignment - One column per benefit, maximizing the total score")
+    void testGlobalBenefitAssignment() {
+        Map<String, Double> inpatient = new java.util.LinkedHashMap<>();
+        inpatient.put("INN Inpt. Admission", 0.9);
+        inpatient.put("Inpatient Hospital", 0.8);
+        Map<String, Double> admission = new java.util.LinkedHashMap<>();
+        admission.put("INN Inpt. Admission", 0.85);
+        
+        // Greedy gives the shared column to the first benefit and leaves the second unmapped
+        BenefitColumnAssigner.Assignment assignment = BenefitColumnAssigner.assign(List.of(inpatient, admission, Map.of()));
+        assertEquals("Inpatient Hospital", assignment.getColumn(0));
+        assertEquals("INN Inpt. Admission", assignment.getColumn(1));
+        assertNull(assignment.getColumn(2));
+        assertEquals(1.65, assignment.getTotalScore(), 1e-9);
+        assertEquals(0.9, assignment.getGreedyTotalScore(), 1e-9);
+        assertEquals(1, assignment.getContestedColumns());
+        
+        // 500 benefits bidding for 300 columns
+        List<Map<String, Double>> scores = createAssignmentScores(500, 300);
+        BenefitColumnAssigner.Assignment large = BenefitColumnAssigner.assign(scores);
+        
+        java.util.Set<String> used = new java.util.HashSet<>();
+        for (int b = 0; b < scores.size(); b++) {
+            String column = large.getColumn(b);
+            if (column != null) {
+                assertTrue(scores.get(b).containsKey(column));
+                assertTrue(used.add(column), "Column assigned twice: " + column);
+            }
+        }
+        assertTrue(used.size() > 250, "Only " + used.size() + " columns assigned");
+        assertTrue(large.getTotalScore() >= large.getGreedyTotalScore());
+    }
+    
+    @Test
+    @DisplayName("Test 32: Table-Driven Processors - Each SOB type's rules drive conditions and issue codes")
+    void testTableDrivenProcessors() {
+        HIPHMOProcessor hipProcessor = new HIPHMOProcessor();
+        GHIProcessor ghiProcessor = new GHIProcessor();
+        SOBBenefit benefit = SOBBenefit.builder().benefitName("Emergency Room").costSharing("$20").moopApplicable(true).build();
+        String cell = "$90 copay, applies to out-of-pocket. In-network; 100% covered after 2 visit limit";
+        
+        var hipConditions = hipProcessor.extractConditions(cell, benefit);
+        var ghiConditions = ghiProcessor.extractConditions(cell, benefit);
+        assertEquals("$90 copay", hipConditions.getCostAmount());
+        assertEquals("$90 copay", ghiConditions.getCostAmount());
+        assertEquals("2 visit", hipConditions.getLimitations());
+        assertEquals("INN", hipConditions.getAdditionalFields().get("network"));
+        assertEquals("In-Network", ghiConditions.getAdditionalFields().get("network"));
+        assertNull(hipConditions.getAdditionalFields().get("coverage"));
+        assertEquals("100% Covered", ghiConditions.getAdditionalFields().get("coverage"));
+        
+        assertEquals(List.of("COST_SHARING_MISMATCH"), hipProcessor.validateConditions(hipConditions, benefit).stream()
+            .map(issue -> issue.getType()).toList());
+        assertEquals(List.of("GHI_COST_SHARING_MISMATCH"), ghiProcessor.validateConditions(ghiConditions, benefit).stream()
+            .map(issue -> issue.getType()).toList());
+        
+        // MOOP: HIP HMO applies unless excluded, GHI only when the cell says so
+        assertTrue(hipProcessor.extractConditions("$50 copay", benefit).getMoopApplicable());
+        assertFalse(ghiProcessor.extractConditions("$50 copay", benefit).getMoopApplicable());
+    }
+    
+    @Test
+    @DisplayName("Test 33: Rule Packs - A SOB type defined in a pack file matches like the hand-written processor")
+    void testRulePackSOBTypes() throws Exception {
+        GHIProcessor ghiProcessor = new GHIProcessor();
+        ObjectMapper mapper = new ObjectMapper();
+        java.nio.file.Path directory = java.nio.file.Files.createTempDirectory("vbm-rule-packs");
+        try {
+            // The GHI rules as a pack for a new product line, in two versions, plus a broken pack
+            com.fasterxml.jackson.databind.node.ObjectNode pack = rulePack(mapper, ghiProcessor.getRules(), "GHI_PPO", "1.9");
+            java.nio.file.Files.writeString(directory.resolve("ghi-ppo-1.9.json"), mapper.writeValueAsString(pack));
+            pack.put("version", "1.10");
+            pack.putObject("guidelines").put("INN Chiropractic/OON Chiropractic", "supplemental should be 4 limit");
+            java.nio.file.Files.writeString(directory.resolve("ghi-ppo-1.10.json"), mapper.writeValueAsString(pack));
+            pack.put("type", "BROKEN_PACK");
+            ((com.fasterxml.jackson.databind.node.ObjectNode) pack.get("conditions")).put("cost", "([0-9");
+            java.nio.file.Files.writeString(directory.resolve("broken.json"), mapper.writeValueAsString(pack));
+            pack.put("type", "BAD_REASONS");
+            ((com.fasterxml.jackson.databind.node.ObjectNode) pack.get("conditions")).put("cost", ghiProcessor.getRules().getCostRegex());
+            pack.putArray("matchReasons").add("exact").add("pattern");
+            java.nio.file.Files.writeString(directory.resolve("bad-reasons.json"), mapper.writeValueAsString(pack));
+            
+            SOBTypeRegistry registry = new SOBTypeRegistry(List.of(new HIPHMOProcessor(), ghiProcessor), true, "", directory.toString());
+            SOBType ghiPpo = SOBType.valueOf("GHI_PPO");
+            assertEquals(List.of(SOBType.HIP_HMO, SOBType.GHI, ghiPpo), registry.getTypes());
+            assertTrue(Arrays.stream(SOBType.values()).noneMatch(type -> type.name().equals("BROKEN_PACK")));
+            assertTrue(Arrays.stream(SOBType.values()).noneMatch(type -> type.name().equals("BAD_REASONS")));
+            RulePackProcessor packProcessor = (RulePackProcessor) registry.getProcessor(ghiPpo);
+            assertEquals("1.10", packProcessor.getVersion());
+            assertEquals("supplemental should be 4 limit", registry.getGuidelines(ghiPpo).get("INN Chiropractic/OON Chiropractic"));
+            assertNull(registry.getGuidelines(SOBType.GHI).get("INN Chiropractic/OON Chiropractic"));
+            
+            // Same scores and conditions as the processor the rules came from
+            VendorMatrixData vendorMatrix = new VendorMatrixData();
+            Map<String, String> columns = new java.util.LinkedHashMap<>();
+            for (String column : List.of("INN Inpt. Admission", "INN SNF", "INN ER", "OON ER", "INN PCP", "INN Specialist",
+                    "Podiatry", "INN Lab", "Ambulance", "DME", "Dialysis", "Preventive Care", "Member Services Phone")) {
+                columns.put(column, "$25 copay, prior approval required, 12 visit limit, 100% coinsurance");
+            }
+            vendorMatrix.setAllColumns(columns);
+            for (SOBBenefit benefit : createMockBenefits()) {
+                assertEquals(ghiProcessor.scoreColumns(benefit, vendorMatrix), packProcessor.scoreColumns(benefit, vendorMatrix));
+                var expected = ghiProcessor.extractConditions(columns.get("INN ER"), benefit);
+                var actual = packProcessor.extractConditions(columns.get("INN ER"), benefit);
+                assertEquals(expected.getCostAmount(), actual.getCostAmount());
+                assertEquals(expected.getPriorAuthRequired(), actual.getPriorAuthRequired());
+                assertEquals(expected.getMoopApplicable(), actual.getMoopApplicable());
+                assertEquals(expected.getLimitations(), actual.getLimitations());
+                assertEquals(expected.getAdditionalFields(), actual.getAdditionalFields());
+            }
+            
+            // The new type validates and maps with no enum constant or processor class of its own
+            SOBData sobData = createCompleteMockSOBData();
+            ValidationResult result = new ValidationServiceImpl(registry, false, 64, 0, "fork-join")
+                .validateWithSOBType(sobData, createMockVendorMatrixData(), ghiPpo);
+            assertEquals(ghiPpo, result.getSobType());
+            BenefitMappingServiceImpl mappingService = new BenefitMappingServiceImpl(registry, true, 16, 60, true);
+            assertEquals(new BenefitMappingServiceImpl(List.of(ghiProcessor), true, 16, 60, true)
+                    .mapBenefits(sobData, vendorMatrix, SOBType.GHI).stream().map(mapping -> mapping.getVbmColumn()).toList(),
+                mappingService.mapBenefits(sobData, vendorMatrix, ghiPpo).stream().map(mapping -> mapping.getVbmColumn()).toList());
+            
+            // Once its packs are gone the type is refused everywhere, although SOBType still knows the code
+            java.nio.file.Files.delete(directory.resolve("ghi-ppo-1.9.json"));
+            java.nio.file.Files.delete(directory.resolve("ghi-ppo-1.10.json"));
+            registry.reload();
+            assertFalse(registry.supports(ghiPpo));
+            assertThrows(IllegalArgumentException.class, () -> registry.resolve("GHI_PPO"));
+            assertThrows(IllegalArgumentException.class, () -> new ValidationServiceImpl(registry, false, 64, 0, "fork-join")
+                .validateWithSOBType(sobData, createMockVendorMatrixData(), ghiPpo));
+            injectMock(controller, "sobTypeRegistry", registry);
+            MockMultipartFile sobFile = new MockMultipartFile("sobFile", "SOB.xlsx", "application/octet-stream", "sob".getBytes());
+            MockMultipartFile vmFile = new MockMultipartFile("vendorMatrixFile", "VM.xlsx", "application/octet-stream", "vm".getBytes());
+            mockMvc.perform(multipart("/api/validate").file(sobFile).file(vmFile).param("sobType", "GHI_PPO"))
+                .andExpect(status().isBadRequest());
+            mockMvc.perform(multipart("/api/jobs").file(sobFile).file(vmFile).param("sobType", "GHI_PPO"))
+                .andExpect(status().isBadRequest());
+            assertEquals(SOBType.GHI, registry.resolve("GHI"));
+        } finally {
+            try (var files = java.nio.file.Files.list(directory)) {
+                for (java.nio.file.Path file : files.toList()) {
+                    java.nio.file.Files.delete(file);
+                }
+            }
+            java.nio.file.Files.delete(directory);
+        }
+    }
+    
+    private com.fasterxml.jackson.databind.node.ObjectNode rulePack(ObjectMapper mapper, SOBTypeRules rules, String type, String version) {
+        com.fasterxml.jackson.databind.node.ObjectNode pack = mapper.createObjectNode();
+        pack.put("type", type);
+        pack.put("version", version);
+        pack.put("displayName", "GHI PPO");
+        pack.put("labelPrefix", rules.getLabelPrefix());
+        com.fasterxml.jackson.databind.node.ObjectNode categories = pack.putObject("categories");
+        for (String category : rules.getVbmColumnPatterns().keySet()) {
+            com.fasterxml.jackson.databind.node.ObjectNode patterns = categories.putObject(category);
+            rules.getBenefitNamePatterns().getOrDefault(category, List.of()).forEach(patterns.putArray("benefitNames")::add);
+            rules.getVbmColumnPatterns().get(category).forEach(patterns.putArray("columns")::add);
+        }
+        com.fasterxml.jackson.databind.node.ObjectNode terms = pack.putObject("medicalTerms");
+        rules.getMedicalTerms().forEach((term, synonyms) -> synonyms.forEach(terms.putArray(term)::add));
+        com.fasterxml.jackson.databind.node.ObjectNode conditions = pack.putObject("conditions");
+        conditions.put("cost", rules.getCostRegex());
+        conditions.put("percentage", rules.getPercentageRegex());
+        conditions.put("limit", rules.getLimitRegex());
+        com.fasterxml.jackson.databind.node.ArrayNode priorAuthConcepts = conditions.putArray("priorAuthConcepts");
+        rules.getPriorAuthConcepts().forEach(concept -> priorAuthConcepts.add(concept.name()));
+        com.fasterxml.jackson.databind.node.ArrayNode limitConcepts = conditions.putArray("limitConcepts");
+        rules.getLimitConcepts().forEach(concept -> limitConcepts.add(concept.name()));
+        conditions.put("moopRule", rules.getMoopRule().name());
+        pack.putObject("labels")
+            .put("inNetwork", rules.getInNetworkLabel())
+            .put("outOfNetwork", rules.getOutOfNetworkLabel())
+            .put("fullCoverage", rules.getFullCoverageLabel());
+        pack.putObject("scores")
+            .put("exactMatch", rules.getExactMatchScore())
+            .put("patternMatch", rules.getPatternMatchScore())
+            .put("synonym", rules.getSynonymScore())
+            .put("categoryMatch", rules.getCategoryMatchScore())
+            .put("categoryPartialWeight", rules.getCategoryPartialWeight())
+            .put("detected", rules.getDetectedThreshold())
+            .put("minimum", rules.getMinimumScore());
+        rules.getMatchReasons().forEach(pack.putArray("matchReasons")::add);
+        return pack;
+    }
+    
+    @Test
+    @DisplayName("Test 34: Batch Validation - Zip bombs and oversized batches are rejected with 400")
+    void testBatchUnpackLimits() throws Exception {
+        // 8 MB of zeros deflates to a few KB
+        ByteArrayOutputStream bombBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bombBytes)) {
+            zip.putNextEntry(new ZipEntry("bomb.xlsx"));
+            byte[] zeros = new byte[1024 * 1024];
+            for (int i = 0; i < 8; i++) {
+                zip.write(zeros);
+            }
+            zip.closeEntry();
+        }
+        assertTrue(bombBytes.size() < 64 * 1024);
+        MockMultipartFile bomb = new MockMultipartFile("sobFiles", "bomb.zip", "application/zip", bombBytes.toByteArray());
+        
+        BatchValidationService batchService = new BatchValidationService(
+            new DocumentProcessorService(List.of(new ExcelProcessor())), validationService, 1, 3, 1024 * 1024, 2 * 1024 * 1024);
+        try {
+            assertThrows(BatchValidationService.BatchLimitException.class, () -> batchService.expandSOBFiles(List.of(bomb)));
+            
+            // Small files still count against the file and total caps
+            MockMultipartFile sob = createSOBExcelFile(5, "PID-1", "PID-1.xlsx");
+            assertEquals(3, batchService.expandSOBFiles(List.of(sob, sob, sob)).size());
+            assertThrows(BatchValidationService.BatchLimitException.class,
+                () -> batchService.expandSOBFiles(List.of(sob, sob, sob, sob)));
+            
+            injectMock(controller, "batchValidationService", batchService);
+            when(documentProcessorService.extractVendorMatrixBook(any())).thenReturn(new VendorMatrixBook("vm.xlsx", List.of()));
+            mockMvc.perform(multipart("/api/validate/batch")
+                    .file(bomb)
+                    .file(new MockMultipartFile("vendorMatrixFile", "vm.xlsx", "application/octet-stream", new byte[] {1})))
+                .andExpect(status().isBadRequest());
+        } finally {
+            batchService.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Test 37: Validation Jobs - Full queue is refused with 503, slow listeners don't hold up workers")
+    void testValidationJobBackpressure() throws Exception {
+        java.util.concurrent.CountDownLatch started = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch listenerRelease = new java.util.concurrent.CountDownLatch(1);
+        when(documentProcessorService.extractSOBData(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, java.util.concurrent.TimeUnit.SECONDS);
+            return createCompleteMockSOBData();
+        });
+        when(documentProcessorService.extractVendorMatrixData(any())).thenReturn(createMockVendorMatrixData());
+        ValidationJobService jobService = new ValidationJobService(documentProcessorService, new ValidationServiceImpl(),
+            createResultStore(4, false, null), java.util.Optional.empty(), 1, 30, 1);
+        MockMultipartFile sobFile = new MockMultipartFile("sobFile", "SOB.xlsx", "application/octet-stream", "sob".getBytes());
+        MockMultipartFile vmFile = new MockMultipartFile("vendorMatrixFile", "VM.xlsx", "application/octet-stream", "vm".getBytes());
+        
+        try {
+            ValidationJob running = jobService.submit(sobFile, vmFile, SOBType.HIP_HMO);
+            assertTrue(started.await(10, java.util.concurrent.TimeUnit.SECONDS));
+            // A client that never reads its events
+            assertTrue(jobService.subscribe(running.getJobId(), update -> {
+                try {
+                    listenerRelease.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            ValidationJob queued = jobService.submit(sobFile, vmFile, SOBType.HIP_HMO);
+            
+            assertThrows(ValidationJobService.JobQueueFullException.class, () -> jobService.submit(sobFile, vmFile, SOBType.HIP_HMO));
+            injectMock(controller, "validationJobService", jobService);
+            mockMvc.perform(multipart("/api/jobs").file(sobFile).file(vmFile))
+                .andExpect(status().isServiceUnavailable());
+            
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!queued.isFinished() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(ValidationJob.State.COMPLETED, running.getState());
+            assertEquals(ValidationJob.State.COMPLETED, queued.getState());
+            assertNotNull(jobService.submit(sobFile, vmFile, SOBType.HIP_HMO).getJobId());
+        } finally {
+            listenerRelease.countDown();
+            jobService.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("Test 38: Result Store - Memory tier is bounded by upload size and never spills expired validations")
+    void testResultStoreWeightBound() throws Exception {
+        java.nio.file.Path directory = java.nio.file.Files.createTempDirectory("vbm-results");
+        TieredValidationResultStore store = new TieredValidationResultStore(new ObjectMapper().findAndRegisterModules(),
+            64, 1, 60, true, directory.toString());
+        
+        ValidationResult first = createMockValidationResult();
+        first.setValidationId("VAL-1-FIRST");
+        ValidationResult second = createMockValidationResult();
+        second.setValidationId("VAL-2-SECOND");
+        store.put(new StoredValidation(SOBType.HIP_HMO, createCompleteMockSOBData(), createMockVendorMatrixData(),
+            first, new byte[600 * 1024]));
+        store.put(new StoredValidation(SOBType.HIP_HMO, createCompleteMockSOBData(), createMockVendorMatrixData(),
+            second, new byte[600 * 1024]));
+        
+        // Two 600 KB uploads don't fit in 1 MB, far below the entry bound
+        assertEquals(1, store.getStats().getSize());
+        assertTrue(store.getMemoryWeight() <= 1024 * 1024);
+        assertTrue(java.nio.file.Files.exists(directory.resolve("VAL-1-FIRST.json.gz")));
+        assertEquals(600 * 1024, store.get("VAL-1-FIRST").getVendorMatrixUpload().length);
+        
+        // An entry past its TTL is dropped, not handed to the eviction listener
+        List<String> evicted = new java.util.ArrayList<>();
+        ParseCache<String> shortLived = new ParseCache<>("short-lived", 1, 1, java.util.concurrent.TimeUnit.MILLISECONDS,
+            (key, value) -> evicted.add(key));
+        shortLived.put("expired", "a");
+        Thread.sleep(5);
+        shortLived.put("current", "b");
+        assertTrue(evicted.isEmpty());
+        assertEquals(1, shortLived.getStats().getExpirations());
+        
+        ParseCache<String> longLived = new ParseCache<>("long-lived", 1, 1, java.util.concurrent.TimeUnit.HOURS,
+            (key, value) -> evicted.add(key));
+        longLived.put("older", "a");
+        longLived.put("newer", "b");
+        assertEquals(List.of("older"), evicted);
+    }
+    
+    @Test
+    @DisplayName("Test 39: Write-Behind History - Results submitted while shutting down are all saved")
+    void testValidationHistoryWriterShutdownRace() throws Exception {
+        ValidationHistoryService history = mock(ValidationHistoryService.class);
+        java.util.Set<String> saved = java.util.concurrent.ConcurrentHashMap.newKeySet();
+        org.mockito.Mockito.doAnswer(invocation -> {
+            List<ValidationResult> batch = invocation.getArgument(0);
+            batch.forEach(result -> saved.add(result.getValidationId()));
+            return null;
+        }).when(history).saveAll(any());
+        ValidationHistoryWriter writer = new ValidationHistoryWriter(history, 1000, 10, 5, 500);
+        
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        java.util.concurrent.CountDownLatch go = new java.util.concurrent.CountDownLatch(1);
+        try {
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                submitters.execute(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 500; i++) {
+                        ValidationResult result = createMockValidationResult();
+                        result.setValidationId("VAL-" + thread + "-" + i);
+                        writer.submit(result);
+                    }
+                });
+            }
+            go.countDown();
+            Thread.sleep(2);
+            writer.shutdown();
+        } finally {
+            submitters.shutdown();
+            assertTrue(submitters.awaitTermination(10, java.util.concurrent.TimeUnit.SECONDS));
+        }
+        
+        // Whether queued, drained or saved by the caller after shutdown, nothing is lost
+        assertEquals(2000, saved.size());
+        assertEquals(2000, writer.getStats().getWritten());
+    }
+    
+    @Test
+    @Tag("load")
+    @DisplayName("Test 23: Load - Concurrent uploads on platform vs virtual request threads")
+    void testUploadLoadPlatformVersusVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need a Java 21+ runtime");
+        int concurrency = Integer.getInteger("vbm.load.concurrency", 64);
+        int requests = Integer.getInteger("vbm.load.requests", 640);
+        byte[] sob = createSOBExcelFile(40).getBytes();
+        byte[] vendorMatrix = createVendorMatrixExcelFile(1).getBytes();
+        
+        UploadLoadResult platform = runUploadLoad(sob, vendorMatrix, concurrency, requests);
+        UploadLoadResult virtual = runUploadLoad(sob, vendorMatrix, concurrency, requests, "virtual");
+        System.out.printf("Upload load (%d concurrent, %d requests)%n  platform: %s%n  virtual:  %s%n",
+            concurrency, requests, platform, virtual);
+        
+        assertEquals(0, platform.failures);
+        assertEquals(0, virtual.failures);
+    }
+    
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Test 35: Benchmark - Cost sharing tokenizer vs regex extraction")
+    void benchmarkCostSharingTokenizer() {
+        // Best of 3 timed rounds after a warmup round
+        long regexNanos = Long.MAX_VALUE;
+        long tokenizerNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 4; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 2_000; i++) {
+                for (String[] pair : COST_SHARING_PAIRS) legacyCostSharingMatch(pair[0], pair[1]);
+            }
+            long mid = System.nanoTime();
+            for (int i = 0; i < 2_000; i++) {
+                for (String[] pair : COST_SHARING_PAIRS) CostSharingComparator.matches(pair[0], pair[1]);
+            }
+            long end = System.nanoTime();
+            if (round > 0) {
+                regexNanos = Math.min(regexNanos, mid - start);
+                tokenizerNanos = Math.min(tokenizerNanos, end - mid);
+            }
+        }
+        System.out.printf("Cost sharing comparison: tokenizer %d us, regex extraction %d us%n",
+            tokenizerNanos / 1_000, regexNanos / 1_000);
+        assertTrue(tokenizerNanos < regexNanos,
+            "Tokenizer (" + tokenizerNanos + "ns) should beat regex extraction (" + regexNanos + "ns)");
+    }
+    
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Test 36: Benchmark - SOB benefit lookup at 1,250 vs 5,000 benefits")
+    void benchmarkSOBBenefitLookup() {
+        SOBData smallSob = createIndexedLookupSOB(1_250);
+        SOBData largeSob = createIndexedLookupSOB(5_000);
+        
+        // Warm up, then time the same number of lookups against both sizes
+        int lookups = 200_000;
+        timeBenefitLookups(smallSob, 1_250, lookups);
+        timeBenefitLookups(largeSob, 5_000, lookups);
+        long smallNanos = Long.MAX_VALUE;
+        long largeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            smallNanos = Math.min(smallNanos, timeBenefitLookups(smallSob, 1_250, lookups));
+            largeNanos = Math.min(largeNanos, timeBenefitLookups(largeSob, 5_000, lookups));
+        }
+        
+        // A linear scan would cost about 4x per lookup on the larger SOB
+        double ratio = (double) largeNanos / smallNanos;
+        assertTrue(ratio < 2.5, "Benefit lookup should not grow with SOB size, 4x benefits took " + ratio + "x time ("
+            + smallNanos / lookups + " ns vs " + largeNanos / lookups + " ns per lookup)");
+    }
+    
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Test 40: Benchmark - Assignment of 500 benefits to 300 columns")
+    void benchmarkGlobalBenefitAssignment() {
+        List<Map<String, Double>> scores = createAssignmentScores(500, 300);
+        BenefitColumnAssigner.assign(scores);  // warm up
+        
+        long start = System.nanoTime();
+        BenefitColumnAssigner.Assignment assignment = BenefitColumnAssigner.assign(scores);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 1_000, String.format("Assignment took %d ms, total %.2f vs greedy %.2f",
+            elapsedMillis, assignment.getTotalScore(), assignment.getGreedyTotalScore()));
+    }
+    
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Test 41: Benchmark - SOB parsing at 2,500 vs 10,000 rows")
+    void benchmarkSOBParsing() throws Exception {
+        MockMultipartFile smallSheet = createSOBExcelFile(2_500);
+        MockMultipartFile largeSheet = createSOBExcelFile(10_000);
+        assertSOBParsingScalesLinearly(smallSheet, largeSheet, false);
+        assertSOBParsingScalesLinearly(smallSheet, largeSheet, true);
+    }
+    
+    @Test
+    @DisplayName("Test 42: Result Store - Spilling trims expired and oldest spill files to the disk cap")
+    void testResultStoreDiskCap() throws Exception {
+        java.nio.file.Path directory = java.nio.file.Files.createTempDirectory("vbm-results");
+        java.nio.file.Path stale = directory.resolve("VAL-STALE.json.gz");
+        java.nio.file.Files.write(stale, new byte[1024]);
+        java.nio.file.Files.setLastModifiedTime(stale, java.nio.file.attribute.FileTime.fromMillis(
+            System.currentTimeMillis() - java.util.concurrent.TimeUnit.HOURS.toMillis(2)));
+        TieredValidationResultStore store = new TieredValidationResultStore(new ObjectMapper().findAndRegisterModules(),
+            1, 256, 60, true, directory.toString(), 1);
+        
+        // Random uploads don't compress, so each spill file is a little over 400 KB
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 1; i <= 4; i++) {
+            ValidationResult result = createMockValidationResult();
+            result.setValidationId("VAL-" + i);
+            byte[] upload = new byte[400 * 1024];
+            random.nextBytes(upload);
+            store.put(new StoredValidation(SOBType.HIP_HMO, createCompleteMockSOBData(), createMockVendorMatrixData(),
+                result, upload));
+            java.nio.file.Path spilled = directory.resolve("VAL-" + (i - 1) + ".json.gz");
+            if (java.nio.file.Files.exists(spilled)) {
+                // Keep spill order unambiguous on coarse file timestamps
+                java.nio.file.Files.setLastModifiedTime(spilled, java.nio.file.attribute.FileTime.fromMillis(
+                    System.currentTimeMillis() - java.util.concurrent.TimeUnit.MINUTES.toMillis(10 - i)));
+            }
+        }
+        
+        // The stale file went on the first spill; the third spill pushed the oldest over 1 MB
+        assertFalse(java.nio.file.Files.exists(stale));
+        assertFalse(java.nio.file.Files.exists(directory.resolve("VAL-1.json.gz")));
+        assertTrue(java.nio.file.Files.exists(directory.resolve("VAL-2.json.gz")));
+        assertTrue(java.nio.file.Files.exists(directory.resolve("VAL-3.json.gz")));
+        long diskBytes;
+        try (java.util.stream.Stream<java.nio.file.Path> spills = java.nio.file.Files.list(directory)) {
+            diskBytes = spills.mapToLong(spill -> spill.toFile().length()).sum();
+        }
+        assertTrue(diskBytes <= 1024 * 1024, "Disk tier holds " + diskBytes + " bytes");
+        assertNull(store.get("VAL-1"));
+        assertEquals(400 * 1024, store.get("VAL-2").getVendorMatrixUpload().length);
+    }
+    
     // Helper methods
+    private void assertSOBParsingScalesLinearly(MockMultipartFile smallSheet, MockMultipartFile largeSheet,
+                                                boolean streaming) throws Exception {
+        ExcelProcessor processor = new ExcelProcessor();
+        String path = streaming ? "streaming" : "workbook";
+        
+        // Warm up both sizes before timing
+        parseSOB(processor, smallSheet, streaming);
+        parseSOB(processor, largeSheet, streaming);
+        
+        long smallNanos = Long.MAX_VALUE;
+        long largeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            parseSOB(processor, smallSheet, streaming);
+            smallNanos = Math.min(smallNanos, System.nanoTime() - start);
+            
+            start = System.nanoTime();
+            parseSOB(processor, largeSheet, streaming);
+            largeNanos = Math.min(largeNanos, System.nanoTime() - start);
+        }
+        
+        // 4x the rows should cost roughly 4x the time; a per-row rescan would approach 16x
+        double ratio = (double) largeNanos / smallNanos;
+        assertTrue(ratio < 10.0, "SOB parsing (" + path + ") should scale near-linearly, 4x rows took " + ratio + "x time ("
+            + smallNanos / 1_000_000 + " ms vs " + largeNanos / 1_000_000 + " ms)");
+    }
+    
+    private Map<String, byte[]> readRawZipEntries(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new java.util.LinkedHashMap<>();
+        try (org.apache.commons.compress.archivers.zip.ZipFile zipFile = new org.apache.commons.compress.archivers.zip.ZipFile(
+                new org.apache.commons.compress.utils.SeekableInMemoryByteChannel(zip))) {
+            for (org.apache.commons.compress.archivers.zip.ZipArchiveEntry entry : java.util.Collections.list(zipFile.getEntries())) {
+                try (java.io.InputStream in = zipFile.getRawInputStream(entry)) {
+                    entries.put(entry.getName(), in.readAllBytes());
+                }
+            }
+        }
+        return entries;
+    }
+    
+    // Each benefit scores six random columns, seeded so every run sees the same bids
+    private List<Map<String, Double>> createAssignmentScores(int benefits, int columns) {
+        java.util.Random random = new java.util.Random(7);
+        List<Map<String, Double>> scores = new java.util.ArrayList<>();
+        for (int b = 0; b < benefits; b++) {
+            Map<String, Double> candidates = new java.util.LinkedHashMap<>();
+            for (int k = 0; k < 6; k++) {
+                candidates.put("Column " + random.nextInt(columns), 0.4 + random.nextInt(61) / 100.0);
+            }
+            scores.add(candidates);
+        }
+        return scores;
+    }
+    
+    private record UploadLoadResult(double uploadsPerSecond, long p50Millis, long p99Millis, int failures) {
+        @Override
+        public String toString() {
+            return String.format("%.1f uploads/s, p50 %d ms, p99 %d ms, %d failures", uploadsPerSecond, p50Millis, p99Millis, failures);
+        }
+    }
+    
+    // Boots the app on a random port with the given Spring profiles and posts uploads to /api/validate
+    private UploadLoadResult runUploadLoad(byte[] sob, byte[] vendorMatrix, int concurrency, int requests,
+                                           String... profiles) throws Exception {
+        // Command-line args, so application.properties cannot put the fixed port or the caches back
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(App.class)
+                .profiles(profiles)
+                .run("--server.port=0", "--vbm.parse-cache.enabled=false", "--vbm.result-cache.enabled=false")) {
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/validate");
+            String boundary = "vbm-load-" + System.nanoTime();
+            byte[] body = multipartBody(boundary, sob, vendorMatrix);
+            ExecutorService clientPool = Executors.newFixedThreadPool(concurrency);
+            HttpClient client = HttpClient.newBuilder().executor(clientPool).build();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+            
+            // Warm up, then measure
+            for (int i = 0; i < concurrency; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+            
+            ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+            long[] latencies = new long[requests];
+            java.util.concurrent.atomic.AtomicInteger failures = new java.util.concurrent.atomic.AtomicInteger();
+            long start = System.nanoTime();
+            List<java.util.concurrent.Future<?>> calls = new java.util.ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                calls.add(callers.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - sent;
+                }));
+            }
+            for (java.util.concurrent.Future<?> call : calls) {
+                call.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            callers.shutdown();
+            clientPool.shutdown();
+            
+            // Identical uploads must each be parsed and validated, not served from a cache
+            assertEquals(0, context.getBean(CachingValidationService.class).getResultCacheStats().getHits());
+            assertTrue(context.getBean(DocumentProcessorService.class).getParseCacheStats().stream()
+                .allMatch(stats -> stats.getHits() == 0));
+            
+            Arrays.sort(latencies);
+            return new UploadLoadResult(requests / (elapsed / 1e9),
+                latencies[requests / 2] / 1_000_000,
+                latencies[Math.min(requests - 1, (int) Math.ceil(requests * 0.99) - 1)] / 1_000_000,
+                failures.get());
+        }
+    }
+    
+    private byte[] multipartBody(String boundary, byte[] sob, byte[] vendorMatrix) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        String xlsx = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"sobFile\"; filename=\"SOB.xlsx\"\r\n"
+            + "Content-Type: " + xlsx + "\r\n\r\n").getBytes());
+        body.write(sob);
+        body.write(("\r\n--" + boundary + "\r\nContent-Disposition: form-data; name=\"vendorMatrixFile\"; filename=\"VM.xlsx\"\r\n"
+            + "Content-Type: " + xlsx + "\r\n\r\n").getBytes());
+        body.write(vendorMatrix);
+        body.write(("\r\n--" + boundary + "\r\nContent-Disposition: form-data; name=\"sobType\"\r\n\r\nHIP_HMO"
+            + "\r\n--" + boundary + "--\r\n").getBytes());
+        return body.toByteArray();
+    }
+    
+    private boolean legacyCostSharingMatch(String sob, String vm) {
+        String normalizedSOB = sob.toLowerCase().replaceAll("\\s+", " ").trim();
+        String normalizedVM = vm.toLowerCase().replaceAll("\\s+", " ").trim();
+        List<String> sobValues = legacyCostValues(normalizedSOB);
+        List<String> vmValues = legacyCostValues(normalizedVM);
+        if (!sobValues.isEmpty() && !vmValues.isEmpty()) {
+            return sobValues.equals(vmValues);
+        }
+        return normalizedSOB.equals(normalizedVM);
+    }
+    
+    private List<String> legacyCostValues(String text) {
+        List<String> values = new java.util.ArrayList<>();
+        java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("\\$\\d+(?:,\\d{3})*(?:\\.\\d{2})?").matcher(text);
+        while (matcher.find()) values.add(matcher.group());
+        matcher = java.util.regex.Pattern.compile("\\d+%").matcher(text);
+        while (matcher.find()) values.add(matcher.group());
+        return values;
+    }
+    
+    private MockMultipartFile createVendorMatrixExcelFile(int planRows) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("VBM");
+            String[] headers = {"Product Name", "2025 Product ID", "PCP Copay"};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                headerRow.createCell(i).setCellValue(headers[i]);
+            }
+            
+            for (int i = 0; i < planRows; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue("Plan " + i);
+                row.createCell(1).setCellValue("PID-" + i);
+                row.createCell(2).setCellValue("$10 copay");
+            }
+            // Trailing blank row should not become a plan
+            sheet.createRow(planRows + 1).createCell(0).setCellValue(" ");
+            
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return new MockMultipartFile("vendorMatrixFile", "Multi_Plan_VBM.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                outputStream.toByteArray());
+        }
+    }
+    
+    private MockMultipartFile createSOBExcelFile(int benefitRows) throws IOException {
+        return createSOBExcelFile(benefitRows, "HIP-LARGE", "Large_SOB.xlsx");
+    }
+    
+    private MockMultipartFile createSOBExcelFile(int benefitRows, String productId, String fileName) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("SOB");
+            String[][] metadata = {
+                {"Plan Name", "Large Plan"},
+                {"Product ID", productId},
+                {"Effective Date", "2025-01-01"},
+                {"Maximum Out of Pocket cost (MOOP)", "$3,400"}
+            };
+            int rowNum = 0;
+            for (String[] entry : metadata) {
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(entry[0]);
+                row.createCell(1).setCellValue(entry[1]);
+            }
+            
+            String[] headers = {"PBP Category", "Benefit", "In Network Member Cost Sharing", "Notations", "PA Required"};
+            Row headerRow = sheet.createRow(++rowNum);
+            for (int i = 0; i < headers.length; i++) {
+                headerRow.createCell(i).setCellValue(headers[i]);
+            }
+            
+            for (int i = 0; i < benefitRows; i++) {
+                Row row = sheet.createRow(++rowNum);
+                row.createCell(0).setCellValue("B" + i);
+                row.createCell(1).setCellValue("Benefit " + i);
+                row.createCell(2).setCellValue("$100 copay for benefit " + i);
+                row.createCell(3).setCellValue("Prior authorization required");
+                row.createCell(4).setCellValue(i % 2 == 0 ? "Y" : "N");
+            }
+            
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return new MockMultipartFile("sobFile", fileName,
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                outputStream.toByteArray());
+        }
+    }
+    
     private void injectMock(Object target, String fieldName, Object mock) {
         try {
             java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
@@ -358,6 +1727,40 @@ public class ApplicationTest {
         );
     }
     
+    private SOBData createIndexedLookupSOB(int benefitCount) {
+        List<SOBBenefit> benefits = new java.util.ArrayList<>(benefitCount);
+        for (int i = 0; i < benefitCount; i++) {
+            // PBP categories repeat, as several benefit rows share one
+            benefits.add(SOBBenefit.builder()
+                .pbpCategory(String.valueOf(i % 1_250))
+                .benefitName("Benefit " + i)
+                .benefitCategory("Category " + i)
+                .costSharing("$" + i + " copay")
+                .build());
+        }
+        return SOBData.builder().planName("Lookup Plan").benefits(benefits).build();
+    }
+    
+    private long timeBenefitLookups(SOBData sobData, int benefitCount, int lookups) {
+        String[] categories = new String[benefitCount];
+        for (int i = 0; i < benefitCount; i++) {
+            categories[i] = "Category " + i;
+        }
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (sobData.getBenefit(categories[(i * 31) % benefitCount]) != null) found++;
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(lookups, found);
+        return elapsed;
+    }
+    
+    private TieredValidationResultStore createResultStore(int memoryEntries, boolean diskEnabled, java.nio.file.Path directory) {
+        String path = directory != null ? directory.toString() : System.getProperty("java.io.tmpdir");
+        return new TieredValidationResultStore(new ObjectMapper().findAndRegisterModules(), memoryEntries, 60, diskEnabled, path);
+    }
+    
     private VendorMatrixData createMockVendorMatrixData() {
         Map<String, String> benefitData = new HashMap<>();
         benefitData.put("1a - Inpatient Hospital", "$350 per day (days 1-5)");